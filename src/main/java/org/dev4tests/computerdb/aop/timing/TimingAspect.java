@@ -0,0 +1,121 @@
+package org.dev4tests.computerdb.aop.timing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.dev4tests.computerdb.config.ApplicationProperties;
+
+/**
+ * Aspect timing the execution of the repository, service and REST methods, on the pointcuts of the
+ * {@link org.dev4tests.computerdb.aop.logging.LoggingAspect}.
+ * <p>
+ * Each method has a {@link #METER_NAME} timer tagged with its class and name, and with the exception it threw if any.
+ * The timers of the successful calls are looked up once per method, and the arguments are never read. Only a ratio of
+ * the calls can be timed, in which case the counts of the timers are sampled too, and the timing can be switched off
+ * at runtime.
+ */
+@Aspect
+public class TimingAspect {
+
+    public static final String METER_NAME = "method.timed";
+
+    private static final String NO_EXCEPTION = "none";
+
+    private final MeterRegistry meterRegistry;
+
+    private final double[] percentiles;
+
+    private final boolean percentileHistogram;
+
+    private final Map<Method, Timer> timers = new ConcurrentHashMap<>();
+
+    private volatile boolean enabled;
+
+    private volatile double sampleRate;
+
+    public TimingAspect(MeterRegistry meterRegistry, ApplicationProperties.Timing timing) {
+        this.meterRegistry = meterRegistry;
+        this.percentiles = timing.getPercentiles();
+        this.percentileHistogram = timing.isPercentileHistogram();
+        this.enabled = timing.isEnabled();
+        setSampleRate(timing.getSampleRate());
+    }
+
+    /**
+     * Advice that times the methods.
+     *
+     * @param joinPoint join point for advice.
+     * @return result.
+     * @throws Throwable the exception thrown by the method.
+     */
+    @Around(
+        "org.dev4tests.computerdb.aop.logging.LoggingAspect.applicationPackagePointcut()" +
+        " && org.dev4tests.computerdb.aop.logging.LoggingAspect.springBeanPointcut()"
+    )
+    public Object timeAround(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!enabled || !sampled()) {
+            return joinPoint.proceed();
+        }
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            timer((MethodSignature) joinPoint.getSignature(), e.getClass().getSimpleName())
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Timer timer = timers.get(method);
+        if (timer == null) {
+            timer = timers.computeIfAbsent(method, key -> timer((MethodSignature) joinPoint.getSignature(), NO_EXCEPTION));
+        }
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return result;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public void setSampleRate(double sampleRate) {
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("The sample rate must be between 0 and 1: " + sampleRate);
+        }
+        this.sampleRate = sampleRate;
+    }
+
+    private boolean sampled() {
+        double rate = sampleRate;
+        return rate >= 1 || ThreadLocalRandom.current().nextDouble() < rate;
+    }
+
+    private Timer timer(MethodSignature signature, String exception) {
+        return Timer
+            .builder(METER_NAME)
+            .description("Execution time of the repository, service and REST methods")
+            .tag("class", signature.getDeclaringTypeName())
+            .tag("method", signature.getName())
+            .tag("exception", exception)
+            // Overridden by management.metrics.distribution, which maps "method.timed" to the same settings
+            .publishPercentiles(percentiles)
+            .publishPercentileHistogram(percentileHistogram)
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,38 @@
+package org.dev4tests.computerdb.aop.timing;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+
+/**
+ * Management endpoint reading and switching the {@link TimingAspect} at runtime, for instance to stop timing the
+ * methods when it costs too much: {@code POST /management/timing} with {@code {"enabled": false}}.
+ */
+@Endpoint(id = "timing")
+public class TimingEndpoint {
+
+    private final TimingAspect timingAspect;
+
+    public TimingEndpoint(TimingAspect timingAspect) {
+        this.timingAspect = timingAspect;
+    }
+
+    @ReadOperation
+    public TimingSettings settings() {
+        return new TimingSettings(timingAspect.isEnabled(), timingAspect.getSampleRate());
+    }
+
+    @WriteOperation
+    public TimingSettings update(@Nullable Boolean enabled, @Nullable Double sampleRate) {
+        if (sampleRate != null) {
+            timingAspect.setSampleRate(sampleRate);
+        }
+        if (enabled != null) {
+            timingAspect.setEnabled(enabled);
+        }
+        return settings();
+    }
+
+    public record TimingSettings(boolean enabled, double sampleRate) {}
+}
@@ -0,0 +1,4 @@
+/**
+ * Timing aspect.
+ */
+package org.dev4tests.computerdb.aop.timing;
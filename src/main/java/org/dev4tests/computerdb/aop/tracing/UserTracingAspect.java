@@ -0,0 +1,64 @@
+package org.dev4tests.computerdb.aop.tracing;
+
+import io.micrometer.common.KeyValues;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+
+/**
+ * Aspect observing the calls to the {@link org.dev4tests.computerdb.service.UserService} and to the
+ * {@link org.dev4tests.computerdb.repository.UserRepository}, so that they are spans of the traces of the requests.
+ * <p>
+ * It runs inside the other advice, the caching included: a span of a cached repository method is a cache miss.
+ */
+@Aspect
+public class UserTracingAspect implements Ordered {
+
+    public static final String NAME = "user.method";
+
+    private final ObservationRegistry observationRegistry;
+
+    public UserTracingAspect(ObservationRegistry observationRegistry) {
+        this.observationRegistry = observationRegistry;
+    }
+
+    /**
+     * Advice that observes the methods.
+     *
+     * @param joinPoint join point for advice.
+     * @return result.
+     * @throws Throwable the exception thrown by the method.
+     */
+    @Around(
+        "within(org.dev4tests.computerdb.service.UserService)" +
+        " || target(org.dev4tests.computerdb.repository.UserRepository)"
+    )
+    public Object observeAround(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (observationRegistry.isNoop()) {
+            return joinPoint.proceed();
+        }
+        String className = joinPoint.getSignature().getDeclaringType().getSimpleName();
+        String methodName = joinPoint.getSignature().getName();
+        Observation observation = Observation
+            .createNotStarted(NAME, observationRegistry)
+            .contextualName(className + "#" + methodName)
+            .lowCardinalityKeyValues(KeyValues.of("class", className, "method", methodName))
+            .start();
+        try (Observation.Scope scope = observation.openScope()) {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            observation.error(e);
+            throw e;
+        } finally {
+            observation.stop();
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Tracing aspect.
+ */
+package org.dev4tests.computerdb.aop.tracing;
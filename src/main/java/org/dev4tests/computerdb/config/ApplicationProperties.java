@@ -1,6 +1,12 @@
 package org.dev4tests.computerdb.config;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
 /**
  * Properties specific to Computer DB.
@@ -10,7 +16,1066 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
 public class ApplicationProperties {
+
+    private final Pagination pagination = new Pagination();
+
+    private final UserImport userImport = new UserImport();
+
+    private final Security security = new Security();
+
+    private final Cache cache = new Cache();
+
+    private final RequestAdmission requestAdmission = new RequestAdmission();
+
+    private final VirtualThreads virtualThreads = new VirtualThreads();
+
+    private final MailOutbox mailOutbox = new MailOutbox();
+
+    private final Timing timing = new Timing();
+
+    private final StaticResources staticResources = new StaticResources();
+
     // jhipster-needle-application-properties-property
+
+    public Pagination getPagination() {
+        return pagination;
+    }
+
+    public UserImport getUserImport() {
+        return userImport;
+    }
+
+    public Security getSecurity() {
+        return security;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public RequestAdmission getRequestAdmission() {
+        return requestAdmission;
+    }
+
+    public VirtualThreads getVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public MailOutbox getMailOutbox() {
+        return mailOutbox;
+    }
+
+    public Timing getTiming() {
+        return timing;
+    }
+
+    public StaticResources getStaticResources() {
+        return staticResources;
+    }
+
     // jhipster-needle-application-properties-property-getter
+
+    public static class Pagination {
+
+        /**
+         * Delay between two refreshes of the approximate user counts.
+         */
+        private Duration approximateCountRefresh = Duration.ofMinutes(5);
+
+        public Duration getApproximateCountRefresh() {
+            return approximateCountRefresh;
+        }
+
+        public void setApproximateCountRefresh(Duration approximateCountRefresh) {
+            this.approximateCountRefresh = approximateCountRefresh;
+        }
+    }
+
+    public static class UserImport {
+
+        /**
+         * Number of users validated and inserted in each transaction of a bulk import.
+         */
+        private int chunkSize = 500;
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+    }
+
+    public static class Security {
+
+        private final PasswordHashing passwordHashing = new PasswordHashing();
+
+        private final TokenCache tokenCache = new TokenCache();
+
+        private final Signing signing = new Signing();
+
+        private final LoginThrottling loginThrottling = new LoginThrottling();
+
+        /**
+         * IP addresses or CIDR ranges of the proxies whose X-Forwarded-For header gives the client address of their requests.
+         */
+        private List<String> trustedProxies = new ArrayList<>();
+
+        public PasswordHashing getPasswordHashing() {
+            return passwordHashing;
+        }
+
+        public TokenCache getTokenCache() {
+            return tokenCache;
+        }
+
+        public Signing getSigning() {
+            return signing;
+        }
+
+        public LoginThrottling getLoginThrottling() {
+            return loginThrottling;
+        }
+
+        public List<String> getTrustedProxies() {
+            return trustedProxies;
+        }
+
+        public void setTrustedProxies(List<String> trustedProxies) {
+            this.trustedProxies = trustedProxies;
+        }
+
+        public static class PasswordHashing {
+
+            /**
+             * BCrypt cost factor of new hashes. Hashes with another cost are re-hashed on the next successful login.
+             */
+            private int bcryptStrength = 10;
+
+            /**
+             * Number of threads hashing passwords, the number of available processors when 0.
+             */
+            private int threads = 0;
+
+            /**
+             * Number of hashing requests waiting for a thread, beyond which requests are rejected.
+             */
+            private int queueCapacity = 200;
+
+            /**
+             * Maximum time to wait for a hashing request to complete.
+             */
+            private Duration timeout = Duration.ofSeconds(10);
+
+            public int getBcryptStrength() {
+                return bcryptStrength;
+            }
+
+            public void setBcryptStrength(int bcryptStrength) {
+                this.bcryptStrength = bcryptStrength;
+            }
+
+            public int getThreads() {
+                return threads;
+            }
+
+            public void setThreads(int threads) {
+                this.threads = threads;
+            }
+
+            public int getQueueCapacity() {
+                return queueCapacity;
+            }
+
+            public void setQueueCapacity(int queueCapacity) {
+                this.queueCapacity = queueCapacity;
+            }
+
+            public Duration getTimeout() {
+                return timeout;
+            }
+
+            public void setTimeout(Duration timeout) {
+                this.timeout = timeout;
+            }
+        }
+
+        public static class TokenCache {
+
+            /**
+             * Whether decoded tokens are cached until they expire, instead of being verified on each request.
+             */
+            private boolean enabled = true;
+
+            /**
+             * Maximum number of cached tokens.
+             */
+            private int maxSize = 10_000;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getMaxSize() {
+                return maxSize;
+            }
+
+            public void setMaxSize(int maxSize) {
+                this.maxSize = maxSize;
+            }
+        }
+
+        public static class Signing {
+
+            /**
+             * JWS algorithm of the tokens: HS512 with the shared base64 secret, or RS256/ES256 with rotating key pairs
+             * published at /.well-known/jwks.json.
+             */
+            private String algorithm = "HS512";
+
+            /**
+             * Period after which the RS256/ES256 signing key is replaced.
+             */
+            private Duration keyRotation = Duration.ofDays(1);
+
+            /**
+             * File persisting the RS256/ES256 key set, so that it survives restarts and is shared by the instances mounting
+             * it. Required when the cache cluster is enabled; when unset, the keys are kept in memory.
+             */
+            private String keySetFile;
+
+            public String getAlgorithm() {
+                return algorithm;
+            }
+
+            public void setAlgorithm(String algorithm) {
+                this.algorithm = algorithm;
+            }
+
+            public Duration getKeyRotation() {
+                return keyRotation;
+            }
+
+            public void setKeyRotation(Duration keyRotation) {
+                this.keyRotation = keyRotation;
+            }
+
+            public String getKeySetFile() {
+                return keySetFile;
+            }
+
+            public void setKeySetFile(String keySetFile) {
+                this.keySetFile = keySetFile;
+            }
+        }
+
+        public static class LoginThrottling {
+
+            /**
+             * Whether the login attempts are limited for each login and for each client address.
+             */
+            private boolean enabled = true;
+
+            /**
+             * Length of the sliding window in which the attempts are counted.
+             */
+            private Duration window = Duration.ofMinutes(1);
+
+            /**
+             * Maximum number of attempts for the same login in a window.
+             */
+            private int maxAttemptsPerLogin = 10;
+
+            /**
+             * Maximum number of attempts from the same client address in a window.
+             */
+            private int maxAttemptsPerAddress = 100;
+
+            /**
+             * Maximum number of logins and addresses tracked in memory, when the cache cluster is not enabled.
+             */
+            private int maxKeys = 100_000;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public Duration getWindow() {
+                return window;
+            }
+
+            public void setWindow(Duration window) {
+                this.window = window;
+            }
+
+            public int getMaxAttemptsPerLogin() {
+                return maxAttemptsPerLogin;
+            }
+
+            public void setMaxAttemptsPerLogin(int maxAttemptsPerLogin) {
+                this.maxAttemptsPerLogin = maxAttemptsPerLogin;
+            }
+
+            public int getMaxAttemptsPerAddress() {
+                return maxAttemptsPerAddress;
+            }
+
+            public void setMaxAttemptsPerAddress(int maxAttemptsPerAddress) {
+                this.maxAttemptsPerAddress = maxAttemptsPerAddress;
+            }
+
+            public int getMaxKeys() {
+                return maxKeys;
+            }
+
+            public void setMaxKeys(int maxKeys) {
+                this.maxKeys = maxKeys;
+            }
+        }
+    }
+
+    public static class Cache {
+
+        private final Cluster cluster = new Cluster();
+
+        private final WarmUp warmUp = new WarmUp();
+
+        private final UserKeyFilter userKeyFilter = new UserKeyFilter();
+
+        /**
+         * Time to live of the cached lookups of unknown logins and emails.
+         */
+        private Duration negativeTimeToLive = Duration.ofMinutes(1);
+
+        /**
+         * Sizing of the caches, by cache name, overriding the jhipster.cache.ehcache defaults.
+         */
+        private Map<String, Size> sizes = new HashMap<>();
+
+        /**
+         * Directory of the disk tiers.
+         */
+        private String diskDirectory = System.getProperty("java.io.tmpdir") + "/computerdb-cache";
+
+        public Cluster getCluster() {
+            return cluster;
+        }
+
+        public WarmUp getWarmUp() {
+            return warmUp;
+        }
+
+        public UserKeyFilter getUserKeyFilter() {
+            return userKeyFilter;
+        }
+
+        public Duration getNegativeTimeToLive() {
+            return negativeTimeToLive;
+        }
+
+        public void setNegativeTimeToLive(Duration negativeTimeToLive) {
+            this.negativeTimeToLive = negativeTimeToLive;
+        }
+
+        public Map<String, Size> getSizes() {
+            return sizes;
+        }
+
+        public void setSizes(Map<String, Size> sizes) {
+            this.sizes = sizes;
+        }
+
+        public String getDiskDirectory() {
+            return diskDirectory;
+        }
+
+        public void setDiskDirectory(String diskDirectory) {
+            this.diskDirectory = diskDirectory;
+        }
+
+        public static class Size {
+
+            /**
+             * Number of entries of the heap tier, jhipster.cache.ehcache.max-entries when not set.
+             */
+            private Long heapEntries;
+
+            /**
+             * Size of the off-heap tier, which must fit in -XX:MaxDirectMemorySize. No off-heap tier when not set.
+             */
+            private DataSize offHeap;
+
+            /**
+             * Size of the disk tier, larger than the off-heap tier. No disk tier when not set.
+             */
+            private DataSize disk;
+
+            /**
+             * Time to live of the entries, jhipster.cache.ehcache.time-to-live-seconds when not set.
+             */
+            private Duration timeToLive;
+
+            public Long getHeapEntries() {
+                return heapEntries;
+            }
+
+            public void setHeapEntries(Long heapEntries) {
+                this.heapEntries = heapEntries;
+            }
+
+            public DataSize getOffHeap() {
+                return offHeap;
+            }
+
+            public void setOffHeap(DataSize offHeap) {
+                this.offHeap = offHeap;
+            }
+
+            public DataSize getDisk() {
+                return disk;
+            }
+
+            public void setDisk(DataSize disk) {
+                this.disk = disk;
+            }
+
+            public Duration getTimeToLive() {
+                return timeToLive;
+            }
+
+            public void setTimeToLive(Duration timeToLive) {
+                this.timeToLive = timeToLive;
+            }
+        }
+
+        public static class WarmUp {
+
+            /**
+             * Whether the user and authority caches are filled at startup, before the instance is ready for traffic.
+             */
+            private boolean enabled = true;
+
+            /**
+             * Number of activated users loaded, the most recently modified first.
+             */
+            private int users = 10_000;
+
+            /**
+             * Number of users loaded by each query.
+             */
+            private int chunkSize = 500;
+
+            /**
+             * Number of chunks loaded at the same time.
+             */
+            private int threads = 4;
+
+            /**
+             * Maximum duration of the warm-up, after which the instance becomes ready with partially filled caches.
+             */
+            private Duration timeout = Duration.ofMinutes(1);
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getUsers() {
+                return users;
+            }
+
+            public void setUsers(int users) {
+                this.users = users;
+            }
+
+            public int getChunkSize() {
+                return chunkSize;
+            }
+
+            public void setChunkSize(int chunkSize) {
+                this.chunkSize = chunkSize;
+            }
+
+            public int getThreads() {
+                return threads;
+            }
+
+            public void setThreads(int threads) {
+                this.threads = threads;
+            }
+
+            public Duration getTimeout() {
+                return timeout;
+            }
+
+            public void setTimeout(Duration timeout) {
+                this.timeout = timeout;
+            }
+        }
+
+        public static class UserKeyFilter {
+
+            /**
+             * Whether unknown logins and emails are answered from a Bloom filter of the existing ones, without a query.
+             */
+            private boolean enabled = true;
+
+            /**
+             * Number of users the filter is sized for, at least twice the current number of users when it is rebuilt.
+             */
+            private long expectedUsers = 100_000;
+
+            /**
+             * Probability that an unknown login or email is not answered by the filter.
+             */
+            private double falsePositiveProbability = 0.01;
+
+            /**
+             * Delay between two refreshes adding the users modified by the other instances.
+             */
+            private Duration refresh = Duration.ofSeconds(10);
+
+            /**
+             * Delay after which the filter is rebuilt from all the users, so that the users missed by the refreshes are
+             * eventually added, and the deleted users removed.
+             */
+            private Duration rebuild = Duration.ofHours(1);
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public long getExpectedUsers() {
+                return expectedUsers;
+            }
+
+            public void setExpectedUsers(long expectedUsers) {
+                this.expectedUsers = expectedUsers;
+            }
+
+            public double getFalsePositiveProbability() {
+                return falsePositiveProbability;
+            }
+
+            public void setFalsePositiveProbability(double falsePositiveProbability) {
+                this.falsePositiveProbability = falsePositiveProbability;
+            }
+
+            public Duration getRefresh() {
+                return refresh;
+            }
+
+            public void setRefresh(Duration refresh) {
+                this.refresh = refresh;
+            }
+
+            public Duration getRebuild() {
+                return rebuild;
+            }
+
+            public void setRebuild(Duration rebuild) {
+                this.rebuild = rebuild;
+            }
+        }
+
+        public static class Cluster {
+
+            /**
+             * Whether the cache invalidations are propagated to the other instances, through embedded Hazelcast members.
+             * Requires the application to be packaged with the cluster Maven profile.
+             */
+            private boolean enabled = false;
+
+            /**
+             * Name of the Hazelcast cluster, shared by the instances of the application.
+             */
+            private String name = "computerdb";
+
+            /**
+             * Port of the Hazelcast member, incremented when it is already used.
+             */
+            private int port = 5701;
+
+            /**
+             * Addresses of the members, joined over TCP/IP. When empty, the member does not join any other.
+             */
+            private List<String> members = new ArrayList<>();
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public String getName() {
+                return name;
+            }
+
+            public void setName(String name) {
+                this.name = name;
+            }
+
+            public int getPort() {
+                return port;
+            }
+
+            public void setPort(int port) {
+                this.port = port;
+            }
+
+            public List<String> getMembers() {
+                return members;
+            }
+
+            public void setMembers(List<String> members) {
+                this.members = members;
+            }
+        }
+    }
+
+    public static class RequestAdmission {
+
+        /**
+         * Whether the /api requests are limited per principal, per route and in total before being handled.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Token bucket of each principal, or of each client address for anonymous requests.
+         */
+        private final Bucket perPrincipal = new Bucket(500, 100);
+
+        /**
+         * Token buckets of the costly routes, shared by all the principals. The first matching route applies.
+         */
+        private List<Route> routes = new ArrayList<>();
+
+        /**
+         * Maximum number of principals tracked in memory, beyond which the least frequently limited ones are forgotten.
+         */
+        private int maxKeys = 100_000;
+
+        private final Concurrency concurrency = new Concurrency();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Bucket getPerPrincipal() {
+            return perPrincipal;
+        }
+
+        public List<Route> getRoutes() {
+            return routes;
+        }
+
+        public void setRoutes(List<Route> routes) {
+            this.routes = routes;
+        }
+
+        public int getMaxKeys() {
+            return maxKeys;
+        }
+
+        public void setMaxKeys(int maxKeys) {
+            this.maxKeys = maxKeys;
+        }
+
+        public Concurrency getConcurrency() {
+            return concurrency;
+        }
+
+        public static class Bucket {
+
+            /**
+             * Number of requests allowed at once.
+             */
+            private int burst;
+
+            /**
+             * Sustained number of requests allowed per second.
+             */
+            private double permitsPerSecond;
+
+            public Bucket() {}
+
+            public Bucket(int burst, double permitsPerSecond) {
+                this.burst = burst;
+                this.permitsPerSecond = permitsPerSecond;
+            }
+
+            public int getBurst() {
+                return burst;
+            }
+
+            public void setBurst(int burst) {
+                this.burst = burst;
+            }
+
+            public double getPermitsPerSecond() {
+                return permitsPerSecond;
+            }
+
+            public void setPermitsPerSecond(double permitsPerSecond) {
+                this.permitsPerSecond = permitsPerSecond;
+            }
+        }
+
+        public static class Route extends Bucket {
+
+            /**
+             * HTTP method of the route, any method when not set.
+             */
+            private String method;
+
+            /**
+             * Path pattern of the route, such as /api/admin/users/import.
+             */
+            private String pattern;
+
+            public String getMethod() {
+                return method;
+            }
+
+            public void setMethod(String method) {
+                this.method = method;
+            }
+
+            public String getPattern() {
+                return pattern;
+            }
+
+            public void setPattern(String pattern) {
+                this.pattern = pattern;
+            }
+        }
+
+        public static class Concurrency {
+
+            /**
+             * Number of requests in flight allowed at startup.
+             */
+            private int initialLimit = 100;
+
+            /**
+             * Lowest number of requests in flight allowed, whatever the latency.
+             */
+            private int minLimit = 10;
+
+            /**
+             * Highest number of requests in flight allowed, whatever the latency.
+             */
+            private int maxLimit = 500;
+
+            /**
+             * Latency beyond which a response decreases the limit.
+             */
+            private Duration latencyThreshold = Duration.ofSeconds(1);
+
+            /**
+             * Ratio applied to the limit when it decreases.
+             */
+            private double backoffRatio = 0.9;
+
+            public int getInitialLimit() {
+                return initialLimit;
+            }
+
+            public void setInitialLimit(int initialLimit) {
+                this.initialLimit = initialLimit;
+            }
+
+            public int getMinLimit() {
+                return minLimit;
+            }
+
+            public void setMinLimit(int minLimit) {
+                this.minLimit = minLimit;
+            }
+
+            public int getMaxLimit() {
+                return maxLimit;
+            }
+
+            public void setMaxLimit(int maxLimit) {
+                this.maxLimit = maxLimit;
+            }
+
+            public Duration getLatencyThreshold() {
+                return latencyThreshold;
+            }
+
+            public void setLatencyThreshold(Duration latencyThreshold) {
+                this.latencyThreshold = latencyThreshold;
+            }
+
+            public double getBackoffRatio() {
+                return backoffRatio;
+            }
+
+            public void setBackoffRatio(double backoffRatio) {
+                this.backoffRatio = backoffRatio;
+            }
+        }
+    }
+
+    public static class VirtualThreads {
+
+        /**
+         * Whether the servlet requests, the @Async tasks and the @Scheduled jobs run on virtual threads. Ignored before
+         * Java 21.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Maximum number of @Async tasks running at once on virtual threads, so that they do not exhaust the
+         * connection pool. Further tasks wait for one to complete.
+         */
+        private int asyncConcurrencyLimit = 50;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getAsyncConcurrencyLimit() {
+            return asyncConcurrencyLimit;
+        }
+
+        public void setAsyncConcurrencyLimit(int asyncConcurrencyLimit) {
+            this.asyncConcurrencyLimit = asyncConcurrencyLimit;
+        }
+    }
+
+    public static class MailOutbox {
+
+        /**
+         * Delay between two polls of the outbox for due messages.
+         */
+        private Duration pollInterval = Duration.ofSeconds(1);
+
+        /**
+         * Maximum number of messages sent per poll, split between the connections.
+         */
+        private int batchSize = 100;
+
+        /**
+         * Number of SMTP connections sending a batch in parallel, each one sending its share of the batch.
+         */
+        private int connections = 2;
+
+        /**
+         * Time during which the messages of a batch are reserved by the instance sending them. Messages not sent when
+         * it expires, for instance because the instance died, are sent again.
+         */
+        private Duration lease = Duration.ofMinutes(5);
+
+        /**
+         * Number of attempts after which a message is given up.
+         */
+        private int maxAttempts = 8;
+
+        /**
+         * Delay before the first retry, doubled for each further retry.
+         */
+        private Duration initialBackoff = Duration.ofSeconds(30);
+
+        /**
+         * Maximum delay between two retries.
+         */
+        private Duration maxBackoff = Duration.ofHours(1);
+
+        /**
+         * Time during which the sent and given up messages are kept.
+         */
+        private Duration retention = Duration.ofDays(7);
+
+        public Duration getPollInterval() {
+            return pollInterval;
+        }
+
+        public void setPollInterval(Duration pollInterval) {
+            this.pollInterval = pollInterval;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getConnections() {
+            return connections;
+        }
+
+        public void setConnections(int connections) {
+            this.connections = connections;
+        }
+
+        public Duration getLease() {
+            return lease;
+        }
+
+        public void setLease(Duration lease) {
+            this.lease = lease;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public Duration getInitialBackoff() {
+            return initialBackoff;
+        }
+
+        public void setInitialBackoff(Duration initialBackoff) {
+            this.initialBackoff = initialBackoff;
+        }
+
+        public Duration getMaxBackoff() {
+            return maxBackoff;
+        }
+
+        public void setMaxBackoff(Duration maxBackoff) {
+            this.maxBackoff = maxBackoff;
+        }
+
+        public Duration getRetention() {
+            return retention;
+        }
+
+        public void setRetention(Duration retention) {
+            this.retention = retention;
+        }
+    }
+
+    public static class Timing {
+
+        /**
+         * Whether the repository, service and REST methods are timed. Can be switched at runtime with the "timing"
+         * management endpoint.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Ratio of the calls which are timed, between 0 and 1.
+         */
+        private double sampleRate = 1.0;
+
+        /**
+         * Percentiles computed by the application for each method.
+         */
+        private double[] percentiles = { 0.5, 0.95, 0.99 };
+
+        /**
+         * Whether the histogram of each method is published, to compute the percentiles in the monitoring system.
+         */
+        private boolean percentileHistogram = false;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getSampleRate() {
+            return sampleRate;
+        }
+
+        public void setSampleRate(double sampleRate) {
+            this.sampleRate = sampleRate;
+        }
+
+        public double[] getPercentiles() {
+            return percentiles;
+        }
+
+        public void setPercentiles(double[] percentiles) {
+            this.percentiles = percentiles;
+        }
+
+        public boolean isPercentileHistogram() {
+            return percentileHistogram;
+        }
+
+        public void setPercentileHistogram(boolean percentileHistogram) {
+            this.percentileHistogram = percentileHistogram;
+        }
+    }
+
+    public static class StaticResources {
+
+        /**
+         * Static resources up to this size are held in memory once served, larger ones are read from the classpath.
+         */
+        private DataSize inMemoryMaxFileSize = DataSize.ofKilobytes(256);
+
+        /**
+         * Total size of the static resources held in memory, the next ones are read from the classpath.
+         */
+        private DataSize inMemoryMaxTotalSize = DataSize.ofMegabytes(32);
+
+        /**
+         * Time to live in the browsers of the static resources with a content hash in their name, which never change.
+         */
+        private Duration hashedTimeToLive = Duration.ofDays(365);
+
+        public DataSize getInMemoryMaxFileSize() {
+            return inMemoryMaxFileSize;
+        }
+
+        public void setInMemoryMaxFileSize(DataSize inMemoryMaxFileSize) {
+            this.inMemoryMaxFileSize = inMemoryMaxFileSize;
+        }
+
+        public DataSize getInMemoryMaxTotalSize() {
+            return inMemoryMaxTotalSize;
+        }
+
+        public void setInMemoryMaxTotalSize(DataSize inMemoryMaxTotalSize) {
+            this.inMemoryMaxTotalSize = inMemoryMaxTotalSize;
+        }
+
+        public Duration getHashedTimeToLive() {
+            return hashedTimeToLive;
+        }
+
+        public void setHashedTimeToLive(Duration hashedTimeToLive) {
+            this.hashedTimeToLive = hashedTimeToLive;
+        }
+    }
     // jhipster-needle-application-properties-property-class
 }
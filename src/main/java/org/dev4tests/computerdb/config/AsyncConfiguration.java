@@ -1,18 +1,24 @@
 package org.dev4tests.computerdb.config;
 
+import java.util.Optional;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
 import org.springframework.aop.interceptor.SimpleAsyncUncaughtExceptionHandler;
 import org.springframework.boot.autoconfigure.task.TaskExecutionProperties;
+import org.springframework.boot.autoconfigure.task.TaskSchedulingProperties;
+import org.springframework.boot.task.TaskSchedulerBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import tech.jhipster.async.ExceptionHandlingAsyncTaskExecutor;
 
 @Configuration
@@ -25,24 +31,63 @@ public class AsyncConfiguration implements AsyncConfigurer {
 
     private final TaskExecutionProperties taskExecutionProperties;
 
-    public AsyncConfiguration(TaskExecutionProperties taskExecutionProperties) {
+    private final TaskSchedulingProperties taskSchedulingProperties;
+
+    private final ApplicationProperties.VirtualThreads virtualThreads;
+
+    public AsyncConfiguration(
+        TaskExecutionProperties taskExecutionProperties,
+        TaskSchedulingProperties taskSchedulingProperties,
+        ApplicationProperties applicationProperties
+    ) {
         this.taskExecutionProperties = taskExecutionProperties;
+        this.taskSchedulingProperties = taskSchedulingProperties;
+        this.virtualThreads = applicationProperties.getVirtualThreads();
     }
 
     @Override
     @Bean(name = "taskExecutor")
     public Executor getAsyncExecutor() {
+        Optional<ThreadFactory> virtualThreadFactory = virtualThreadFactory(taskExecutionProperties.getThreadNamePrefix());
+        if (virtualThreadFactory.isPresent()) {
+            log.debug("Creating Async Task Executor on virtual threads");
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(virtualThreadFactory.get());
+            executor.setConcurrencyLimit(virtualThreads.getAsyncConcurrencyLimit());
+            return new ExceptionHandlingAsyncTaskExecutor(executor);
+        }
         log.debug("Creating Async Task Executor");
+        return new ExceptionHandlingAsyncTaskExecutor(threadPoolTaskExecutor(taskExecutionProperties.getThreadNamePrefix()));
+    }
+
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(TaskSchedulerBuilder taskSchedulerBuilder) {
+        ThreadPoolTaskScheduler scheduler = taskSchedulerBuilder.build();
+        virtualThreadFactory(taskSchedulingProperties.getThreadNamePrefix()).ifPresent(scheduler::setThreadFactory);
+        return scheduler;
+    }
+
+    @Override
+    public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
+        return new SimpleAsyncUncaughtExceptionHandler();
+    }
+
+    private ThreadPoolTaskExecutor threadPoolTaskExecutor(String threadNamePrefix) {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(taskExecutionProperties.getPool().getCoreSize());
         executor.setMaxPoolSize(taskExecutionProperties.getPool().getMaxSize());
         executor.setQueueCapacity(taskExecutionProperties.getPool().getQueueCapacity());
-        executor.setThreadNamePrefix(taskExecutionProperties.getThreadNamePrefix());
-        return new ExceptionHandlingAsyncTaskExecutor(executor);
+        executor.setThreadNamePrefix(threadNamePrefix);
+        return executor;
     }
 
-    @Override
-    public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
-        return new SimpleAsyncUncaughtExceptionHandler();
+    private Optional<ThreadFactory> virtualThreadFactory(String threadNamePrefix) {
+        if (!virtualThreads.isEnabled()) {
+            return Optional.empty();
+        }
+        Optional<ThreadFactory> threadFactory = VirtualThreadFactories.threadFactory(threadNamePrefix);
+        if (threadFactory.isEmpty()) {
+            log.warn("Virtual threads are enabled but not supported by Java {}, using platform threads", Runtime.version().feature());
+        }
+        return threadFactory;
     }
 }
@@ -1,55 +1,70 @@
 package org.dev4tests.computerdb.config;
 
+import java.io.File;
 import java.time.Duration;
+import javax.cache.Caching;
 import org.ehcache.config.builders.*;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.impl.config.persistence.CacheManagerPersistenceConfiguration;
+import org.ehcache.impl.serialization.PlainJavaSerializer;
 import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.ehcache.spi.serialization.Serializer;
 import org.hibernate.cache.jcache.ConfigSettings;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
 import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.boot.info.BuildProperties;
 import org.springframework.boot.info.GitProperties;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.cache.support.NullValue;
 import org.springframework.context.annotation.*;
+import org.springframework.core.Ordered;
 import tech.jhipster.config.JHipsterProperties;
 import tech.jhipster.config.cache.PrefixedKeyGenerator;
 
 @Configuration
-@EnableCaching
+// Around the tracing aspect, so that the spans of the cached methods are cache misses
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
 public class CacheConfiguration {
 
     private GitProperties gitProperties;
     private BuildProperties buildProperties;
-    private final javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration;
+    private final JHipsterProperties.Cache.Ehcache ehcache;
+    private final ApplicationProperties.Cache cacheProperties;
 
-    public CacheConfiguration(JHipsterProperties jHipsterProperties) {
-        JHipsterProperties.Cache.Ehcache ehcache = jHipsterProperties.getCache().getEhcache();
-
-        jcacheConfiguration =
-            Eh107Configuration.fromEhcacheCacheConfiguration(
-                CacheConfigurationBuilder
-                    .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(ehcache.getMaxEntries()))
-                    .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(ehcache.getTimeToLiveSeconds())))
-                    .build()
-            );
+    public CacheConfiguration(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
+        this.ehcache = jHipsterProperties.getCache().getEhcache();
+        this.cacheProperties = applicationProperties.getCache();
     }
 
+    /**
+     * Create the JCache cache manager, with a persistence service when a cache has a disk tier.
+     * <p>
+     * The statistics of the caches are enabled, so that their hits, misses and evictions are exported as metrics.
+     */
     @Bean
-    public HibernatePropertiesCustomizer hibernatePropertiesCustomizer(javax.cache.CacheManager cacheManager) {
-        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+    public javax.cache.CacheManager jCacheCacheManager() {
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        ConfigurationBuilder configuration = ConfigurationBuilder.newConfigurationBuilder();
+        if (cacheProperties.getSizes().values().stream().anyMatch(size -> size.getDisk() != null)) {
+            File diskDirectory = new File(cacheProperties.getDiskDirectory());
+            configuration = configuration.withService(new CacheManagerPersistenceConfiguration(diskDirectory));
+        }
+        javax.cache.CacheManager cm = provider.getCacheManager(provider.getDefaultURI(), configuration.build());
+        createCache(cm, org.dev4tests.computerdb.repository.UserRepository.USERS_BY_LOGIN_CACHE);
+        createCache(cm, org.dev4tests.computerdb.repository.UserRepository.USERS_BY_EMAIL_CACHE);
+        createCache(cm, org.dev4tests.computerdb.domain.User.class.getName());
+        createCache(cm, org.dev4tests.computerdb.domain.Authority.class.getName());
+        createCache(cm, org.dev4tests.computerdb.domain.User.class.getName() + ".authorities");
+        createCache(cm, org.dev4tests.computerdb.service.ProfileVersionService.PROFILE_VERSIONS_CACHE);
+        // jhipster-needle-ehcache-add-entry
+        return cm;
     }
 
     @Bean
-    public JCacheManagerCustomizer cacheManagerCustomizer() {
-        return cm -> {
-            createCache(cm, org.dev4tests.computerdb.repository.UserRepository.USERS_BY_LOGIN_CACHE);
-            createCache(cm, org.dev4tests.computerdb.repository.UserRepository.USERS_BY_EMAIL_CACHE);
-            createCache(cm, org.dev4tests.computerdb.domain.User.class.getName());
-            createCache(cm, org.dev4tests.computerdb.domain.Authority.class.getName());
-            createCache(cm, org.dev4tests.computerdb.domain.User.class.getName() + ".authorities");
-            // jhipster-needle-ehcache-add-entry
-        };
+    public HibernatePropertiesCustomizer hibernatePropertiesCustomizer(javax.cache.CacheManager cacheManager) {
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
     }
 
     private void createCache(javax.cache.CacheManager cm, String cacheName) {
@@ -57,8 +72,42 @@ public class CacheConfiguration {
         if (cache != null) {
             cache.clear();
         } else {
-            cm.createCache(cacheName, jcacheConfiguration);
+            cm.createCache(cacheName, Eh107Configuration.fromEhcacheCacheConfiguration(ehcacheConfiguration(cacheName)));
+        }
+        cm.enableStatistics(cacheName, true);
+    }
+
+    org.ehcache.config.CacheConfiguration<Object, Object> ehcacheConfiguration(String cacheName) {
+        ApplicationProperties.Cache.Size size = cacheProperties.getSizes().getOrDefault(cacheName, new ApplicationProperties.Cache.Size());
+        long heapEntries = size.getHeapEntries() != null ? size.getHeapEntries() : ehcache.getMaxEntries();
+        Duration timeToLive = size.getTimeToLive() != null ? size.getTimeToLive() : Duration.ofSeconds(ehcache.getTimeToLiveSeconds());
+        Duration negativeTimeToLive = cacheProperties.getNegativeTimeToLive().compareTo(timeToLive) < 0
+            ? cacheProperties.getNegativeTimeToLive()
+            : timeToLive;
+
+        ResourcePoolsBuilder resourcePools = ResourcePoolsBuilder.heap(heapEntries);
+        if (size.getOffHeap() != null) {
+            resourcePools = resourcePools.offheap(size.getOffHeap().toBytes(), MemoryUnit.B);
+        }
+        if (size.getDisk() != null) {
+            resourcePools = resourcePools.disk(size.getDisk().toBytes(), MemoryUnit.B);
+        }
+        CacheConfigurationBuilder<Object, Object> cacheConfiguration = CacheConfigurationBuilder
+            .newCacheConfigurationBuilder(Object.class, Object.class, resourcePools)
+            .withExpiry(
+                // The empty results cached by Spring, such as unknown logins, expire sooner than the entries
+                ExpiryPolicyBuilder
+                    .expiry()
+                    .create((key, value) -> value instanceof NullValue ? negativeTimeToLive : timeToLive)
+                    .update((key, oldValue, newValue) -> newValue instanceof NullValue ? negativeTimeToLive : timeToLive)
+                    .build()
+            );
+        if (size.getOffHeap() != null || size.getDisk() != null) {
+            // Entries stored beyond the heap are serialized, whatever their declared type
+            Serializer<Object> serializer = new PlainJavaSerializer<>(getClass().getClassLoader());
+            cacheConfiguration = cacheConfiguration.withKeySerializer(serializer).withValueSerializer(serializer);
         }
+        return cacheConfiguration.build();
     }
 
     @Autowired(required = false)
@@ -0,0 +1,120 @@
+package org.dev4tests.computerdb.config;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.JoinConfig;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.Clock;
+import org.dev4tests.computerdb.security.LoginRateLimiter;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * Clustered cache mode: the instances join a cluster of embedded Hazelcast members, which propagates the cache
+ * invalidations of each instance to the others. The Ehcache caches of each instance are kept as near caches.
+ * <p>
+ * The cluster also counts the login attempts, so that the login throttle applies to the whole cluster.
+ * <p>
+ * Hazelcast is packaged by the {@code cluster} Maven profile. The members join the listed members over TCP/IP, never by
+ * multicast: the cluster is not authenticated, so its port must only be reachable by the instances of the application.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "application.cache.cluster", name = "enabled", havingValue = "true")
+public class ClusterCacheConfiguration {
+
+    private final Logger log = LoggerFactory.getLogger(ClusterCacheConfiguration.class);
+
+    /**
+     * Build the configuration of a Hazelcast member.
+     *
+     * @param cluster the cluster properties.
+     * @return the member configuration.
+     */
+    public static Config hazelcastConfig(ApplicationProperties.Cache.Cluster cluster) {
+        Config config = new Config();
+        config.setClusterName(cluster.getName());
+        config.setProperty("hazelcast.phone.home.enabled", "false");
+        config.setProperty("hazelcast.logging.type", "slf4j");
+        config.getNetworkConfig().setPort(cluster.getPort()).setPortAutoIncrement(true);
+        JoinConfig join = config.getNetworkConfig().getJoin();
+        join.getAutoDetectionConfig().setEnabled(false);
+        join.getMulticastConfig().setEnabled(false);
+        join.getTcpIpConfig().setEnabled(true).setMembers(cluster.getMembers());
+        return config;
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public HazelcastInstance hazelcastInstance(ApplicationProperties applicationProperties) {
+        ApplicationProperties.Cache.Cluster cluster = applicationProperties.getCache().getCluster();
+        if (cluster.getMembers().isEmpty()) {
+            log.warn("No member of the {} cache cluster is configured, the invalidations are not propagated", cluster.getName());
+        }
+        log.info("Joining the {} cache cluster", cluster.getName());
+        return Hazelcast.newHazelcastInstance(hazelcastConfig(cluster));
+    }
+
+    @Bean
+    public ClusterCacheInvalidator clusterCacheInvalidator(
+        HazelcastInstance hazelcastInstance,
+        CacheManager cacheManager,
+        EntityManagerFactory entityManagerFactory
+    ) {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        ClusterCacheInvalidator invalidator = new ClusterCacheInvalidator(hazelcastInstance, cacheManager, sessionFactory.getCache());
+        EventListenerRegistry listeners = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        listeners.appendListeners(EventType.POST_UPDATE, invalidator);
+        listeners.appendListeners(EventType.POST_DELETE, invalidator);
+        listeners.appendListeners(EventType.POST_COLLECTION_RECREATE, invalidator);
+        listeners.appendListeners(EventType.POST_COLLECTION_UPDATE, invalidator);
+        listeners.appendListeners(EventType.POST_COLLECTION_REMOVE, invalidator);
+        return invalidator;
+    }
+
+    /**
+     * Count the login attempts across the cluster, instead of in the memory of each instance.
+     */
+    @Bean
+    @Primary
+    public LoginRateLimiter clusterLoginRateLimiter(HazelcastInstance hazelcastInstance) {
+        return new ClusterLoginRateLimiter(hazelcastInstance.getMap(ClusterLoginRateLimiter.LOGIN_ATTEMPTS_MAP), Clock.systemUTC());
+    }
+
+    /**
+     * Bind the metrics of the caches, which are not bound by Spring Boot once their Spring cache manager is decorated.
+     */
+    @Bean
+    public MeterBinder clusterCacheMetrics(javax.cache.CacheManager cacheManager) {
+        Tags tags = Tags.of("cache.manager", "cacheManager");
+        return registry -> cacheManager.getCacheNames().forEach(name -> JCacheMetrics.monitor(registry, cacheManager.getCache(name), tags));
+    }
+
+    /**
+     * Decorate the Spring cache manager, so that the evictions from its caches are published to the other members.
+     */
+    @Bean
+    public static BeanPostProcessor clusterCacheManagerPostProcessor(ObjectProvider<ClusterCacheInvalidator> invalidator) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof CacheManager cacheManager) {
+                    return ClusterCacheInvalidator.decorate(cacheManager, invalidator::getObject);
+                }
+                return bean;
+            }
+        };
+    }
+}
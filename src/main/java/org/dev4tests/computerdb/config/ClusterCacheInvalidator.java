@@ -0,0 +1,260 @@
+package org.dev4tests.computerdb.config;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.topic.ITopic;
+import com.hazelcast.topic.Message;
+import com.hazelcast.topic.MessageListener;
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+import org.hibernate.event.spi.AbstractCollectionEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEventListener;
+import org.hibernate.event.spi.PostCollectionRemoveEvent;
+import org.hibernate.event.spi.PostCollectionRemoveEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Propagate the cache invalidations of this instance to the other members of the cluster, so that the local caches of
+ * every instance act as near caches of the database.
+ * <p>
+ * Evictions from the Spring caches, and updates and deletions of the entities and collections stored in the Hibernate
+ * second-level cache, are published on a Hazelcast topic; the other members evict the matching entries from their own
+ * caches. An invalidation made in a transaction is published immediately, and again once the transaction completes, so
+ * that an entry reloaded by another member while the transaction runs is not kept.
+ */
+public class ClusterCacheInvalidator
+    implements
+        MessageListener<ClusterCacheInvalidator.Invalidation>,
+        PostUpdateEventListener,
+        PostDeleteEventListener,
+        PostCollectionRecreateEventListener,
+        PostCollectionUpdateEventListener,
+        PostCollectionRemoveEventListener {
+
+    public static final String TOPIC_NAME = "cache-invalidations";
+
+    private final Logger log = LoggerFactory.getLogger(ClusterCacheInvalidator.class);
+
+    private final ITopic<Invalidation> topic;
+
+    private final CacheManager cacheManager;
+
+    private final org.hibernate.Cache hibernateCache;
+
+    /**
+     * @param hazelcastInstance the member of this instance.
+     * @param cacheManager the Spring cache manager, whose caches are evicted when other members invalidate them.
+     * @param hibernateCache the Hibernate second-level cache, whose entries are evicted when other members invalidate them.
+     */
+    public ClusterCacheInvalidator(HazelcastInstance hazelcastInstance, CacheManager cacheManager, org.hibernate.Cache hibernateCache) {
+        this.cacheManager = cacheManager instanceof InvalidatingCacheManager invalidatingCacheManager
+            ? invalidatingCacheManager.targetCacheManager
+            : cacheManager;
+        this.hibernateCache = hibernateCache;
+        this.topic = hazelcastInstance.getTopic(TOPIC_NAME);
+        this.topic.addMessageListener(this);
+    }
+
+    /**
+     * Decorate a Spring cache manager, so that the evictions from its caches are published to the other members.
+     *
+     * @param cacheManager the cache manager to decorate.
+     * @param invalidator the supplier of the invalidator publishing the evictions, called on the first eviction.
+     * @return the decorated cache manager.
+     */
+    public static CacheManager decorate(CacheManager cacheManager, Supplier<ClusterCacheInvalidator> invalidator) {
+        return new InvalidatingCacheManager(cacheManager, invalidator);
+    }
+
+    @Override
+    public void onMessage(Message<Invalidation> message) {
+        if (message.getPublishingMember() != null && message.getPublishingMember().localMember()) {
+            return;
+        }
+        Invalidation invalidation = message.getMessageObject();
+        log.debug("Applying the invalidation of another member: {}", invalidation);
+        switch (invalidation.type()) {
+            case CACHE -> {
+                Cache cache = cacheManager.getCache(invalidation.region());
+                if (cache != null && invalidation.key() != null) {
+                    cache.evict(invalidation.key());
+                } else if (cache != null) {
+                    cache.clear();
+                }
+            }
+            case ENTITY -> hibernateCache.evictEntityData(invalidation.region(), invalidation.key());
+            case COLLECTION -> hibernateCache.evictCollectionData(invalidation.region(), invalidation.key());
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getPersister().canWriteToCache()) {
+            publish(new Invalidation(InvalidationType.ENTITY, event.getPersister().getRootEntityName(), (Serializable) event.getId()));
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getPersister().canWriteToCache()) {
+            publish(new Invalidation(InvalidationType.ENTITY, event.getPersister().getRootEntityName(), (Serializable) event.getId()));
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    @Override
+    public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+        publishCollection(event);
+    }
+
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        publishCollection(event);
+    }
+
+    @Override
+    public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+        publishCollection(event);
+    }
+
+    private void publishCollection(AbstractCollectionEvent event) {
+        Object ownerId = event.getAffectedOwnerIdOrNull();
+        if (ownerId != null) {
+            publish(new Invalidation(InvalidationType.COLLECTION, event.getCollection().getRole(), (Serializable) ownerId));
+        }
+    }
+
+    void publish(Invalidation invalidation) {
+        topic.publish(invalidation);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        topic.publish(invalidation);
+                    }
+                }
+            );
+        }
+    }
+
+    public enum InvalidationType {
+        CACHE,
+        ENTITY,
+        COLLECTION
+    }
+
+    /**
+     * Invalidation of a cache entry, or of a whole cache when its key is {@code null}.
+     *
+     * @param type the type of cache.
+     * @param region the name of the Spring cache, or the entity name or collection role.
+     * @param key the key of the entry, or the id of the entity or of the collection owner.
+     */
+    public record Invalidation(InvalidationType type, String region, Serializable key) implements Serializable {}
+
+    private static final class InvalidatingCacheManager implements CacheManager {
+
+        private final CacheManager targetCacheManager;
+
+        private final Supplier<ClusterCacheInvalidator> invalidator;
+
+        private InvalidatingCacheManager(CacheManager targetCacheManager, Supplier<ClusterCacheInvalidator> invalidator) {
+            this.targetCacheManager = targetCacheManager;
+            this.invalidator = invalidator;
+        }
+
+        @Override
+        public Cache getCache(String name) {
+            Cache cache = targetCacheManager.getCache(name);
+            return cache != null ? new InvalidatingCache(cache, invalidator) : null;
+        }
+
+        @Override
+        public Collection<String> getCacheNames() {
+            return targetCacheManager.getCacheNames();
+        }
+    }
+
+    private record InvalidatingCache(Cache target, Supplier<ClusterCacheInvalidator> invalidator) implements Cache {
+        @Override
+        public String getName() {
+            return target.getName();
+        }
+
+        @Override
+        public Object getNativeCache() {
+            return target.getNativeCache();
+        }
+
+        @Override
+        public ValueWrapper get(Object key) {
+            return target.get(key);
+        }
+
+        @Override
+        public <T> T get(Object key, Class<T> type) {
+            return target.get(key, type);
+        }
+
+        @Override
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            return target.get(key, valueLoader);
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            target.put(key, value);
+        }
+
+        @Override
+        public ValueWrapper putIfAbsent(Object key, Object value) {
+            return target.putIfAbsent(key, value);
+        }
+
+        @Override
+        public void evict(Object key) {
+            target.evict(key);
+            invalidator.get().publish(new Invalidation(InvalidationType.CACHE, getName(), (Serializable) key));
+        }
+
+        @Override
+        public boolean evictIfPresent(Object key) {
+            boolean present = target.evictIfPresent(key);
+            // The entry may be cached by another member even if it is not cached by this one
+            invalidator.get().publish(new Invalidation(InvalidationType.CACHE, getName(), (Serializable) key));
+            return present;
+        }
+
+        @Override
+        public void clear() {
+            target.clear();
+            invalidator.get().publish(new Invalidation(InvalidationType.CACHE, getName(), null));
+        }
+
+        @Override
+        public boolean invalidate() {
+            boolean present = target.invalidate();
+            invalidator.get().publish(new Invalidation(InvalidationType.CACHE, getName(), null));
+            return present;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package org.dev4tests.computerdb.config;
+
+import com.hazelcast.map.EntryProcessor;
+import com.hazelcast.map.ExtendedMapEntry;
+import com.hazelcast.map.IMap;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.dev4tests.computerdb.security.LoginRateLimiter;
+import org.dev4tests.computerdb.security.SlidingWindowCounter;
+
+/**
+ * {@link LoginRateLimiter} keeping the counters of the keys in a Hazelcast map, so that the attempts are counted
+ * across the instances of the cluster.
+ * <p>
+ * Each attempt is counted by an entry processor running on the member owning the key, which updates the counter
+ * atomically without a lock. The counters expire once their windows have ended.
+ */
+public class ClusterLoginRateLimiter implements LoginRateLimiter {
+
+    public static final String LOGIN_ATTEMPTS_MAP = "login-attempts";
+
+    private final IMap<String, SlidingWindowCounter> counters;
+
+    private final Clock clock;
+
+    public ClusterLoginRateLimiter(IMap<String, SlidingWindowCounter> counters, Clock clock) {
+        this.counters = counters;
+        this.clock = clock;
+    }
+
+    @Override
+    public Duration tryAcquire(String key, int limit, Duration window) {
+        Long retryAfter = counters.executeOnKey(key, new AttemptProcessor(clock.millis(), window.toMillis(), limit));
+        return Duration.ofMillis(retryAfter);
+    }
+
+    private record AttemptProcessor(long now, long window, int limit) implements EntryProcessor<String, SlidingWindowCounter, Long> {
+        @Override
+        public Long process(Map.Entry<String, SlidingWindowCounter> entry) {
+            SlidingWindowCounter counter = entry.getValue() != null ? entry.getValue() : new SlidingWindowCounter(0, 0, 0);
+            SlidingWindowCounter slid = counter.slide(now, window);
+            long retryAfter = slid.retryAfter(now, window, limit);
+            SlidingWindowCounter next = retryAfter == 0 ? slid.increment() : slid;
+            if (next != counter) {
+                long timeToLive = next.windowStart() + 2 * window - now;
+                ((ExtendedMapEntry<String, SlidingWindowCounter>) entry).setValue(next, timeToLive, TimeUnit.MILLISECONDS);
+            }
+            return retryAfter;
+        }
+    }
+}
@@ -1,6 +1,12 @@
 package org.dev4tests.computerdb.config;
 
+import jakarta.persistence.EntityManagerFactory;
 import java.sql.SQLException;
+import org.dev4tests.computerdb.repository.UserKeyFilter;
+import org.dev4tests.computerdb.repository.UserRepository;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Bean;
@@ -9,6 +15,7 @@ import org.springframework.context.annotation.Profile;
 import org.springframework.core.env.Environment;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 import tech.jhipster.config.JHipsterConstants;
 import tech.jhipster.config.h2.H2ConfigurationHelper;
@@ -27,6 +34,31 @@ public class DatabaseConfiguration {
         this.env = env;
     }
 
+    /**
+     * Create the Bloom filter of the user logins and emails, kept up to date with the users flushed by Hibernate.
+     *
+     * @return the filter, built by the cache warm-up or by its first refresh.
+     */
+    @Bean
+    public UserKeyFilter userKeyFilter(
+        UserRepository userRepository,
+        PlatformTransactionManager transactionManager,
+        EntityManagerFactory entityManagerFactory,
+        ApplicationProperties applicationProperties
+    ) {
+        UserKeyFilter userKeyFilter = new UserKeyFilter(
+            userRepository,
+            transactionManager,
+            applicationProperties.getCache().getUserKeyFilter()
+        );
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        EventListenerRegistry listeners = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        listeners.appendListeners(EventType.PERSIST, userKeyFilter);
+        listeners.appendListeners(EventType.POST_INSERT, userKeyFilter);
+        listeners.appendListeners(EventType.POST_UPDATE, userKeyFilter);
+        return userKeyFilter;
+    }
+
     /**
      * Open the TCP port for the H2 database, so it is available remotely.
      *
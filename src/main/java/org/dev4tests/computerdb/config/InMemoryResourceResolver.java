@@ -0,0 +1,137 @@
+package org.dev4tests.computerdb.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.resource.AbstractResourceResolver;
+import org.springframework.web.servlet.resource.HttpResource;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+/**
+ * Holds in memory the content of the small static resources resolved by the rest of the chain, so that they are read
+ * from the classpath once.
+ * <p>
+ * The resources are kept by description, so the same file is held once whatever the request it was resolved for. The
+ * response headers of the {@link HttpResource}s, such as the {@code Content-Encoding} of the {@code .br} and
+ * {@code .gz} variants, are kept with them. Once the total size is reached, the next resources are not held in memory.
+ */
+public class InMemoryResourceResolver extends AbstractResourceResolver {
+
+    private final Logger log = LoggerFactory.getLogger(InMemoryResourceResolver.class);
+
+    private final long maxFileSize;
+
+    private final long maxTotalSize;
+
+    private final AtomicLong totalSize = new AtomicLong();
+
+    private final Map<String, Resource> resources = new ConcurrentHashMap<>();
+
+    public InMemoryResourceResolver(long maxFileSize, long maxTotalSize) {
+        this.maxFileSize = maxFileSize;
+        this.maxTotalSize = maxTotalSize;
+    }
+
+    @Override
+    protected Resource resolveResourceInternal(
+        HttpServletRequest request,
+        String requestPath,
+        List<? extends Resource> locations,
+        ResourceResolverChain chain
+    ) {
+        Resource resource = chain.resolveResource(request, requestPath, locations);
+        if (resource == null) {
+            return null;
+        }
+        Resource inMemory = resources.get(resource.getDescription());
+        return inMemory != null ? inMemory : load(resource);
+    }
+
+    @Override
+    protected String resolveUrlPathInternal(String resourceUrlPath, List<? extends Resource> locations, ResourceResolverChain chain) {
+        return chain.resolveUrlPath(resourceUrlPath, locations);
+    }
+
+    long getTotalSize() {
+        return totalSize.get();
+    }
+
+    private Resource load(Resource resource) {
+        try {
+            long length = resource.contentLength();
+            if (length > maxFileSize) {
+                return resource;
+            }
+            if (totalSize.addAndGet(length) > maxTotalSize) {
+                totalSize.addAndGet(-length);
+                return resource;
+            }
+            try (InputStream in = resource.getInputStream()) {
+                InMemoryResource inMemory = new InMemoryResource(resource, in.readAllBytes());
+                Resource previous = resources.putIfAbsent(resource.getDescription(), inMemory);
+                if (previous != null) {
+                    totalSize.addAndGet(-length);
+                    return previous;
+                }
+                return inMemory;
+            } catch (IOException e) {
+                totalSize.addAndGet(-length);
+                throw e;
+            }
+        } catch (IOException e) {
+            log.debug("Could not hold {} in memory: {}", resource.getDescription(), e.getMessage());
+            return resource;
+        }
+    }
+
+    /**
+     * The content of a resource, with its name, last modification time and response headers.
+     */
+    static final class InMemoryResource extends ByteArrayResource implements HttpResource {
+
+        private final String description;
+
+        private final String filename;
+
+        private final long lastModified;
+
+        private final HttpHeaders responseHeaders;
+
+        InMemoryResource(Resource resource, byte[] content) throws IOException {
+            super(content);
+            this.description = resource.getDescription();
+            this.filename = resource.getFilename();
+            this.lastModified = resource.lastModified();
+            this.responseHeaders = resource instanceof HttpResource httpResource ? httpResource.getResponseHeaders() : HttpHeaders.EMPTY;
+        }
+
+        @Override
+        public String getFilename() {
+            return filename;
+        }
+
+        @Override
+        public long lastModified() {
+            return lastModified;
+        }
+
+        @Override
+        public String getDescription() {
+            return description;
+        }
+
+        @Override
+        public HttpHeaders getResponseHeaders() {
+            return responseHeaders;
+        }
+    }
+}
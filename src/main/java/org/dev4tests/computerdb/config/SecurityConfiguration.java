@@ -3,12 +3,22 @@ package org.dev4tests.computerdb.config;
 import static org.springframework.security.config.Customizer.withDefaults;
 import static org.springframework.security.web.util.matcher.AntPathRequestMatcher.antMatcher;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import java.time.Clock;
+import java.util.List;
+import java.util.Map;
+import org.dev4tests.computerdb.management.SecurityMetersService;
 import org.dev4tests.computerdb.security.*;
+import org.dev4tests.computerdb.web.filter.RequestAdmissionFilter;
 import org.dev4tests.computerdb.web.filter.SpaWebFilter;
+import org.dev4tests.computerdb.web.filter.TrustedProxyFilter;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.env.Environment;
 import org.springframework.core.env.Profiles;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -16,12 +26,14 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.HeadersConfigurer.FrameOptionsConfig;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.server.resource.web.BearerTokenAuthenticationEntryPoint;
 import org.springframework.security.oauth2.server.resource.web.access.BearerTokenAccessDeniedHandler;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 import org.springframework.security.web.header.writers.ReferrerPolicyHeaderWriter;
+import org.springframework.security.web.session.DisableEncodeUrlFilter;
 import org.springframework.security.web.servlet.util.matcher.MvcRequestMatcher;
 import org.springframework.web.servlet.handler.HandlerMappingIntrospector;
 import tech.jhipster.config.JHipsterConstants;
@@ -31,26 +43,56 @@ import tech.jhipster.config.JHipsterProperties;
 @EnableMethodSecurity(securedEnabled = true)
 public class SecurityConfiguration {
 
+    private static final String BCRYPT_ENCODING_ID = "bcrypt";
+
     private final Environment env;
 
     private final JHipsterProperties jHipsterProperties;
 
-    public SecurityConfiguration(Environment env, JHipsterProperties jHipsterProperties) {
+    private final ApplicationProperties applicationProperties;
+
+    public SecurityConfiguration(Environment env, JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
         this.env = env;
         this.jHipsterProperties = jHipsterProperties;
+        this.applicationProperties = applicationProperties;
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public PasswordEncoder passwordEncoder(
+        SecurityMetersService securityMetersService,
+        ObjectProvider<ObservationRegistry> observationRegistryProvider
+    ) {
+        ApplicationProperties.Security.PasswordHashing passwordHashing = applicationProperties.getSecurity().getPasswordHashing();
+        DelegatingPasswordEncoder delegatingPasswordEncoder = new DelegatingPasswordEncoder(
+            BCRYPT_ENCODING_ID,
+            Map.of(BCRYPT_ENCODING_ID, new AdaptiveBCryptPasswordEncoder(passwordHashing.getBcryptStrength()))
+        );
+        // Hashes stored without an {id} prefix are BCrypt hashes, they are upgraded on the next successful login
+        delegatingPasswordEncoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        int threads = passwordHashing.getThreads() > 0 ? passwordHashing.getThreads() : Runtime.getRuntime().availableProcessors();
+        BoundedPasswordEncoder passwordEncoder = new BoundedPasswordEncoder(
+            delegatingPasswordEncoder,
+            threads,
+            passwordHashing.getQueueCapacity(),
+            passwordHashing.getTimeout(),
+            securityMetersService
+        );
+        observationRegistryProvider.ifAvailable(passwordEncoder::setObservationRegistry);
+        return passwordEncoder;
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public LoginRateLimiter loginRateLimiter() {
+        return new InMemoryLoginRateLimiter(applicationProperties.getSecurity().getLoginThrottling().getMaxKeys(), Clock.systemUTC());
     }
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http, MvcRequestMatcher.Builder mvc) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, MvcRequestMatcher.Builder mvc, MeterRegistry meterRegistry)
+        throws Exception {
         http
             .cors(withDefaults())
             .csrf(csrf -> csrf.disable())
-            .addFilterAfter(new SpaWebFilter(), BasicAuthenticationFilter.class)
+            .addFilterAfter(spaWebFilter(), BasicAuthenticationFilter.class)
             .headers(headers ->
                 headers
                     .contentSecurityPolicy(csp -> csp.policyDirectives(jHipsterProperties.getSecurity().getContentSecurityPolicy()))
@@ -77,6 +119,7 @@ public class SecurityConfiguration {
                     .requestMatchers(mvc.pattern("/api/activate")).permitAll()
                     .requestMatchers(mvc.pattern("/api/account/reset-password/init")).permitAll()
                     .requestMatchers(mvc.pattern("/api/account/reset-password/finish")).permitAll()
+                    .requestMatchers(mvc.pattern(HttpMethod.GET, "/.well-known/jwks.json")).permitAll()
                     .requestMatchers(mvc.pattern("/api/admin/**")).hasAuthority(AuthoritiesConstants.ADMIN)
                     .requestMatchers(mvc.pattern("/api/**")).authenticated()
                     .requestMatchers(mvc.pattern("/websocket/**")).authenticated()
@@ -94,12 +137,33 @@ public class SecurityConfiguration {
                     .accessDeniedHandler(new BearerTokenAccessDeniedHandler())
             )
             .oauth2ResourceServer(oauth2 -> oauth2.jwt(Customizer.withDefaults()));
+        List<String> trustedProxies = applicationProperties.getSecurity().getTrustedProxies();
+        if (!trustedProxies.isEmpty()) {
+            // First, so that every later filter sees the client address of the requests forwarded by the proxies
+            http.addFilterBefore(new TrustedProxyFilter(trustedProxies), DisableEncodeUrlFilter.class);
+        }
+        ApplicationProperties.RequestAdmission requestAdmission = applicationProperties.getRequestAdmission();
+        if (requestAdmission.isEnabled()) {
+            // After the token authentication, so that the requests are limited per principal
+            http.addFilterAfter(new RequestAdmissionFilter(requestAdmission, meterRegistry), SpaWebFilter.class);
+        }
         if (env.acceptsProfiles(Profiles.of(JHipsterConstants.SPRING_PROFILE_DEVELOPMENT))) {
             http.authorizeHttpRequests(authz -> authz.requestMatchers(antMatcher("/h2-console/**")).permitAll());
         }
         return http.build();
     }
 
+    /**
+     * In production, the client {@code index.html} is built into the classpath and served from memory, elsewhere it is
+     * served by the webapp build and the client routes are forwarded to it.
+     */
+    private SpaWebFilter spaWebFilter() {
+        if (env.acceptsProfiles(Profiles.of(JHipsterConstants.SPRING_PROFILE_PRODUCTION))) {
+            return new SpaWebFilter(new ClassPathResource("static/index.html"));
+        }
+        return new SpaWebFilter();
+    }
+
     @Bean
     MvcRequestMatcher.Builder mvc(HandlerMappingIntrospector introspector) {
         return new MvcRequestMatcher.Builder(introspector);
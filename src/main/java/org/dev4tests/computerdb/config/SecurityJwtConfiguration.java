@@ -3,11 +3,25 @@ package org.dev4tests.computerdb.config;
 import static org.dev4tests.computerdb.security.SecurityUtils.AUTHORITIES_KEY;
 import static org.dev4tests.computerdb.security.SecurityUtils.JWT_ALGORITHM;
 
+import com.nimbusds.jose.JWSAlgorithm;
 import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
 import com.nimbusds.jose.util.Base64;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import io.micrometer.observation.ObservationRegistry;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 import org.dev4tests.computerdb.management.SecurityMetersService;
+import org.dev4tests.computerdb.security.AuthenticationObservations;
+import org.dev4tests.computerdb.security.CachingJwtDecoder;
+import org.dev4tests.computerdb.security.RotatingJwkSource;
+import org.dev4tests.computerdb.security.RotatingKeyJwtEncoder;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -19,6 +33,7 @@ import org.springframework.security.oauth2.server.resource.authentication.JwtAut
 import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
 import org.springframework.security.oauth2.server.resource.web.BearerTokenResolver;
 import org.springframework.security.oauth2.server.resource.web.DefaultBearerTokenResolver;
+import tech.jhipster.config.JHipsterProperties;
 
 @Configuration
 public class SecurityJwtConfiguration {
@@ -27,29 +42,64 @@ public class SecurityJwtConfiguration {
     private String jwtKey;
 
     @Bean
-    public JwtDecoder jwtDecoder(SecurityMetersService metersService) {
-        NimbusJwtDecoder jwtDecoder = NimbusJwtDecoder.withSecretKey(getSecretKey()).macAlgorithm(JWT_ALGORITHM).build();
-        return token -> {
-            try {
-                return jwtDecoder.decode(token);
-            } catch (Exception e) {
-                if (e.getMessage().contains("Invalid signature")) {
-                    metersService.trackTokenInvalidSignature();
-                } else if (e.getMessage().contains("Jwt expired at")) {
-                    metersService.trackTokenExpired();
-                } else if (e.getMessage().contains("Invalid JWT serialization")) {
-                    metersService.trackTokenMalformed();
-                } else if (e.getMessage().contains("Invalid unsecured/JWS/JWE")) {
-                    metersService.trackTokenMalformed();
-                }
-                throw e;
+    public JWKSource<SecurityContext> jwkSource(ApplicationProperties applicationProperties, JHipsterProperties jHipsterProperties) {
+        ApplicationProperties.Security.Signing signing = applicationProperties.getSecurity().getSigning();
+        JWSAlgorithm algorithm = JWSAlgorithm.parse(signing.getAlgorithm());
+        if (JWT_ALGORITHM.getName().equals(algorithm.getName())) {
+            return new ImmutableSecret<>(getSecretKey());
+        }
+        // Retired keys must verify the tokens they signed until these expire
+        JHipsterProperties.Security.Authentication.Jwt jwt = jHipsterProperties.getSecurity().getAuthentication().getJwt();
+        Duration retention = Duration.ofSeconds(Math.max(jwt.getTokenValidityInSeconds(), jwt.getTokenValidityInSecondsForRememberMe()));
+        if (signing.getKeySetFile() == null) {
+            // Keys generated in memory would differ between the instances, each rejecting the tokens of the others
+            if (applicationProperties.getCache().getCluster().isEnabled()) {
+                throw new IllegalStateException(
+                    "application.security.signing.key-set-file must be set to use " + algorithm + " with the cache cluster enabled"
+                );
             }
-        };
+            return new RotatingJwkSource(algorithm, signing.getKeyRotation(), retention, Clock.systemUTC());
+        }
+        return new RotatingJwkSource(algorithm, signing.getKeyRotation(), retention, Clock.systemUTC(), Path.of(signing.getKeySetFile()));
     }
 
     @Bean
-    public JwtEncoder jwtEncoder() {
-        return new NimbusJwtEncoder(new ImmutableSecret<>(getSecretKey()));
+    public JwtDecoder jwtDecoder(
+        JWKSource<SecurityContext> jwkSource,
+        ApplicationProperties applicationProperties,
+        SecurityMetersService metersService,
+        ObjectProvider<ObservationRegistry> observationRegistryProvider
+    ) {
+        NimbusJwtDecoder jwtDecoder;
+        if (jwkSource instanceof RotatingJwkSource rotatingJwkSource) {
+            DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+            jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(rotatingJwkSource.getAlgorithm(), rotatingJwkSource));
+            // Claims are validated by the Spring validators
+            jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {});
+            jwtDecoder = new NimbusJwtDecoder(jwtProcessor);
+        } else {
+            jwtDecoder = NimbusJwtDecoder.withSecretKey(getSecretKey()).macAlgorithm(JWT_ALGORITHM).build();
+        }
+        jwtDecoder.setJwtValidator(CachingJwtDecoder.createTimestampValidator());
+        // Only the tokens missing from the cache are actually decoded
+        ObservationRegistry observationRegistry = observationRegistryProvider.getIfAvailable(() -> ObservationRegistry.NOOP);
+        NimbusJwtDecoder nimbusJwtDecoder = jwtDecoder;
+        JwtDecoder observedJwtDecoder = token ->
+            AuthenticationObservations.observe(
+                observationRegistry,
+                AuthenticationObservations.TOKEN_DECODE,
+                () -> nimbusJwtDecoder.decode(token)
+            );
+        ApplicationProperties.Security.TokenCache tokenCache = applicationProperties.getSecurity().getTokenCache();
+        return new CachingJwtDecoder(observedJwtDecoder, tokenCache.isEnabled() ? tokenCache.getMaxSize() : 0, metersService);
+    }
+
+    @Bean
+    public JwtEncoder jwtEncoder(JWKSource<SecurityContext> jwkSource) {
+        if (jwkSource instanceof RotatingJwkSource rotatingJwkSource) {
+            return new RotatingKeyJwtEncoder(rotatingJwkSource);
+        }
+        return new NimbusJwtEncoder(jwkSource);
     }
 
     @Bean
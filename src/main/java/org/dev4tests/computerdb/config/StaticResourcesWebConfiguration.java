@@ -7,6 +7,7 @@ import org.springframework.http.CacheControl;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistration;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
 import tech.jhipster.config.JHipsterConstants;
 import tech.jhipster.config.JHipsterProperties;
 
@@ -28,15 +29,37 @@ public class StaticResourcesWebConfiguration implements WebMvcConfigurer {
         "/content/**",
         "/i18n/*",
     };
+    protected static final String[] HASHED_RESOURCE_LOCATIONS = new String[] {
+        "classpath:/static/",
+        "classpath:/static/content/",
+    };
+    // The names given by webpack to the bundles, chunks and stylesheets, more specific than RESOURCE_PATHS
+    protected static final String[] HASHED_RESOURCE_PATHS = new String[] {
+        "/{file:[\\w-]+\\.[0-9a-f]{8,}(?:\\.chunk)?\\.js}",
+        "/content/{file:[\\w-]+\\.[0-9a-f]{8,}\\.css}",
+    };
 
     private final JHipsterProperties jhipsterProperties;
 
-    public StaticResourcesWebConfiguration(JHipsterProperties jHipsterProperties) {
+    private final ApplicationProperties.StaticResources staticResources;
+
+    private final InMemoryResourceResolver inMemoryResourceResolver;
+
+    public StaticResourcesWebConfiguration(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
         this.jhipsterProperties = jHipsterProperties;
+        this.staticResources = applicationProperties.getStaticResources();
+        // Shared by both handlers, so that a file is held in memory once
+        this.inMemoryResourceResolver =
+            new InMemoryResourceResolver(
+                staticResources.getInMemoryMaxFileSize().toBytes(),
+                staticResources.getInMemoryMaxTotalSize().toBytes()
+            );
     }
 
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        ResourceHandlerRegistration hashedResourceHandlerRegistration = registry.addResourceHandler(HASHED_RESOURCE_PATHS);
+        initializeHashedResourceHandler(hashedResourceHandlerRegistration);
         ResourceHandlerRegistration resourceHandlerRegistration = appendResourceHandler(registry);
         initializeResourceHandler(resourceHandlerRegistration);
     }
@@ -47,12 +70,33 @@ public class StaticResourcesWebConfiguration implements WebMvcConfigurer {
 
     protected void initializeResourceHandler(ResourceHandlerRegistration resourceHandlerRegistration) {
         resourceHandlerRegistration.addResourceLocations(RESOURCE_LOCATIONS).setCacheControl(getCacheControl());
+        initializeResourceChain(resourceHandlerRegistration);
+    }
+
+    protected void initializeHashedResourceHandler(ResourceHandlerRegistration resourceHandlerRegistration) {
+        resourceHandlerRegistration.addResourceLocations(HASHED_RESOURCE_LOCATIONS).setCacheControl(getHashedCacheControl());
+        initializeResourceChain(resourceHandlerRegistration);
+    }
+
+    /**
+     * Cache the resolved resources, hold the small ones in memory, and serve the {@code .br} or {@code .gz} variant
+     * emitted by webpack when the client accepts it.
+     */
+    protected void initializeResourceChain(ResourceHandlerRegistration resourceHandlerRegistration) {
+        resourceHandlerRegistration
+            .resourceChain(true)
+            .addResolver(inMemoryResourceResolver)
+            .addResolver(new EncodedResourceResolver());
     }
 
     protected CacheControl getCacheControl() {
         return CacheControl.maxAge(getJHipsterHttpCacheProperty(), TimeUnit.DAYS).cachePublic();
     }
 
+    protected CacheControl getHashedCacheControl() {
+        return CacheControl.maxAge(staticResources.getHashedTimeToLive()).cachePublic().immutable();
+    }
+
     private int getJHipsterHttpCacheProperty() {
         return jhipsterProperties.getHttp().getCache().getTimeToLiveInDays();
     }
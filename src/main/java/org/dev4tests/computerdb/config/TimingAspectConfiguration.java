@@ -0,0 +1,23 @@
+package org.dev4tests.computerdb.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.dev4tests.computerdb.aop.timing.TimingAspect;
+import org.dev4tests.computerdb.aop.timing.TimingEndpoint;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+
+@Configuration
+@EnableAspectJAutoProxy
+public class TimingAspectConfiguration {
+
+    @Bean
+    public TimingAspect timingAspect(MeterRegistry meterRegistry, ApplicationProperties applicationProperties) {
+        return new TimingAspect(meterRegistry, applicationProperties.getTiming());
+    }
+
+    @Bean
+    public TimingEndpoint timingEndpoint(TimingAspect timingAspect) {
+        return new TimingEndpoint(timingAspect);
+    }
+}
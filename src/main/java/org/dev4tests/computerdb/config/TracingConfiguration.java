@@ -0,0 +1,25 @@
+package org.dev4tests.computerdb.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.observation.ObservationRegistry;
+import org.dev4tests.computerdb.aop.tracing.UserTracingAspect;
+import org.dev4tests.computerdb.web.rest.JWTTokenHttpMessageConverter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+
+@Configuration
+@EnableAspectJAutoProxy
+public class TracingConfiguration {
+
+    @Bean
+    public UserTracingAspect userTracingAspect(ObservationRegistry observationRegistry) {
+        return new UserTracingAspect(observationRegistry);
+    }
+
+    // Picked up by the HttpMessageConverters of Spring Boot, ahead of the default converters
+    @Bean
+    public JWTTokenHttpMessageConverter jwtTokenHttpMessageConverter(ObjectMapper objectMapper, ObservationRegistry observationRegistry) {
+        return new JWTTokenHttpMessageConverter(objectMapper, observationRegistry);
+    }
+}
@@ -0,0 +1,66 @@
+package org.dev4tests.computerdb.config;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Factories of virtual threads, looked up at runtime since the application is still compiled for Java 17.
+ * <p>
+ * On Java 21 and later, the factories create virtual threads named with a prefix and a counter. On older runtimes,
+ * no factory is available and the callers keep their platform threads.
+ */
+final class VirtualThreadFactories {
+
+    private static final Method OF_VIRTUAL = findOfVirtual();
+
+    private VirtualThreadFactories() {}
+
+    /**
+     * Whether the runtime supports virtual threads.
+     *
+     * @return {@code true} on Java 21 and later.
+     */
+    static boolean isAvailable() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * Get a factory of virtual threads.
+     *
+     * @param namePrefix the prefix of the names of the threads, followed by a counter.
+     * @return the factory, or an empty {@link Optional} when the runtime does not support virtual threads.
+     */
+    static Optional<ThreadFactory> threadFactory(String namePrefix) {
+        if (OF_VIRTUAL == null) {
+            return Optional.empty();
+        }
+        try {
+            Object builder = OF_VIRTUAL.invoke(null);
+            Class<?> builderClass = OF_VIRTUAL.getReturnType();
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+            return Optional.of((ThreadFactory) builderClass.getMethod("factory").invoke(builder));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not create a virtual thread factory", e);
+        }
+    }
+
+    /**
+     * Get an executor starting a virtual thread for each task.
+     *
+     * @param namePrefix the prefix of the names of the threads, followed by a counter.
+     * @return the executor, or an empty {@link Optional} when the runtime does not support virtual threads.
+     */
+    static Optional<Executor> threadPerTaskExecutor(String namePrefix) {
+        return threadFactory(namePrefix).map(factory -> command -> factory.newThread(command).start());
+    }
+
+    private static Method findOfVirtual() {
+        try {
+            return Thread.class.getMethod("ofVirtual");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -8,6 +8,7 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Paths;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.web.embedded.undertow.UndertowServletWebServerFactory;
 import org.springframework.boot.web.server.*;
 import org.springframework.boot.web.servlet.ServletContextInitializer;
 import org.springframework.boot.web.servlet.server.ConfigurableServletWebServerFactory;
@@ -100,6 +101,31 @@ public class WebConfigurer implements ServletContextInitializer, WebServerFactor
         return new CorsFilter(source);
     }
 
+    /**
+     * Dispatches the servlet requests to virtual threads instead of the Undertow worker pool, when enabled.
+     * The number of /api requests in flight stays bounded by the request admission filter.
+     */
+    @Bean
+    public WebServerFactoryCustomizer<UndertowServletWebServerFactory> undertowVirtualThreadsCustomizer(
+        ApplicationProperties applicationProperties
+    ) {
+        return server -> {
+            if (!applicationProperties.getVirtualThreads().isEnabled()) {
+                return;
+            }
+            VirtualThreadFactories
+                .threadPerTaskExecutor("undertow-virtual-")
+                .ifPresentOrElse(
+                    executor -> server.addDeploymentInfoCustomizers(deploymentInfo -> deploymentInfo.setExecutor(executor)),
+                    () ->
+                        log.warn(
+                            "Virtual threads are enabled but not supported by Java {}, using the Undertow workers",
+                            Runtime.version().feature()
+                        )
+                );
+        };
+    }
+
     /**
      * Initializes H2 console.
      */
@@ -0,0 +1,19 @@
+package org.dev4tests.computerdb.domain.enumeration;
+
+/**
+ * The MailOutboxStatus enumeration.
+ */
+public enum MailOutboxStatus {
+    /**
+     * Waiting to be sent, or to be retried after a failure.
+     */
+    PENDING,
+    /**
+     * Accepted by the SMTP server.
+     */
+    SENT,
+    /**
+     * Given up after the maximum number of attempts.
+     */
+    FAILED,
+}
@@ -0,0 +1,4 @@
+/**
+ * JPA domain enumerations.
+ */
+package org.dev4tests.computerdb.domain.enumeration;
@@ -1,7 +1,11 @@
 package org.dev4tests.computerdb.management;
 
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -13,16 +17,60 @@ public class SecurityMetersService {
     public static final String INVALID_TOKENS_METER_BASE_UNIT = "errors";
     public static final String INVALID_TOKENS_METER_CAUSE_DIMENSION = "cause";
 
+    public static final String TOKEN_CACHE_METER_NAME = "security.authentication.token-cache";
+    public static final String TOKEN_CACHE_METER_RESULT_DIMENSION = "result";
+    public static final String TOKEN_DECODE_TIME_METER_NAME = "security.authentication.token-decode";
+
+    public static final String LOGIN_ATTEMPTS_METER_NAME = "security.authentication.login-attempts";
+    public static final String LOGIN_ATTEMPTS_METER_RESULT_DIMENSION = "result";
+
+    public static final String PASSWORD_HASHING_QUEUE_TIME_METER_NAME = "security.password-hashing.queue-time";
+    public static final String PASSWORD_HASHING_QUEUE_SIZE_METER_NAME = "security.password-hashing.queue-size";
+    public static final String PASSWORD_HASHING_REJECTED_METER_NAME = "security.password-hashing.rejected";
+
+    private final MeterRegistry registry;
+
     private final Counter tokenInvalidSignatureCounter;
     private final Counter tokenExpiredCounter;
     private final Counter tokenUnsupportedCounter;
     private final Counter tokenMalformedCounter;
 
+    private final Counter tokenCacheHitCounter;
+    private final Counter tokenCacheMissCounter;
+    private final Timer tokenDecodeTimer;
+
+    private final Counter loginAttemptAllowedCounter;
+    private final Counter loginAttemptRejectedCounter;
+
+    private final Timer passwordHashingQueueTimer;
+    private final Counter passwordHashingRejectedCounter;
+
     public SecurityMetersService(MeterRegistry registry) {
+        this.registry = registry;
         this.tokenInvalidSignatureCounter = invalidTokensCounterForCauseBuilder("invalid-signature").register(registry);
         this.tokenExpiredCounter = invalidTokensCounterForCauseBuilder("expired").register(registry);
         this.tokenUnsupportedCounter = invalidTokensCounterForCauseBuilder("unsupported").register(registry);
         this.tokenMalformedCounter = invalidTokensCounterForCauseBuilder("malformed").register(registry);
+
+        this.tokenCacheHitCounter = tokenCacheCounterForResultBuilder("hit").register(registry);
+        this.tokenCacheMissCounter = tokenCacheCounterForResultBuilder("miss").register(registry);
+        this.tokenDecodeTimer = Timer
+            .builder(TOKEN_DECODE_TIME_METER_NAME)
+            .description("Time spent decoding and verifying the tokens missing from the token cache.")
+            .register(registry);
+
+        this.loginAttemptAllowedCounter = loginAttemptsCounterForResultBuilder("allowed").register(registry);
+        this.loginAttemptRejectedCounter = loginAttemptsCounterForResultBuilder("rejected").register(registry);
+
+        this.passwordHashingQueueTimer = Timer
+            .builder(PASSWORD_HASHING_QUEUE_TIME_METER_NAME)
+            .description("Time spent by the password hashing requests waiting for a thread.")
+            .register(registry);
+        this.passwordHashingRejectedCounter = Counter
+            .builder(PASSWORD_HASHING_REJECTED_METER_NAME)
+            .baseUnit(INVALID_TOKENS_METER_BASE_UNIT)
+            .description("Indicates the count of password hashing requests rejected because the hashing pool was saturated.")
+            .register(registry);
     }
 
     private Counter.Builder invalidTokensCounterForCauseBuilder(String cause) {
@@ -33,6 +81,20 @@ public class SecurityMetersService {
             .tag(INVALID_TOKENS_METER_CAUSE_DIMENSION, cause);
     }
 
+    private Counter.Builder tokenCacheCounterForResultBuilder(String result) {
+        return Counter
+            .builder(TOKEN_CACHE_METER_NAME)
+            .description("Indicates the count of token cache lookups.")
+            .tag(TOKEN_CACHE_METER_RESULT_DIMENSION, result);
+    }
+
+    private Counter.Builder loginAttemptsCounterForResultBuilder(String result) {
+        return Counter
+            .builder(LOGIN_ATTEMPTS_METER_NAME)
+            .description("Indicates the count of login attempts, allowed or rejected by the login throttle.")
+            .tag(LOGIN_ATTEMPTS_METER_RESULT_DIMENSION, result);
+    }
+
     public void trackTokenInvalidSignature() {
         this.tokenInvalidSignatureCounter.increment();
     }
@@ -48,4 +110,39 @@ public class SecurityMetersService {
     public void trackTokenMalformed() {
         this.tokenMalformedCounter.increment();
     }
+
+    public void trackTokenCacheHit() {
+        this.tokenCacheHitCounter.increment();
+    }
+
+    public void trackTokenCacheMiss() {
+        this.tokenCacheMissCounter.increment();
+    }
+
+    public void trackTokenDecodeTime(long nanos) {
+        this.tokenDecodeTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void trackLoginAttemptAllowed() {
+        this.loginAttemptAllowedCounter.increment();
+    }
+
+    public void trackLoginAttemptRejected() {
+        this.loginAttemptRejectedCounter.increment();
+    }
+
+    public void trackPasswordHashingQueueTime(long nanos) {
+        this.passwordHashingQueueTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void trackPasswordHashingRejected() {
+        this.passwordHashingRejectedCounter.increment();
+    }
+
+    public void registerPasswordHashingQueue(Collection<?> queue) {
+        Gauge
+            .builder(PASSWORD_HASHING_QUEUE_SIZE_METER_NAME, queue, Collection::size)
+            .description("Number of password hashing requests waiting for a thread.")
+            .register(registry);
+    }
 }
@@ -0,0 +1,46 @@
+package org.dev4tests.computerdb.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import org.dev4tests.computerdb.domain.MailOutboxMessage;
+import org.dev4tests.computerdb.domain.enumeration.MailOutboxStatus;
+import org.hibernate.LockOptions;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the {@link MailOutboxMessage} entity.
+ */
+@Repository
+public interface MailOutboxRepository extends JpaRepository<MailOutboxMessage, Long> {
+    /**
+     * Lock the pending messages which are due, skipping the ones locked by the other instances.
+     * Must be called within a transaction.
+     *
+     * @param now the current date.
+     * @param pageable the maximum number of messages.
+     * @return the locked messages, the ones due for the longest time first.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "" + LockOptions.SKIP_LOCKED))
+    @Query(
+        "select m from MailOutboxMessage m where m.status = org.dev4tests.computerdb.domain.enumeration.MailOutboxStatus.PENDING" +
+        " and m.nextAttemptDate <= :now order by m.nextAttemptDate"
+    )
+    List<MailOutboxMessage> findDueForUpdate(@Param("now") Instant now, Pageable pageable);
+
+    boolean existsByDedupeKey(String dedupeKey);
+
+    @Modifying
+    @Query("delete from MailOutboxMessage m where m.status in :statuses and m.createdDate < :before")
+    int deleteByStatusInAndCreatedDateBefore(@Param("statuses") Collection<MailOutboxStatus> statuses, @Param("before") Instant before);
+}
@@ -0,0 +1,97 @@
+package org.dev4tests.computerdb.repository;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter of strings, which can be read and written concurrently.
+ * <p>
+ * {@link #mightContain(String)} never answers {@code false} for a string that has been {@link #put(String) put},
+ * and answers {@code true} for a string that has not with about the configured probability, as long as no more than
+ * the expected number of strings have been put.
+ */
+class StringBloomFilter {
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private static final long FIRST_SEED = 0xcbf29ce484222325L;
+
+    private static final long SECOND_SEED = 0x84222325cbf29ce4L;
+
+    private final AtomicLongArray bits;
+
+    private final long bitCount;
+
+    private final int hashCount;
+
+    private final long expectedInsertions;
+
+    private final AtomicLong insertions = new AtomicLong();
+
+    StringBloomFilter(long expectedInsertions, double falsePositiveProbability) {
+        this.expectedInsertions = Math.max(1, expectedInsertions);
+        long optimalBitCount = (long) Math.ceil(
+            -this.expectedInsertions * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2))
+        );
+        this.bits = new AtomicLongArray(Math.toIntExact(Math.max(1, (optimalBitCount + Long.SIZE - 1) / Long.SIZE)));
+        this.bitCount = (long) bits.length() * Long.SIZE;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / this.expectedInsertions * Math.log(2)));
+    }
+
+    void put(String value) {
+        long firstHash = hash(value, FIRST_SEED);
+        long secondHash = hash(value, SECOND_SEED);
+        boolean changed = false;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(firstHash + i * secondHash, bitCount);
+            int index = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long word;
+            while (((word = bits.get(index)) & mask) == 0) {
+                if (bits.compareAndSet(index, word, word | mask)) {
+                    changed = true;
+                    break;
+                }
+            }
+        }
+        // Strings put again are not counted, unless they collide with other strings
+        if (changed) {
+            insertions.incrementAndGet();
+        }
+    }
+
+    boolean mightContain(String value) {
+        long firstHash = hash(value, FIRST_SEED);
+        long secondHash = hash(value, SECOND_SEED);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(firstHash + i * secondHash, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Whether more strings have been put than expected, so that false positives are more frequent than configured.
+     *
+     * @return whether the filter should be rebuilt larger.
+     */
+    boolean isSaturated() {
+        return insertions.get() > expectedInsertions;
+    }
+
+    private static long hash(String value, long seed) {
+        long hash = seed;
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+        }
+        // MurmurHash3 finalizer, spreading the bits of short strings
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
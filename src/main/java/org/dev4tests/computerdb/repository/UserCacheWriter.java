@@ -0,0 +1,150 @@
+package org.dev4tests.computerdb.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import org.dev4tests.computerdb.domain.User;
+import org.hibernate.Hibernate;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Writes the changed users to the {@link UserRepository#USERS_BY_LOGIN_CACHE} and {@link UserRepository#USERS_BY_EMAIL_CACHE}
+ * caches once their transaction has committed.
+ * <p>
+ * Evicting the entries in the middle of a transaction lets a concurrent login cache the old row again before the commit,
+ * and makes the next login load the user from the database. Instead, the login and email of a user are recorded the first
+ * time it is written in a transaction, and after the commit the entries of these keys are evicted and the committed user
+ * is put under its current login and email. Nothing is written when the transaction is rolled back.
+ * <p>
+ * Users must be written before their login or email is changed, so that the entries of the previous keys are evicted.
+ */
+@Component
+public class UserCacheWriter {
+
+    private final CacheManager cacheManager;
+
+    public UserCacheWriter(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Put a created or updated user in the caches once the current transaction has committed, or immediately when no
+     * transaction is active.
+     *
+     * @param user the changed user.
+     */
+    public void userChanged(User user) {
+        write(user, false);
+    }
+
+    /**
+     * Evict a deleted user from the caches once the current transaction has committed, or immediately when no
+     * transaction is active.
+     *
+     * @param user the deleted user.
+     */
+    public void userDeleted(User user) {
+        write(user, true);
+    }
+
+    private void write(User user, boolean deleted) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            new PendingWrite(user).deleted(deleted).apply();
+            return;
+        }
+        PendingWrites pendingWrites = (PendingWrites) TransactionSynchronizationManager.getResource(this);
+        if (pendingWrites == null) {
+            pendingWrites = new PendingWrites();
+            TransactionSynchronizationManager.bindResource(this, pendingWrites);
+            TransactionSynchronizationManager.registerSynchronization(pendingWrites);
+        }
+        pendingWrites.get(user).deleted(deleted);
+    }
+
+    private final class PendingWrites implements TransactionSynchronization {
+
+        private final List<PendingWrite> writes = new ArrayList<>();
+
+        private PendingWrite get(User user) {
+            for (PendingWrite write : writes) {
+                if (write.user == user) {
+                    return write;
+                }
+            }
+            PendingWrite write = new PendingWrite(user);
+            writes.add(write);
+            return write;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            writes.forEach(PendingWrite::initialize);
+        }
+
+        @Override
+        public void afterCommit() {
+            writes.forEach(PendingWrite::apply);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(UserCacheWriter.this);
+        }
+    }
+
+    private final class PendingWrite {
+
+        private final User user;
+
+        private final String previousLogin;
+
+        private final String previousEmail;
+
+        private boolean deleted;
+
+        private PendingWrite(User user) {
+            this.user = user;
+            this.previousLogin = user.getLogin();
+            this.previousEmail = user.getEmail();
+        }
+
+        private PendingWrite deleted(boolean deleted) {
+            this.deleted = deleted;
+            return this;
+        }
+
+        private void initialize() {
+            if (!deleted) {
+                Hibernate.initialize(user.getAuthorities());
+            }
+        }
+
+        private void apply() {
+            Cache usersByLogin = Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE));
+            Cache usersByEmail = Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE));
+            // Evicting the current keys as well removes them from the other members in clustered mode
+            evict(usersByLogin, previousLogin, user.getLogin());
+            evict(usersByEmail, previousEmail, user.getEmail());
+            if (!deleted) {
+                initialize();
+                usersByLogin.put(user.getLogin(), user);
+                if (user.getEmail() != null) {
+                    usersByEmail.put(user.getEmail(), user);
+                }
+            }
+        }
+
+        private static void evict(Cache cache, String previousKey, String key) {
+            if (previousKey != null && !previousKey.equals(key)) {
+                cache.evict(previousKey);
+            }
+            if (key != null) {
+                cache.evict(key);
+            }
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package org.dev4tests.computerdb.repository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import org.dev4tests.computerdb.config.ApplicationProperties;
+import org.dev4tests.computerdb.domain.User;
+import org.hibernate.event.spi.PersistContext;
+import org.hibernate.event.spi.PersistEvent;
+import org.hibernate.event.spi.PersistEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Bloom filter of the logins and emails of the users, answering most lookups of unknown logins and emails without a
+ * query: registrations and credential stuffing mostly look up logins and emails that do not exist.
+ * <p>
+ * The filter is built from all the users, then kept up to date incrementally: the users created by this instance are
+ * added as soon as they are persisted, so that their transaction finds them before they are flushed, the users updated
+ * by this instance are added when they are flushed, and the users modified by the other instances are added by a
+ * periodic refresh. The refresh relies on the modification dates, which a clock skew between the instances or a late
+ * commit can set before the previous refresh: the filter is therefore also rebuilt periodically, so that a missed user
+ * is eventually added, and when more users were added than it was sized for. Deleted users are only removed when the
+ * filter is rebuilt. Until the filter is built, every login and email might exist.
+ */
+public class UserKeyFilter implements PersistEventListener, PostInsertEventListener, PostUpdateEventListener {
+
+    private static final String LOGIN_PREFIX = "l:";
+
+    private static final String EMAIL_PREFIX = "e:";
+
+    private final Logger log = LoggerFactory.getLogger(UserKeyFilter.class);
+
+    private final UserRepository userRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties.Cache.UserKeyFilter properties;
+
+    private volatile StringBloomFilter filter;
+
+    private volatile StringBloomFilter nextFilter;
+
+    private volatile Instant refreshedUntil;
+
+    private volatile Instant rebuildDue;
+
+    // A lock rather than a monitor, so that the queries do not pin the carrier when running on a virtual thread
+    private final Lock lock = new ReentrantLock();
+
+    public UserKeyFilter(
+        UserRepository userRepository,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties.Cache.UserKeyFilter properties
+    ) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.properties = properties;
+    }
+
+    /**
+     * Whether a user might have a login.
+     *
+     * @param login the login, in any case.
+     * @return {@code false} if no user has this login, {@code true} if a user might have it.
+     */
+    public boolean mightContainLogin(String login) {
+        StringBloomFilter currentFilter = filter;
+        return login == null || currentFilter == null || currentFilter.mightContain(LOGIN_PREFIX + login.toLowerCase(Locale.ENGLISH));
+    }
+
+    /**
+     * Whether a user might have an email.
+     *
+     * @param email the email, in any case.
+     * @return {@code false} if no user has this email, {@code true} if a user might have it.
+     */
+    public boolean mightContainEmail(String email) {
+        StringBloomFilter currentFilter = filter;
+        return email == null || currentFilter == null || currentFilter.mightContain(EMAIL_PREFIX + email.toLowerCase(Locale.ENGLISH));
+    }
+
+    /**
+     * Build the filter from all the users, replacing the current one once built.
+     */
+    public void rebuild() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        lock.lock();
+        try {
+            doRebuild();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void doRebuild() {
+        Instant start = Instant.now();
+        long userCount = userRepository.count();
+        // Each user has a login and an email
+        long expectedKeys = 2 * Math.max(properties.getExpectedUsers(), 2 * userCount);
+        StringBloomFilter builtFilter = new StringBloomFilter(expectedKeys, properties.getFalsePositiveProbability());
+        // Users flushed while the filter is built are added to both filters
+        nextFilter = builtFilter;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<UserRepository.UserKeys> keys = userRepository.streamAllKeys()) {
+                    keys.forEach(userKeys -> put(builtFilter, userKeys.getLogin(), userKeys.getEmail()));
+                }
+            });
+            filter = builtFilter;
+        } finally {
+            nextFilter = null;
+        }
+        // Users committed by other instances while the filter was built are added by the next refresh
+        refreshedUntil = start;
+        rebuildDue = start.plus(properties.getRebuild());
+        log.debug("Built the user key filter with {} users in {} ms", userCount, Duration.between(start, Instant.now()).toMillis());
+    }
+
+    /**
+     * Add the users modified since the previous refresh, or rebuild the filter if it is not built, saturated or due.
+     */
+    @Scheduled(
+        initialDelayString = "${application.cache.user-key-filter.refresh:PT10S}",
+        fixedDelayString = "${application.cache.user-key-filter.refresh:PT10S}"
+    )
+    public void refresh() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        lock.lock();
+        try {
+            StringBloomFilter currentFilter = filter;
+            Instant start = Instant.now();
+            if (currentFilter == null || currentFilter.isSaturated() || !start.isBefore(rebuildDue)) {
+                doRebuild();
+                return;
+            }
+            // Overlap the previous refresh, as the modification dates are set before the transactions commit
+            userRepository
+                .findAllKeysByLastModifiedDateSince(refreshedUntil.minus(properties.getRefresh()))
+                .forEach(userKeys -> put(currentFilter, userKeys.getLogin(), userKeys.getEmail()));
+            refreshedUntil = start;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void onPersist(PersistEvent event) {
+        if (event.getObject() instanceof User user) {
+            add(user);
+        }
+    }
+
+    @Override
+    public void onPersist(PersistEvent event, PersistContext createdAlready) {
+        onPersist(event);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof User user) {
+            add(user);
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof User user) {
+            add(user);
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void add(User user) {
+        StringBloomFilter currentFilter = filter;
+        if (currentFilter != null) {
+            put(currentFilter, user.getLogin(), user.getEmail());
+        }
+        StringBloomFilter builtFilter = nextFilter;
+        if (builtFilter != null) {
+            put(builtFilter, user.getLogin(), user.getEmail());
+        }
+    }
+
+    private static void put(StringBloomFilter filter, String login, String email) {
+        if (login != null) {
+            filter.put(LOGIN_PREFIX + login.toLowerCase(Locale.ENGLISH));
+        }
+        if (email != null) {
+            filter.put(EMAIL_PREFIX + email.toLowerCase(Locale.ENGLISH));
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package org.dev4tests.computerdb.repository;
+
+import java.util.List;
+import org.dev4tests.computerdb.domain.User;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Keyset (seek) pagination queries on the {@link User} entity, mixed into {@link UserRepository}.
+ */
+public interface UserKeysetRepository {
+    /**
+     * Get the ids of the users following the {@code anchor} user, in the {@code order} sort order with the id as tiebreaker.
+     *
+     * @param anchor the last user of the previous page, or {@code null} for the first page.
+     * @param order the sort order, on a single property of the user.
+     * @param limit the maximum number of users to return.
+     * @param activatedOnly whether to only return activated users.
+     * @return the ids of the users following the anchor.
+     */
+    List<Long> findAllIdsAfter(User anchor, Sort.Order order, int limit, boolean activatedOnly);
+}
@@ -0,0 +1,82 @@
+package org.dev4tests.computerdb.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.List;
+import org.dev4tests.computerdb.domain.User;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Criteria API implementation of {@link UserKeysetRepository}.
+ * <p>
+ * Instead of skipping {@code OFFSET} rows, the next page is selected with a {@code (property, id)} comparison
+ * against the anchor row, so the database seeks directly to the start of the page whatever its depth.
+ * <p>
+ * Null values are expected to sort first in ascending order and last in descending order, as they do on H2 and MariaDB.
+ */
+public class UserKeysetRepositoryImpl implements UserKeysetRepository {
+
+    private static final String ID = "id";
+
+    private final EntityManager entityManager;
+
+    public UserKeysetRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<Long> findAllIdsAfter(User anchor, Sort.Order order, int limit, boolean activatedOnly) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<User> root = query.from(User.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (activatedOnly) {
+            predicates.add(cb.isTrue(root.get("activated")));
+        }
+        if (anchor != null) {
+            predicates.add(after(cb, root, order, anchor));
+        }
+
+        List<Order> orders = new ArrayList<>();
+        if (!ID.equals(order.getProperty())) {
+            orders.add(toOrder(cb, root.get(order.getProperty()), order));
+        }
+        orders.add(toOrder(cb, root.get(ID), order));
+
+        query.select(root.get(ID)).where(predicates.toArray(new Predicate[0])).orderBy(orders);
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private Predicate after(CriteriaBuilder cb, Root<User> root, Sort.Order order, User anchor) {
+        Path<Long> id = root.get(ID);
+        Predicate afterId = order.isAscending() ? cb.greaterThan(id, anchor.getId()) : cb.lessThan(id, anchor.getId());
+        if (ID.equals(order.getProperty())) {
+            return afterId;
+        }
+
+        Path property = root.get(order.getProperty());
+        Comparable value = (Comparable) new BeanWrapperImpl(anchor).getPropertyValue(order.getProperty());
+        if (value == null) {
+            Predicate sameNull = cb.and(cb.isNull(property), afterId);
+            return order.isAscending() ? cb.or(sameNull, cb.isNotNull(property)) : sameNull;
+        }
+
+        Predicate beyond = order.isAscending() ? cb.greaterThan(property, value) : cb.lessThan(property, value);
+        Predicate sameValue = cb.and(cb.equal(property, value), afterId);
+        Predicate keyset = cb.or(beyond, sameValue);
+        return order.isAscending() ? keyset : cb.or(keyset, cb.isNull(property));
+    }
+
+    private Order toOrder(CriteriaBuilder cb, Path<?> path, Sort.Order order) {
+        return order.isAscending() ? cb.asc(path) : cb.desc(path);
+    }
+}
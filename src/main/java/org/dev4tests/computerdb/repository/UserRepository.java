@@ -1,20 +1,28 @@
 package org.dev4tests.computerdb.repository;
 
+import jakarta.persistence.QueryHint;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 import org.dev4tests.computerdb.domain.User;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
  * Spring Data JPA repository for the {@link User} entity.
  */
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserKeysetRepository {
     String USERS_BY_LOGIN_CACHE = "usersByLogin";
 
     String USERS_BY_EMAIL_CACHE = "usersByEmail";
@@ -33,4 +41,69 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findOneWithAuthoritiesByEmailIgnoreCase(String email);
 
     Page<User> findAllByIdNotNullAndActivatedIsTrue(Pageable pageable);
+
+    @Query(value = "select u.id from User u", countQuery = "select count(u) from User u")
+    Page<Long> findAllIds(Pageable pageable);
+
+    @Query("select u.id from User u")
+    Slice<Long> findSliceOfIds(Pageable pageable);
+
+    @EntityGraph(attributePaths = "authorities")
+    List<User> findAllWithAuthoritiesByIdIn(Collection<Long> ids);
+
+    Slice<User> findSliceByIdNotNullAndActivatedIsTrue(Pageable pageable);
+
+    long countByActivatedIsTrue();
+
+    @Query("select u.id from User u where u.activated = true order by u.lastModifiedDate desc")
+    List<Long> findIdsOfActivatedUsersByLastModifiedDateDesc(Pageable pageable);
+
+    /**
+     * Stream all the users with their authorities, in a forward-only and read-only pass bypassing the second-level cache.
+     * The stream must be consumed within a transaction, and closed.
+     *
+     * @return all the users, ordered by id.
+     */
+    @QueryHints(
+        {
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE"),
+        }
+    )
+    @Query("select u from User u left join fetch u.authorities order by u.id")
+    Stream<User> streamAllWithAuthorities();
+
+    /**
+     * Stream the logins and emails of all the users, in a forward-only and read-only pass.
+     * The stream must be consumed within a transaction, and closed.
+     *
+     * @return the logins and emails of all the users.
+     */
+    @QueryHints(
+        {
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        }
+    )
+    @Query("select u.login as login, u.email as email from User u")
+    Stream<UserKeys> streamAllKeys();
+
+    @Query("select u.login as login, u.email as email from User u where u.lastModifiedDate >= :since")
+    List<UserKeys> findAllKeysByLastModifiedDateSince(@Param("since") Instant since);
+
+    @Query("select u.login from User u where u.login in :logins")
+    Set<String> findAllLoginsByLoginIn(@Param("logins") Collection<String> logins);
+
+    @Query("select u.email from User u where u.email in :emails")
+    Set<String> findAllEmailsByEmailIn(@Param("emails") Collection<String> emails);
+
+    /**
+     * Login and email of a user.
+     */
+    interface UserKeys {
+        String getLogin();
+
+        String getEmail();
+    }
 }
@@ -0,0 +1,62 @@
+package org.dev4tests.computerdb.repository;
+
+import java.util.Locale;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository reading the row count estimates of the {@code jhi_user} table from the database statistics.
+ */
+@Repository
+public class UserStatisticsRepository {
+
+    private static final String USER_TABLE = "jhi_user";
+
+    private final Logger log = LoggerFactory.getLogger(UserStatisticsRepository.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserStatisticsRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Estimate the number of users from the table statistics, falling back to an exact count
+     * when the database does not provide any.
+     *
+     * @return the estimated number of users.
+     */
+    public long estimateUserCount() {
+        Long estimate = null;
+        try {
+            String databaseProductName = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName()
+            );
+            estimate =
+                switch (String.valueOf(databaseProductName)) {
+                    case "MariaDB", "MySQL" -> jdbcTemplate.queryForObject(
+                        "SELECT TABLE_ROWS FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?",
+                        Long.class,
+                        USER_TABLE
+                    );
+                    case "H2" -> jdbcTemplate.queryForObject(
+                        "SELECT ROW_COUNT_ESTIMATE FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = CURRENT_SCHEMA AND TABLE_NAME = ?",
+                        Long.class,
+                        USER_TABLE.toUpperCase(Locale.ROOT)
+                    );
+                    default -> null;
+                };
+        } catch (DataAccessException e) {
+            log.debug("Could not read the statistics of the {} table: {}", USER_TABLE, e.getMessage());
+        }
+        if (estimate != null) {
+            return estimate;
+        }
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + USER_TABLE, Long.class);
+        return count == null ? 0 : count;
+    }
+}
@@ -0,0 +1,54 @@
+package org.dev4tests.computerdb.security;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import java.util.function.Supplier;
+
+/**
+ * Observations of the stages of an authentication, from the decoding of the token to the serialization of the
+ * response.
+ * <p>
+ * Each stage is a span of the trace of the request, and a {@link #NAME} timer tagged with the {@link #STAGE}, whose
+ * histogram gives the latency breakdown of the authentications.
+ */
+public final class AuthenticationObservations {
+
+    public static final String NAME = "authentication.stage";
+
+    public static final String STAGE = "stage";
+
+    public static final String TOKEN_DECODE = "token-decode";
+
+    public static final String USER_LOOKUP = "user-lookup";
+
+    public static final String PASSWORD_VERIFY = "password-verify";
+
+    public static final String TOKEN_ENCODE = "token-encode";
+
+    public static final String SERIALIZATION = "serialization";
+
+    private AuthenticationObservations() {}
+
+    /**
+     * Observe a stage of an authentication.
+     *
+     * @param registry the observation registry.
+     * @param stage the stage.
+     * @param supplier the stage.
+     * @return the result of the stage.
+     */
+    public static <T> T observe(ObservationRegistry registry, String stage, Supplier<T> supplier) {
+        return create(registry, stage).observe(supplier);
+    }
+
+    /**
+     * Create the observation of a stage of an authentication, to be started.
+     *
+     * @param registry the observation registry.
+     * @param stage the stage.
+     * @return the observation.
+     */
+    public static Observation create(ObservationRegistry registry, String stage) {
+        return Observation.createNotStarted(NAME, registry).contextualName("authentication " + stage).lowCardinalityKeyValue(STAGE, stage);
+    }
+}
@@ -0,0 +1,127 @@
+package org.dev4tests.computerdb.security;
+
+import io.micrometer.observation.ObservationRegistry;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.dev4tests.computerdb.management.SecurityMetersService;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * {@link PasswordEncoder} hashing and verifying passwords on a dedicated, bounded pool of threads.
+ * <p>
+ * Password hashing is deliberately slow and CPU-bound: run on the request threads, a burst of logins keeps every
+ * processor busy and starves all the other requests. Here at most {@code threads} passwords are hashed at the same
+ * time, at most {@code queueCapacity} requests wait for a thread, and further requests are rejected with a
+ * {@link PasswordHashingRejectedException}.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+
+    private final ThreadPoolExecutor executor;
+
+    private final Duration timeout;
+
+    private final SecurityMetersService securityMetersService;
+
+    private ObservationRegistry observationRegistry = ObservationRegistry.NOOP;
+
+    public BoundedPasswordEncoder(
+        PasswordEncoder delegate,
+        int threads,
+        int queueCapacity,
+        Duration timeout,
+        SecurityMetersService securityMetersService
+    ) {
+        this.delegate = delegate;
+        this.timeout = timeout;
+        this.securityMetersService = securityMetersService;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("password-hashing-");
+        threadFactory.setDaemon(true);
+        this.executor =
+            new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                threadFactory,
+                new ThreadPoolExecutor.AbortPolicy()
+            );
+        securityMetersService.registerPasswordHashingQueue(executor.getQueue());
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return AuthenticationObservations.observe(
+            observationRegistry,
+            AuthenticationObservations.PASSWORD_VERIFY,
+            () -> execute(() -> delegate.matches(rawPassword, encodedPassword))
+        );
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Observe the password verifications, waiting for a thread included, as a stage of the authentications.
+     *
+     * @param observationRegistry the observation registry.
+     */
+    public void setObservationRegistry(ObservationRegistry observationRegistry) {
+        this.observationRegistry = observationRegistry;
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> T execute(Callable<T> task) {
+        long submitted = System.nanoTime();
+        Future<T> future;
+        try {
+            future =
+                executor.submit(() -> {
+                    securityMetersService.trackPasswordHashingQueueTime(System.nanoTime() - submitted);
+                    return task.call();
+                });
+        } catch (RejectedExecutionException e) {
+            securityMetersService.trackPasswordHashingRejected();
+            throw new PasswordHashingRejectedException("The password hashing queue is full", e);
+        }
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            securityMetersService.trackPasswordHashingRejected();
+            throw new PasswordHashingRejectedException("The password hashing timed out", e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingRejectedException("The password hashing was interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package org.dev4tests.computerdb.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.nimbusds.jose.proc.BadJOSEException;
+import com.nimbusds.jose.proc.BadJWSException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.stream.Collectors;
+import org.dev4tests.computerdb.management.SecurityMetersService;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwtTimestampValidator;
+import org.springframework.security.oauth2.jwt.JwtValidationException;
+
+/**
+ * {@link JwtDecoder} caching the decoded tokens until they expire, so that the signature of a token is verified once
+ * instead of on each request.
+ * <p>
+ * Tokens are keyed by their SHA-256 hash, in a Caffeine cache which removes each token when it expires. The cache is
+ * bounded: beyond its maximum size, the least frequently used tokens are evicted, in constant time, so that a flood of
+ * distinct tokens costs no more per request than a cache miss.
+ * <p>
+ * Decoding failures are tracked by cause with the {@link SecurityMetersService}, from the type of the exceptions.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    /**
+     * Error code of the failures of the {@link #createTimestampValidator() timestamp validator}.
+     */
+    public static final String EXPIRED_TOKEN_ERROR_CODE = "expired_token";
+
+    private final JwtDecoder delegate;
+
+    private final SecurityMetersService securityMetersService;
+
+    private final Cache<String, Jwt> cache;
+
+    public CachingJwtDecoder(JwtDecoder delegate, int maxSize, SecurityMetersService securityMetersService) {
+        this.delegate = delegate;
+        this.securityMetersService = securityMetersService;
+        this.cache =
+            Caffeine
+                .newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry())
+                // The evictions are amortized over the requests, rather than run by the common pool
+                .executor(Runnable::run)
+                .build();
+    }
+
+    /**
+     * Create a validator of the token timestamps, whose failures are tracked as expired tokens.
+     *
+     * @return the validator.
+     */
+    public static OAuth2TokenValidator<Jwt> createTimestampValidator() {
+        JwtTimestampValidator timestampValidator = new JwtTimestampValidator();
+        return jwt -> {
+            OAuth2TokenValidatorResult result = timestampValidator.validate(jwt);
+            if (!result.hasErrors()) {
+                return result;
+            }
+            String description = result.getErrors().stream().map(OAuth2Error::getDescription).collect(Collectors.joining(", "));
+            return OAuth2TokenValidatorResult.failure(new OAuth2Error(EXPIRED_TOKEN_ERROR_CODE, description, null));
+        };
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        String key = hash(token);
+        Jwt cached = cache.getIfPresent(key);
+        if (cached != null) {
+            securityMetersService.trackTokenCacheHit();
+            return cached;
+        }
+        securityMetersService.trackTokenCacheMiss();
+
+        long start = System.nanoTime();
+        Jwt jwt;
+        try {
+            jwt = delegate.decode(token);
+        } catch (JwtException e) {
+            trackFailure(e);
+            throw e;
+        } finally {
+            securityMetersService.trackTokenDecodeTime(System.nanoTime() - start);
+        }
+        if (jwt.getExpiresAt() != null) {
+            cache.put(key, jwt);
+        }
+        return jwt;
+    }
+
+    long cacheSize() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    private void trackFailure(JwtException e) {
+        Throwable cause = e.getCause();
+        if (e instanceof JwtValidationException validationException) {
+            if (validationException.getErrors().stream().anyMatch(error -> EXPIRED_TOKEN_ERROR_CODE.equals(error.getErrorCode()))) {
+                securityMetersService.trackTokenExpired();
+            } else {
+                securityMetersService.trackTokenUnsupported();
+            }
+        } else if (cause instanceof BadJWSException) {
+            securityMetersService.trackTokenInvalidSignature();
+        } else if (cause instanceof ParseException) {
+            securityMetersService.trackTokenMalformed();
+        } else if (cause instanceof BadJOSEException || e instanceof BadJwtException) {
+            securityMetersService.trackTokenUnsupported();
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Removes the tokens from the cache when they expire.
+     */
+    private static final class TokenExpiry implements Expiry<String, Jwt> {
+
+        @Override
+        public long expireAfterCreate(String key, Jwt jwt, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), jwt.getExpiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Jwt jwt, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, jwt, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Jwt jwt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
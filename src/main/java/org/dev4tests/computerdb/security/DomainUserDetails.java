@@ -0,0 +1,22 @@
+package org.dev4tests.computerdb.security;
+
+import java.util.Collection;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+/**
+ * Authenticated user, with the id put in the claims of its tokens.
+ */
+public class DomainUserDetails extends User {
+
+    private final Long id;
+
+    public DomainUserDetails(Long id, String login, String password, Collection<? extends GrantedAuthority> authorities) {
+        super(login, password, authorities);
+        this.id = id;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
@@ -1,39 +1,66 @@
 package org.dev4tests.computerdb.security;
 
+import io.micrometer.observation.ObservationRegistry;
 import java.util.*;
 import org.dev4tests.computerdb.domain.Authority;
 import org.dev4tests.computerdb.domain.User;
+import org.dev4tests.computerdb.repository.UserCacheWriter;
+import org.dev4tests.computerdb.repository.UserKeyFilter;
 import org.dev4tests.computerdb.repository.UserRepository;
 import org.hibernate.validator.internal.constraintvalidators.hv.EmailValidator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
- * Authenticate a user from the database.
+ * Authenticate a user from the database, and upgrade the hash of its password when the password encoder asks for it.
+ * <p>
+ * Logins and emails that no user has are mostly rejected by the {@link UserKeyFilter}, without a query.
  */
 @Component("userDetailsService")
-public class DomainUserDetailsService implements UserDetailsService {
+public class DomainUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final Logger log = LoggerFactory.getLogger(DomainUserDetailsService.class);
 
     private final UserRepository userRepository;
 
-    public DomainUserDetailsService(UserRepository userRepository) {
+    private final UserCacheWriter userCacheWriter;
+
+    private final UserKeyFilter userKeyFilter;
+
+    private final ObservationRegistry observationRegistry;
+
+    public DomainUserDetailsService(
+        UserRepository userRepository,
+        UserCacheWriter userCacheWriter,
+        UserKeyFilter userKeyFilter,
+        ObjectProvider<ObservationRegistry> observationRegistryProvider
+    ) {
         this.userRepository = userRepository;
+        this.userCacheWriter = userCacheWriter;
+        this.userKeyFilter = userKeyFilter;
+        this.observationRegistry = observationRegistryProvider.getIfAvailable(() -> ObservationRegistry.NOOP);
     }
 
     @Override
     @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(final String login) {
         log.debug("Authenticating {}", login);
+        return AuthenticationObservations.observe(observationRegistry, AuthenticationObservations.USER_LOOKUP, () -> loadUser(login));
+    }
 
+    private UserDetails loadUser(String login) {
         if (new EmailValidator().isValid(login, null)) {
+            if (!userKeyFilter.mightContainEmail(login)) {
+                throw new UsernameNotFoundException("User with email " + login + " was not found in the database");
+            }
             return userRepository
                 .findOneWithAuthoritiesByEmailIgnoreCase(login)
                 .map(user -> createSpringSecurityUser(login, user))
@@ -41,13 +68,37 @@ public class DomainUserDetailsService implements UserDetailsService {
         }
 
         String lowercaseLogin = login.toLowerCase(Locale.ENGLISH);
+        if (!userKeyFilter.mightContainLogin(lowercaseLogin)) {
+            throw new UsernameNotFoundException("User " + lowercaseLogin + " was not found in the database");
+        }
         return userRepository
             .findOneWithAuthoritiesByLogin(lowercaseLogin)
             .map(user -> createSpringSecurityUser(lowercaseLogin, user))
             .orElseThrow(() -> new UsernameNotFoundException("User " + lowercaseLogin + " was not found in the database"));
     }
 
-    private org.springframework.security.core.userdetails.User createSpringSecurityUser(String lowercaseLogin, User user) {
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        log.debug("Upgrading the password hash of {}", userDetails.getUsername());
+        userRepository
+            .findOneByLogin(userDetails.getUsername())
+            .ifPresent(user -> {
+                user.setPassword(newPassword);
+                userCacheWriter.userChanged(user);
+            });
+        if (userDetails instanceof DomainUserDetails domainUserDetails) {
+            return new DomainUserDetails(
+                domainUserDetails.getId(),
+                domainUserDetails.getUsername(),
+                newPassword,
+                domainUserDetails.getAuthorities()
+            );
+        }
+        return org.springframework.security.core.userdetails.User.withUserDetails(userDetails).password(newPassword).build();
+    }
+
+    private DomainUserDetails createSpringSecurityUser(String lowercaseLogin, User user) {
         if (!user.isActivated()) {
             throw new UserNotActivatedException("User " + lowercaseLogin + " was not activated");
         }
@@ -57,6 +108,6 @@ public class DomainUserDetailsService implements UserDetailsService {
             .map(Authority::getName)
             .map(SimpleGrantedAuthority::new)
             .toList();
-        return new org.springframework.security.core.userdetails.User(user.getLogin(), user.getPassword(), grantedAuthorities);
+        return new DomainUserDetails(user.getId(), user.getLogin(), user.getPassword(), grantedAuthorities);
     }
 }
@@ -0,0 +1,88 @@
+package org.dev4tests.computerdb.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * {@link LoginRateLimiter} keeping the counters of the keys in memory, for a single instance.
+ * <p>
+ * Each counter is replaced with compare-and-set, so that concurrent attempts do not lock each other. The counters are
+ * held in a Caffeine cache of at most {@code maxKeys} keys, which removes a counter two windows after its last attempt,
+ * when it no longer counts. Every attempt is counted: beyond {@code maxKeys} keys, the least frequently used counters
+ * are evicted as new ones are added, so that a flood of new keys does not evict the counters of the attacked logins and
+ * addresses, and each eviction costs a constant time.
+ */
+public class InMemoryLoginRateLimiter implements LoginRateLimiter {
+
+    private final Cache<String, Counter> counters;
+
+    private final Clock clock;
+
+    public InMemoryLoginRateLimiter(int maxKeys, Clock clock) {
+        this.clock = clock;
+        this.counters =
+            Caffeine
+                .newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfter(new CounterExpiry())
+                .ticker(() -> TimeUnit.MILLISECONDS.toNanos(clock.millis()))
+                // The evictions are amortized over the attempts, rather than run by the common pool
+                .executor(Runnable::run)
+                .build();
+    }
+
+    @Override
+    public Duration tryAcquire(String key, int limit, Duration window) {
+        long now = clock.millis();
+        long windowMillis = window.toMillis();
+        AtomicReference<SlidingWindowCounter> counter = counters.get(key, k -> new Counter(windowMillis)).value();
+        while (true) {
+            SlidingWindowCounter previous = counter.get();
+            SlidingWindowCounter slid = previous.slide(now, windowMillis);
+            long retryAfter = slid.retryAfter(now, windowMillis, limit);
+            SlidingWindowCounter next = retryAfter == 0 ? slid.increment() : slid;
+            if (next == previous || counter.compareAndSet(previous, next)) {
+                return Duration.ofMillis(retryAfter);
+            }
+        }
+    }
+
+    /**
+     * The counter of a key, with the length of its window.
+     */
+    private record Counter(AtomicReference<SlidingWindowCounter> value, long windowMillis) {
+        Counter(long windowMillis) {
+            this(new AtomicReference<>(new SlidingWindowCounter(0, 0, 0)), windowMillis);
+        }
+
+        long timeToLiveNanos() {
+            return TimeUnit.MILLISECONDS.toNanos(2 * windowMillis);
+        }
+    }
+
+    /**
+     * Expires the counters two windows after their last attempt.
+     */
+    private static final class CounterExpiry implements Expiry<String, Counter> {
+
+        @Override
+        public long expireAfterCreate(String key, Counter counter, long currentTime) {
+            return counter.timeToLiveNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Counter counter, long currentTime, long currentDuration) {
+            return counter.timeToLiveNanos();
+        }
+
+        @Override
+        public long expireAfterRead(String key, Counter counter, long currentTime, long currentDuration) {
+            return counter.timeToLiveNanos();
+        }
+    }
+}
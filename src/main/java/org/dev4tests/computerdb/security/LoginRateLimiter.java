@@ -0,0 +1,18 @@
+package org.dev4tests.computerdb.security;
+
+import java.time.Duration;
+
+/**
+ * Limiter of the number of login attempts made for a key, such as a login or a client address, in a sliding window.
+ */
+public interface LoginRateLimiter {
+    /**
+     * Count an attempt for a key, unless the key has reached its limit.
+     *
+     * @param key the throttled key.
+     * @param limit the maximum number of attempts in a sliding window.
+     * @param window the length of the sliding window.
+     * @return {@link Duration#ZERO} if the attempt is allowed, or the delay before another attempt is allowed.
+     */
+    Duration tryAcquire(String key, int limit, Duration window);
+}
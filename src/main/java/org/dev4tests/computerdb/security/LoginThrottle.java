@@ -0,0 +1,61 @@
+package org.dev4tests.computerdb.security;
+
+import java.time.Duration;
+import java.util.Locale;
+import org.dev4tests.computerdb.config.ApplicationProperties;
+import org.dev4tests.computerdb.management.SecurityMetersService;
+import org.springframework.stereotype.Component;
+
+/**
+ * Throttle of the login attempts, limiting the attempts made for each login and from each client address before they
+ * reach the authentication manager, so that a client cannot drive an unlimited amount of password hashing and of user
+ * lookups.
+ */
+@Component
+public class LoginThrottle {
+
+    private static final String LOGIN_KEY_PREFIX = "login:";
+
+    private static final String ADDRESS_KEY_PREFIX = "address:";
+
+    private final LoginRateLimiter loginRateLimiter;
+
+    private final SecurityMetersService securityMetersService;
+
+    private final ApplicationProperties.Security.LoginThrottling properties;
+
+    public LoginThrottle(
+        LoginRateLimiter loginRateLimiter,
+        SecurityMetersService securityMetersService,
+        ApplicationProperties applicationProperties
+    ) {
+        this.loginRateLimiter = loginRateLimiter;
+        this.securityMetersService = securityMetersService;
+        this.properties = applicationProperties.getSecurity().getLoginThrottling();
+    }
+
+    /**
+     * Count a login attempt, or reject it if too many attempts were made for its login or from its address.
+     *
+     * @param login the login or email of the attempt.
+     * @param remoteAddress the address of the client.
+     * @throws LoginThrottledException if the attempt is rejected.
+     */
+    public void checkAttempt(String login, String remoteAddress) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Duration window = properties.getWindow();
+        String addressKey = ADDRESS_KEY_PREFIX + remoteAddress;
+        Duration retryAfter = loginRateLimiter.tryAcquire(addressKey, properties.getMaxAttemptsPerAddress(), window);
+        if (retryAfter.isZero() && login != null) {
+            String loginKey = LOGIN_KEY_PREFIX + login.toLowerCase(Locale.ENGLISH);
+            retryAfter = loginRateLimiter.tryAcquire(loginKey, properties.getMaxAttemptsPerLogin(), window);
+        }
+        if (!retryAfter.isZero()) {
+            securityMetersService.trackLoginAttemptRejected();
+            throw new LoginThrottledException("Too many login attempts", retryAfter);
+        }
+        securityMetersService.trackLoginAttemptAllowed();
+    }
+}
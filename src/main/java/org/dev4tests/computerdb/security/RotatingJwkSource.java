@@ -0,0 +1,275 @@
+package org.dev4tests.computerdb.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.JWKGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.JSONObjectUtils;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.text.ParseException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * {@link JWKSource} of asymmetric signing keys, rotated periodically.
+ * <p>
+ * The key set holds the current signing key, the next one, published ahead of its use so that verifiers caching the
+ * public key set know it when it starts signing, and the retired keys, kept until the tokens they signed have expired.
+ * <p>
+ * Without a key set file, keys are generated in memory: they are renewed on restart, and are not shared between
+ * instances. With a key set file, the key set is loaded on startup and written on each rotation, under a file lock: the
+ * instances sharing the file sign and verify with the same keys, the first one due to rotate the keys doing it for all.
+ */
+public class RotatingJwkSource implements JWKSource<SecurityContext> {
+
+    private static final int RSA_KEY_SIZE = 2048;
+
+    private final JWSAlgorithm algorithm;
+
+    private final Duration rotation;
+
+    private final Duration retention;
+
+    private final Clock clock;
+
+    private final Path keySetFile;
+
+    private final Lock rotationLock = new ReentrantLock();
+
+    private volatile KeyRing keyRing;
+
+    /**
+     * @param algorithm the signing algorithm, {@code RS256} or {@code ES256}.
+     * @param rotation the period after which the signing key is replaced.
+     * @param retention how long retired keys are kept to verify the tokens they signed.
+     * @param clock the clock deciding when keys are rotated.
+     */
+    public RotatingJwkSource(JWSAlgorithm algorithm, Duration rotation, Duration retention, Clock clock) {
+        this(algorithm, rotation, retention, clock, null);
+    }
+
+    /**
+     * @param algorithm the signing algorithm, {@code RS256} or {@code ES256}.
+     * @param rotation the period after which the signing key is replaced.
+     * @param retention how long retired keys are kept to verify the tokens they signed.
+     * @param clock the clock deciding when keys are rotated.
+     * @param keySetFile the file persisting the key set, shared by the instances, or {@code null} to keep it in memory.
+     */
+    public RotatingJwkSource(JWSAlgorithm algorithm, Duration rotation, Duration retention, Clock clock, Path keySetFile) {
+        if (!JWSAlgorithm.RS256.equals(algorithm) && !JWSAlgorithm.ES256.equals(algorithm)) {
+            throw new IllegalArgumentException("Unsupported signing algorithm: " + algorithm);
+        }
+        this.algorithm = algorithm;
+        this.rotation = rotation;
+        this.retention = retention;
+        this.clock = clock;
+        this.keySetFile = keySetFile;
+        Instant now = clock.instant();
+        this.keyRing = keySetFile == null ? newKeyRing(now) : updateKeySetFile(null, now);
+    }
+
+    public JWSAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Get the identifier of the key currently used to sign tokens.
+     *
+     * @return the key id.
+     */
+    public String getSigningKeyId() {
+        return currentKeyRing().current().getKeyID();
+    }
+
+    /**
+     * Get the public part of the keys, to be published to the verifiers.
+     *
+     * @return the public key set.
+     */
+    public JWKSet getPublicJwkSet() {
+        return currentKeyRing().jwkSet().toPublicJWKSet();
+    }
+
+    @Override
+    public List<JWK> get(JWKSelector jwkSelector, SecurityContext context) {
+        return jwkSelector.select(currentKeyRing().jwkSet());
+    }
+
+    private KeyRing currentKeyRing() {
+        KeyRing current = keyRing;
+        Instant now = clock.instant();
+        if (now.isBefore(current.rotationDue())) {
+            return current;
+        }
+        // A lock rather than a monitor, so that virtual threads waiting for the key generation do not pin their carriers
+        rotationLock.lock();
+        try {
+            current = keyRing;
+            if (!now.isBefore(current.rotationDue())) {
+                current = keySetFile == null ? rotate(current, now) : updateKeySetFile(current, now);
+                keyRing = current;
+            }
+            return current;
+        } finally {
+            rotationLock.unlock();
+        }
+    }
+
+    private KeyRing newKeyRing(Instant now) {
+        return new KeyRing(generateKey(), now.plus(rotation), generateKey(), List.of());
+    }
+
+    /**
+     * Read the key set file and rotate its keys if they are due, unless another instance already did.
+     *
+     * @param current the key ring in memory, used when the file is empty, or {@code null} to generate a new one.
+     * @param now the current instant.
+     * @return the key ring to use.
+     */
+    private KeyRing updateKeySetFile(KeyRing current, Instant now) {
+        try (FileChannel channel = openKeySetFile(); FileLock lock = channel.lock()) {
+            KeyRing stored = read(channel);
+            if (stored != null && now.isBefore(stored.rotationDue())) {
+                return stored;
+            }
+            KeyRing base = stored != null ? stored : current;
+            KeyRing updated = base != null ? rotate(base, now) : newKeyRing(now);
+            write(channel, updated);
+            return updated;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not update the key set file " + keySetFile, e);
+        }
+    }
+
+    private FileChannel openKeySetFile() throws IOException {
+        Set<OpenOption> options = Set.of(StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (!keySetFile.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            return FileChannel.open(keySetFile, options);
+        }
+        // The file holds the private keys
+        return FileChannel.open(keySetFile, options, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+    }
+
+    private KeyRing read(FileChannel channel) throws IOException {
+        if (channel.size() == 0) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(channel.size()));
+        while (buffer.hasRemaining() && channel.read(buffer, buffer.position()) >= 0) {
+            // Read until the end of the file
+        }
+        try {
+            Map<String, Object> json = JSONObjectUtils.parse(new String(buffer.array(), StandardCharsets.UTF_8));
+            KeyRing stored = new KeyRing(
+                JWK.parse(JSONObjectUtils.getJSONObject(json, "current")),
+                Instant.ofEpochSecond(JSONObjectUtils.getLong(json, "rotationDue")),
+                JWK.parse(JSONObjectUtils.getJSONObject(json, "next")),
+                readRetiredKeys(json)
+            );
+            if (!algorithm.equals(stored.current().getAlgorithm())) {
+                throw new IllegalStateException(
+                    "The key set file " + keySetFile + " holds " + stored.current().getAlgorithm() + " keys rather than " + algorithm
+                );
+            }
+            return stored;
+        } catch (ParseException e) {
+            throw new IllegalStateException("Could not parse the key set file " + keySetFile, e);
+        }
+    }
+
+    private static List<RetiredKey> readRetiredKeys(Map<String, Object> json) throws ParseException {
+        List<RetiredKey> retired = new ArrayList<>();
+        for (Map<String, Object> key : JSONObjectUtils.getJSONObjectArray(json, "retired")) {
+            retired.add(
+                new RetiredKey(
+                    JWK.parse(JSONObjectUtils.getJSONObject(key, "key")),
+                    Instant.ofEpochSecond(JSONObjectUtils.getLong(key, "expiresAt"))
+                )
+            );
+        }
+        return List.copyOf(retired);
+    }
+
+    private static void write(FileChannel channel, KeyRing keyRing) throws IOException {
+        Map<String, Object> json = JSONObjectUtils.newJSONObject();
+        json.put("current", keyRing.current().toJSONObject());
+        json.put("rotationDue", keyRing.rotationDue().getEpochSecond());
+        json.put("next", keyRing.next().toJSONObject());
+        json.put(
+            "retired",
+            keyRing
+                .retired()
+                .stream()
+                .map(key -> Map.of("key", key.key().toJSONObject(), "expiresAt", key.expiresAt().getEpochSecond()))
+                .toList()
+        );
+        ByteBuffer buffer = ByteBuffer.wrap(JSONObjectUtils.toJSONString(json).getBytes(StandardCharsets.UTF_8));
+        channel.truncate(0);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, buffer.position());
+        }
+        channel.force(true);
+    }
+
+    private KeyRing rotate(KeyRing current, Instant now) {
+        List<RetiredKey> retired = new ArrayList<>();
+        retired.add(new RetiredKey(current.current(), now.plus(retention)));
+        current.retired().stream().filter(key -> now.isBefore(key.expiresAt())).forEach(retired::add);
+        return new KeyRing(current.next(), now.plus(rotation), generateKey(), List.copyOf(retired));
+    }
+
+    private JWK generateKey() {
+        JWKGenerator<? extends JWK> generator = JWSAlgorithm.RS256.equals(algorithm)
+            ? new RSAKeyGenerator(RSA_KEY_SIZE)
+            : new ECKeyGenerator(Curve.P_256);
+        try {
+            return generator
+                .keyID(UUID.randomUUID().toString())
+                .keyUse(KeyUse.SIGNATURE)
+                .algorithm(algorithm)
+                .generate();
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Could not generate a " + algorithm + " signing key", e);
+        }
+    }
+
+    private record RetiredKey(JWK key, Instant expiresAt) {}
+
+    private record KeyRing(JWK current, Instant rotationDue, JWK next, List<RetiredKey> retired, JWKSet jwkSet) {
+        KeyRing(JWK current, Instant rotationDue, JWK next, List<RetiredKey> retired) {
+            this(
+                current,
+                rotationDue,
+                next,
+                retired,
+                new JWKSet(Stream.concat(Stream.of(current, next), retired.stream().map(RetiredKey::key)).toList())
+            );
+        }
+    }
+}
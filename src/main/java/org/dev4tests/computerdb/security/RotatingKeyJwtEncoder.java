@@ -0,0 +1,38 @@
+package org.dev4tests.computerdb.security;
+
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.JwtEncodingException;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+/**
+ * {@link JwtEncoder} signing tokens with the current key of a {@link RotatingJwkSource}.
+ * <p>
+ * The algorithm and the key id of the JWS header are set from the signing key, whatever the header requested.
+ */
+public class RotatingKeyJwtEncoder implements JwtEncoder {
+
+    private final RotatingJwkSource jwkSource;
+
+    private final SignatureAlgorithm signatureAlgorithm;
+
+    private final NimbusJwtEncoder delegate;
+
+    public RotatingKeyJwtEncoder(RotatingJwkSource jwkSource) {
+        this.jwkSource = jwkSource;
+        this.signatureAlgorithm = SignatureAlgorithm.from(jwkSource.getAlgorithm().getName());
+        this.delegate = new NimbusJwtEncoder(jwkSource);
+    }
+
+    @Override
+    public Jwt encode(JwtEncoderParameters parameters) throws JwtEncodingException {
+        JwsHeader.Builder header = parameters.getJwsHeader() != null
+            ? JwsHeader.from(parameters.getJwsHeader())
+            : JwsHeader.with(signatureAlgorithm);
+        header.algorithm(signatureAlgorithm).keyId(jwkSource.getSigningKeyId());
+        return delegate.encode(JwtEncoderParameters.from(header.build(), parameters.getClaims()));
+    }
+}
@@ -20,6 +20,8 @@ public final class SecurityUtils {
 
     public static final String AUTHORITIES_KEY = "auth";
 
+    public static final String USER_ID_KEY = "uid";
+
     private SecurityUtils() {}
 
     /**
@@ -45,6 +47,19 @@ public final class SecurityUtils {
         return null;
     }
 
+    /**
+     * Get the id of the current user, from the claims of its token.
+     *
+     * @return the id of the current user, empty when it is not authenticated with a token holding its id.
+     */
+    public static Optional<Long> getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof Jwt jwt && jwt.hasClaim(USER_ID_KEY)) {
+            return Optional.of(((Number) jwt.getClaim(USER_ID_KEY)).longValue());
+        }
+        return Optional.empty();
+    }
+
     /**
      * Get the JWT of the current user.
      *
@@ -0,0 +1,60 @@
+package org.dev4tests.computerdb.security;
+
+import java.io.Serializable;
+
+/**
+ * Immutable count of the attempts made in the current and in the previous fixed windows, estimating the number of
+ * attempts made in the sliding window ending now.
+ * <p>
+ * The attempts of the previous window are weighted by the part of the sliding window that overlaps it, which
+ * approximates a sliding log while keeping only two counts per key.
+ *
+ * @param windowStart the start of the current window, in milliseconds.
+ * @param previous the number of attempts counted in the previous window.
+ * @param current the number of attempts counted in the current window.
+ */
+public record SlidingWindowCounter(long windowStart, long previous, long current) implements Serializable {
+    /**
+     * Move the windows so that the current one contains a time.
+     *
+     * @param now the time, in milliseconds.
+     * @param window the length of the windows, in milliseconds.
+     * @return the counter with its current window containing {@code now}.
+     */
+    public SlidingWindowCounter slide(long now, long window) {
+        if (now < windowStart + window) {
+            return this;
+        }
+        long nowWindowStart = now - Math.floorMod(now, window);
+        return new SlidingWindowCounter(nowWindowStart, nowWindowStart == windowStart + window ? current : 0, 0);
+    }
+
+    /**
+     * Get the delay before another attempt is allowed.
+     *
+     * @param now the time, in milliseconds, within the current window.
+     * @param window the length of the windows, in milliseconds.
+     * @param limit the maximum number of attempts in a sliding window.
+     * @return {@code 0} if an attempt is allowed now, or the delay in milliseconds before an attempt is allowed.
+     */
+    public long retryAfter(long now, long window, int limit) {
+        long elapsed = now - windowStart;
+        if (previous * (double) (window - elapsed) / window + current < limit) {
+            return 0;
+        }
+        if (current >= limit) {
+            // Once the current window is the previous one, its attempts weigh less and less
+            return windowStart + window + (long) (window * (1 - (double) limit / current)) + 1 - now;
+        }
+        return Math.max(1, windowStart + (long) (window * (1 - (double) (limit - current) / previous)) + 1 - now);
+    }
+
+    /**
+     * Count an attempt in the current window.
+     *
+     * @return the counter with one more attempt.
+     */
+    public SlidingWindowCounter increment() {
+        return new SlidingWindowCounter(windowStart, previous, current + 1);
+    }
+}
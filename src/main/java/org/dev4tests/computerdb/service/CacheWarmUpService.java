@@ -0,0 +1,151 @@
+package org.dev4tests.computerdb.service;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.dev4tests.computerdb.config.ApplicationProperties;
+import org.dev4tests.computerdb.domain.User;
+import org.dev4tests.computerdb.repository.AuthorityRepository;
+import org.dev4tests.computerdb.repository.UserKeyFilter;
+import org.dev4tests.computerdb.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service filling the user and authority caches at startup, so that the first logins after a deployment do not all
+ * go to the database.
+ * <p>
+ * The most recently modified activated users are loaded by chunks on a few threads, which fills the {@link User}
+ * entity cache as well as the {@link UserRepository#USERS_BY_LOGIN_CACHE} and {@link UserRepository#USERS_BY_EMAIL_CACHE}
+ * caches, all the authorities are loaded into their entity cache, and the {@link UserKeyFilter} is built.
+ * <p>
+ * The warm-up runs as an {@link ApplicationRunner}: Spring Boot only switches the readiness state to accepting traffic
+ * once the runners have completed, so the {@code readinessState} probe stays down until the caches are filled, or
+ * until the timeout elapsed.
+ */
+@Service
+public class CacheWarmUpService implements ApplicationRunner {
+
+    private final Logger log = LoggerFactory.getLogger(CacheWarmUpService.class);
+
+    private final UserRepository userRepository;
+
+    private final AuthorityRepository authorityRepository;
+
+    private final UserKeyFilter userKeyFilter;
+
+    private final CacheManager cacheManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties.Cache.WarmUp warmUp;
+
+    public CacheWarmUpService(
+        UserRepository userRepository,
+        AuthorityRepository authorityRepository,
+        UserKeyFilter userKeyFilter,
+        CacheManager cacheManager,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties
+    ) {
+        this.userRepository = userRepository;
+        this.authorityRepository = authorityRepository;
+        this.userKeyFilter = userKeyFilter;
+        this.cacheManager = cacheManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.warmUp = applicationProperties.getCache().getWarmUp();
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (warmUp.isEnabled()) {
+            warmUp();
+        }
+    }
+
+    /**
+     * Fill the user and authority caches, waiting at most the configured timeout.
+     *
+     * @return whether the caches were filled before the timeout.
+     */
+    public boolean warmUp() {
+        long start = System.nanoTime();
+        AtomicInteger loadedUsers = new AtomicInteger();
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("cache-warm-up-");
+        threadFactory.setDaemon(true);
+        ExecutorService executor = Executors.newFixedThreadPool(warmUp.getThreads(), threadFactory);
+        try {
+            CompletableFuture<Void> authorities = CompletableFuture.runAsync(authorityRepository::findAll, executor);
+            CompletableFuture<Void> userKeys = CompletableFuture.runAsync(userKeyFilter::rebuild, executor);
+            CompletableFuture<Void> users = CompletableFuture
+                .supplyAsync(this::findRecentUserIds, executor)
+                .thenCompose(ids ->
+                    CompletableFuture.allOf(
+                        chunks(ids)
+                            .map(chunk -> CompletableFuture.runAsync(() -> loadedUsers.addAndGet(loadUsers(chunk)), executor))
+                            .toArray(CompletableFuture[]::new)
+                    )
+                );
+            CompletableFuture.allOf(authorities, userKeys, users).get(warmUp.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            log.info(
+                "Warmed up the caches with {} users in {} ms",
+                loadedUsers.get(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)
+            );
+            return true;
+        } catch (TimeoutException e) {
+            log.warn("Cache warm-up timed out after {}, {} users were loaded", warmUp.getTimeout(), loadedUsers.get());
+            return false;
+        } catch (ExecutionException e) {
+            log.warn("Cache warm-up failed, {} users were loaded", loadedUsers.get(), e.getCause());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<Long> findRecentUserIds() {
+        return userRepository.findIdsOfActivatedUsersByLastModifiedDateDesc(PageRequest.of(0, warmUp.getUsers()));
+    }
+
+    private Stream<List<Long>> chunks(List<Long> ids) {
+        int chunkSize = warmUp.getChunkSize();
+        return IntStream
+            .range(0, (ids.size() + chunkSize - 1) / chunkSize)
+            .mapToObj(i -> ids.subList(i * chunkSize, Math.min(ids.size(), (i + 1) * chunkSize)));
+    }
+
+    private int loadUsers(List<Long> ids) {
+        Cache usersByLogin = Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE));
+        Cache usersByEmail = Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE));
+        List<User> users = transactionTemplate.execute(status -> userRepository.findAllWithAuthoritiesByIdIn(ids));
+        for (User user : Objects.requireNonNull(users)) {
+            usersByLogin.putIfAbsent(user.getLogin(), user);
+            if (user.getEmail() != null) {
+                usersByEmail.putIfAbsent(user.getEmail(), user);
+            }
+        }
+        return users.size();
+    }
+}
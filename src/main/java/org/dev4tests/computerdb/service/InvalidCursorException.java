@@ -0,0 +1,10 @@
+package org.dev4tests.computerdb.service;
+
+public class InvalidCursorException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidCursorException() {
+        super("Invalid pagination cursor!");
+    }
+}
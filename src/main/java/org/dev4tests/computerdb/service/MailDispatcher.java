@@ -0,0 +1,221 @@
+package org.dev4tests.computerdb.service;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.dev4tests.computerdb.config.ApplicationProperties;
+import org.dev4tests.computerdb.domain.MailOutboxMessage;
+import org.dev4tests.computerdb.domain.enumeration.MailOutboxStatus;
+import org.dev4tests.computerdb.repository.MailOutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Service sending the emails queued in the outbox by {@link MailService}.
+ * <p>
+ * Each poll claims a batch of due messages: they are locked with {@code SKIP LOCKED}, so that several instances share
+ * the outbox, and leased by pushing back their next attempt date. The batch is split between the configured number of
+ * connections, each connection sending its share through a single SMTP session, on platform threads since JavaMail
+ * holds monitors during the SMTP exchanges. Failed messages are retried with an exponential backoff, and given up
+ * after the maximum number of attempts. A message whose instance died while sending it is sent again once its lease
+ * expired, so emails are delivered at least once.
+ */
+@Service
+public class MailDispatcher implements DisposableBean {
+
+    private final Logger log = LoggerFactory.getLogger(MailDispatcher.class);
+
+    private static final int MAX_ERROR_LENGTH = 1024;
+
+    private final MailOutboxRepository mailOutboxRepository;
+
+    private final JavaMailSender javaMailSender;
+
+    private final JHipsterProperties jHipsterProperties;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties.MailOutbox mailOutbox;
+
+    private final ExecutorService executor;
+
+    public MailDispatcher(
+        MailOutboxRepository mailOutboxRepository,
+        JavaMailSender javaMailSender,
+        JHipsterProperties jHipsterProperties,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties
+    ) {
+        this.mailOutboxRepository = mailOutboxRepository;
+        this.javaMailSender = javaMailSender;
+        this.jHipsterProperties = jHipsterProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.mailOutbox = applicationProperties.getMailOutbox();
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("mail-dispatcher-");
+        threadFactory.setDaemon(true);
+        this.executor = Executors.newFixedThreadPool(mailOutbox.getConnections(), threadFactory);
+    }
+
+    /**
+     * Send the due messages of the outbox, batch after batch until there is no more due message.
+     * <p>
+     * This is scheduled to run every {@code application.mail-outbox.poll-interval}.
+     */
+    @Scheduled(
+        initialDelayString = "${application.mail-outbox.poll-interval:PT1S}",
+        fixedDelayString = "${application.mail-outbox.poll-interval:PT1S}"
+    )
+    public void dispatch() {
+        int claimed;
+        do {
+            List<MailOutboxMessage> batch = claim();
+            claimed = batch.size();
+            if (!batch.isEmpty()) {
+                send(batch);
+                transactionTemplate.executeWithoutResult(status -> mailOutboxRepository.saveAll(batch));
+            }
+        } while (claimed == mailOutbox.getBatchSize());
+    }
+
+    /**
+     * Delete the sent and given up messages older than {@code application.mail-outbox.retention}.
+     * <p>
+     * This is scheduled to get fired every day, at 02:00 (am).
+     */
+    @Scheduled(cron = "0 0 2 * * ?")
+    public void removeOldMessages() {
+        Instant before = Instant.now().minus(mailOutbox.getRetention());
+        Integer deleted = transactionTemplate.execute(status ->
+            mailOutboxRepository.deleteByStatusInAndCreatedDateBefore(EnumSet.of(MailOutboxStatus.SENT, MailOutboxStatus.FAILED), before)
+        );
+        log.debug("Deleted {} sent or failed emails from the outbox", deleted);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private List<MailOutboxMessage> claim() {
+        return Objects.requireNonNull(
+            transactionTemplate.execute(status -> {
+                Instant now = Instant.now();
+                List<MailOutboxMessage> due = mailOutboxRepository.findDueForUpdate(now, PageRequest.of(0, mailOutbox.getBatchSize()));
+                for (MailOutboxMessage message : due) {
+                    message.setAttempts(message.getAttempts() + 1);
+                    message.setNextAttemptDate(now.plus(mailOutbox.getLease()));
+                }
+                return due;
+            })
+        );
+    }
+
+    private void send(List<MailOutboxMessage> batch) {
+        int connections = Math.min(mailOutbox.getConnections(), batch.size());
+        int share = (batch.size() + connections - 1) / connections;
+        List<CompletableFuture<Void>> futures = new ArrayList<>(connections);
+        for (int from = 0; from < batch.size(); from += share) {
+            List<MailOutboxMessage> messages = batch.subList(from, Math.min(batch.size(), from + share));
+            futures.add(CompletableFuture.runAsync(() -> sendOverOneConnection(messages), executor));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+    }
+
+    private void sendOverOneConnection(List<MailOutboxMessage> messages) {
+        List<MailOutboxMessage> prepared = new ArrayList<>(messages.size());
+        List<MimeMessage> mimeMessages = new ArrayList<>(messages.size());
+        for (MailOutboxMessage message : messages) {
+            try {
+                mimeMessages.add(toMimeMessage(message));
+                prepared.add(message);
+            } catch (MessagingException e) {
+                failed(message, e);
+            }
+        }
+        if (mimeMessages.isEmpty()) {
+            return;
+        }
+        Map<Object, Exception> failedMessages = Collections.emptyMap();
+        try {
+            javaMailSender.send(mimeMessages.toArray(MimeMessage[]::new));
+        } catch (MailSendException e) {
+            failedMessages = e.getFailedMessages();
+            if (failedMessages.isEmpty()) {
+                prepared.forEach(message -> failed(message, e));
+                return;
+            }
+        } catch (MailException e) {
+            prepared.forEach(message -> failed(message, e));
+            return;
+        }
+        Instant now = Instant.now();
+        for (int i = 0; i < prepared.size(); i++) {
+            Exception failure = failedMessages.get(mimeMessages.get(i));
+            if (failure == null) {
+                sent(prepared.get(i), now);
+            } else {
+                failed(prepared.get(i), failure);
+            }
+        }
+    }
+
+    private MimeMessage toMimeMessage(MailOutboxMessage message) throws MessagingException {
+        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, message.isMultipart(), StandardCharsets.UTF_8.name());
+        helper.setTo(message.getRecipient());
+        helper.setFrom(jHipsterProperties.getMail().getFrom());
+        helper.setSubject(message.getSubject());
+        helper.setText(message.getContent(), message.isHtml());
+        return mimeMessage;
+    }
+
+    private void sent(MailOutboxMessage message, Instant now) {
+        log.debug("Sent email to User '{}'", message.getRecipient());
+        message.setStatus(MailOutboxStatus.SENT);
+        message.setSentDate(now);
+        message.setDedupeKey(null);
+        message.setLastError(null);
+    }
+
+    private void failed(MailOutboxMessage message, Exception e) {
+        String error = String.valueOf(e.getMessage());
+        message.setLastError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+        if (message.getAttempts() >= mailOutbox.getMaxAttempts()) {
+            log.warn("Email could not be sent to user '{}' after {} attempts", message.getRecipient(), message.getAttempts(), e);
+            message.setStatus(MailOutboxStatus.FAILED);
+            message.setDedupeKey(null);
+        } else {
+            Duration backoff = backoff(message.getAttempts());
+            log.debug("Email could not be sent to user '{}', retrying in {}: {}", message.getRecipient(), backoff, error);
+            message.setNextAttemptDate(Instant.now().plus(backoff));
+        }
+    }
+
+    private Duration backoff(int attempts) {
+        Duration backoff = mailOutbox.getInitialBackoff().multipliedBy(1L << Math.min(attempts - 1, 30));
+        return backoff.compareTo(mailOutbox.getMaxBackoff()) > 0 ? mailOutbox.getMaxBackoff() : backoff;
+    }
+}
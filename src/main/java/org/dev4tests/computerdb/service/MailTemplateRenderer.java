@@ -0,0 +1,185 @@
+package org.dev4tests.computerdb.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.dev4tests.computerdb.domain.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.thymeleaf.ThymeleafProperties;
+import org.springframework.context.MessageSource;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.unbescape.html.HtmlEscape;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Renders the mail templates, which only depend on the locale and on a few properties of the user.
+ * <p>
+ * The first time a template is rendered for a locale, it is processed by Thymeleaf for a probe user whose properties
+ * are unique markers, and the output is split around the markers into static fragments, with the messages and the
+ * base URL already resolved. The next renderings only concatenate the fragments with the HTML-escaped properties of
+ * the user, like {@code th:text} and the attribute processors would. The template is processed a second time with
+ * other markers to check that the properties are output as they are: a template transforming them, for instance with
+ * {@code #strings}, is processed by Thymeleaf every time. Conditions on the properties, such as a {@code th:if}
+ * comparing them with a constant, are not detected and must not be used in mail templates.
+ * <p>
+ * The subjects are cached per key and locale too. Nothing is cached when the Thymeleaf cache is disabled, so that
+ * templates and messages can be edited in development.
+ */
+@Component
+public class MailTemplateRenderer {
+
+    private final Logger log = LoggerFactory.getLogger(MailTemplateRenderer.class);
+
+    private static final String USER = "user";
+
+    private static final String BASE_URL = "baseUrl";
+
+    // Properties of the user which may differ between the emails of a template
+    private static final List<UserProperty> USER_PROPERTIES = List.of(
+        new UserProperty(User::getLogin, User::setLogin),
+        new UserProperty(User::getFirstName, User::setFirstName),
+        new UserProperty(User::getLastName, User::setLastName),
+        new UserProperty(User::getEmail, User::setEmail),
+        new UserProperty(User::getImageUrl, User::setImageUrl),
+        new UserProperty(User::getActivationKey, User::setActivationKey),
+        new UserProperty(User::getResetKey, User::setResetKey)
+    );
+
+    // Lower-case, as the login is, and left untouched by the HTML and URL escaping
+    private static final String MARKER_PREFIX = "mailmarker" + UUID.randomUUID().toString().replace("-", "");
+
+    private static final Pattern MARKER = Pattern.compile(MARKER_PREFIX + "a(\\d+)z");
+
+    private final SpringTemplateEngine templateEngine;
+
+    private final MessageSource messageSource;
+
+    private final JHipsterProperties jHipsterProperties;
+
+    private final boolean cache;
+
+    private final Map<TemplateKey, Optional<CompiledTemplate>> templates = new ConcurrentHashMap<>();
+
+    private final Map<TemplateKey, String> subjects = new ConcurrentHashMap<>();
+
+    public MailTemplateRenderer(
+        SpringTemplateEngine templateEngine,
+        MessageSource messageSource,
+        JHipsterProperties jHipsterProperties,
+        ThymeleafProperties thymeleafProperties
+    ) {
+        this.templateEngine = templateEngine;
+        this.messageSource = messageSource;
+        this.jHipsterProperties = jHipsterProperties;
+        this.cache = thymeleafProperties.isCache();
+    }
+
+    /**
+     * Render a mail template for a user.
+     *
+     * @param templateName the name of the template.
+     * @param user the user the email is sent to.
+     * @param locale the locale of the email.
+     * @return the content of the email.
+     */
+    public String renderContent(String templateName, User user, Locale locale) {
+        if (!cache) {
+            return process(templateName, user, locale);
+        }
+        return templates
+            .computeIfAbsent(new TemplateKey(templateName, locale), this::compile)
+            .map(template -> template.render(user))
+            .orElseGet(() -> process(templateName, user, locale));
+    }
+
+    /**
+     * Resolve the subject of an email.
+     *
+     * @param titleKey the key of the subject in the messages.
+     * @param locale the locale of the email.
+     * @return the subject of the email.
+     */
+    public String renderSubject(String titleKey, Locale locale) {
+        if (!cache) {
+            return messageSource.getMessage(titleKey, null, locale);
+        }
+        return subjects.computeIfAbsent(new TemplateKey(titleKey, locale), key -> messageSource.getMessage(titleKey, null, locale));
+    }
+
+    private String process(String templateName, User user, Locale locale) {
+        Context context = new Context(locale);
+        context.setVariable(USER, user);
+        context.setVariable(BASE_URL, jHipsterProperties.getMail().getBaseUrl());
+        return templateEngine.process(templateName, context);
+    }
+
+    private Optional<CompiledTemplate> compile(TemplateKey key) {
+        CompiledTemplate template = CompiledTemplate.parse(process(key.name(), probe('a', key.locale()), key.locale()));
+        User otherProbe = probe('b', key.locale());
+        if (!template.render(otherProbe).equals(process(key.name(), otherProbe, key.locale()))) {
+            log.debug("Mail template '{}' depends on the values of the user properties, it is not cached", key.name());
+            return Optional.empty();
+        }
+        return Optional.of(template);
+    }
+
+    private static User probe(char probe, Locale locale) {
+        User user = new User();
+        user.setLangKey(locale.toLanguageTag());
+        for (int i = 0; i < USER_PROPERTIES.size(); i++) {
+            USER_PROPERTIES.get(i).setter().accept(user, MARKER_PREFIX + probe + i + "z");
+        }
+        return user;
+    }
+
+    private record UserProperty(Function<User, String> getter, BiConsumer<User, String> setter) {}
+
+    private record TemplateKey(String name, Locale locale) {}
+
+    /**
+     * The static fragments of a rendered template, between which the user properties are inserted.
+     */
+    private record CompiledTemplate(String[] fragments, int[] properties, int length) {
+        static CompiledTemplate parse(String rendered) {
+            List<String> fragments = new ArrayList<>();
+            List<Integer> properties = new ArrayList<>();
+            Matcher matcher = MARKER.matcher(rendered);
+            int start = 0;
+            while (matcher.find()) {
+                fragments.add(rendered.substring(start, matcher.start()));
+                properties.add(Integer.parseInt(matcher.group(1)));
+                start = matcher.end();
+            }
+            fragments.add(rendered.substring(start));
+            return new CompiledTemplate(
+                fragments.toArray(String[]::new),
+                properties.stream().mapToInt(Integer::intValue).toArray(),
+                fragments.stream().mapToInt(String::length).sum()
+            );
+        }
+
+        String render(User user) {
+            StringBuilder content = new StringBuilder(length + 32 * properties.length);
+            content.append(fragments[0]);
+            for (int i = 0; i < properties.length; i++) {
+                String value = USER_PROPERTIES.get(properties[i]).getter().apply(user);
+                if (value != null) {
+                    content.append(HtmlEscape.escapeHtml4Xml(value));
+                }
+                content.append(fragments[i + 1]);
+            }
+            return content.toString();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package org.dev4tests.computerdb.service;
+
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Service keeping a version of the user profiles, so that a client holding the current version of a profile can be
+ * answered without loading it.
+ * <p>
+ * Versions are kept in the {@link #PROFILE_VERSIONS_CACHE} cache, and are evicted like the other user caches: a profile
+ * gets a new version when it is changed, and when its version has been evicted. Versions are random, so that a version
+ * given before a restart, or by another instance, is not given again.
+ */
+@Service
+public class ProfileVersionService {
+
+    public static final String PROFILE_VERSIONS_CACHE = "profileVersions";
+
+    private final CacheManager cacheManager;
+
+    public ProfileVersionService(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Get the current version of the profile of a user.
+     *
+     * @param userId the id of the user.
+     * @return the version of its profile.
+     */
+    public long getVersion(Long userId) {
+        Cache versions = getVersionsCache();
+        Long version = versions.get(userId, Long.class);
+        if (version != null) {
+            return version;
+        }
+        long newVersion = ThreadLocalRandom.current().nextLong();
+        Cache.ValueWrapper existingVersion = versions.putIfAbsent(userId, newVersion);
+        return existingVersion != null && existingVersion.get() != null ? (Long) existingVersion.get() : newVersion;
+    }
+
+    /**
+     * Give a new version to the profile of a user, and again once the current transaction completes, so that a version
+     * given while the transaction runs is not kept for the changed profile.
+     *
+     * @param userId the id of the changed user.
+     */
+    public void profileChanged(Long userId) {
+        Cache versions = getVersionsCache();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        versions.evict(userId);
+                    }
+                }
+            );
+        }
+        versions.evict(userId);
+    }
+
+    private Cache getVersionsCache() {
+        return Objects.requireNonNull(cacheManager.getCache(PROFILE_VERSIONS_CACHE));
+    }
+}
@@ -0,0 +1,98 @@
+package org.dev4tests.computerdb.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import org.dev4tests.computerdb.repository.UserRepository;
+import org.dev4tests.computerdb.repository.UserStatisticsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service providing approximate user counts, so that paginated listings do not need to count the users on each request.
+ * <p>
+ * The counts are computed in the background when the application starts, then refreshed periodically. A request made
+ * before the first computation waits for it, rather than counting the users itself.
+ */
+@Service
+public class UserCountService {
+
+    private static final long UNKNOWN = -1;
+
+    private final Logger log = LoggerFactory.getLogger(UserCountService.class);
+
+    private final UserStatisticsRepository userStatisticsRepository;
+
+    private final UserRepository userRepository;
+
+    private final AtomicLong managedUsers = new AtomicLong(UNKNOWN);
+
+    private final AtomicLong publicUsers = new AtomicLong(UNKNOWN);
+
+    private final Lock refreshLock = new ReentrantLock();
+
+    public UserCountService(UserStatisticsRepository userStatisticsRepository, UserRepository userRepository) {
+        this.userStatisticsRepository = userStatisticsRepository;
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Get the approximate number of users.
+     *
+     * @return the approximate number of users.
+     */
+    public long getApproximateManagedUserCount() {
+        return getOrRefresh(managedUsers);
+    }
+
+    /**
+     * Get the approximate number of activated users.
+     *
+     * @return the approximate number of activated users.
+     */
+    public long getApproximatePublicUserCount() {
+        return getOrRefresh(publicUsers);
+    }
+
+    /**
+     * Refresh the approximate counts: the total comes from the table statistics, and the activated users
+     * are counted out of the request path.
+     */
+    @Scheduled(
+        initialDelayString = "PT0S",
+        fixedDelayString = "${application.pagination.approximate-count-refresh:PT5M}"
+    )
+    public void refreshApproximateCounts() {
+        refreshLock.lock();
+        try {
+            doRefresh();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private void doRefresh() {
+        managedUsers.set(userStatisticsRepository.estimateUserCount());
+        publicUsers.set(userRepository.countByActivatedIsTrue());
+        log.debug("Refreshed approximate user counts: {} users, {} activated", managedUsers.get(), publicUsers.get());
+    }
+
+    private long getOrRefresh(AtomicLong count) {
+        long value = count.get();
+        if (value != UNKNOWN) {
+            return value;
+        }
+        refreshLock.lock();
+        try {
+            // The counts are computed once, by the startup refresh or the first of the concurrent requests
+            if (count.get() == UNKNOWN) {
+                doRefresh();
+            }
+        } finally {
+            refreshLock.unlock();
+        }
+        return count.get();
+    }
+}
@@ -0,0 +1,71 @@
+package org.dev4tests.computerdb.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reading and writing of the CSV lines used to import and export users.
+ * <p>
+ * Fields are separated by commas and may be quoted with double quotes, a quote inside a quoted field being doubled.
+ * Fields cannot span several lines.
+ */
+final class UserCsvSupport {
+
+    static final String AUTHORITIES_SEPARATOR = "|";
+
+    private static final char SEPARATOR = ',';
+
+    private static final char QUOTE = '"';
+
+    private UserCsvSupport() {}
+
+    static List<String> parseLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != QUOTE) {
+                    value.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == QUOTE) {
+                    value.append(QUOTE);
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == QUOTE) {
+                quoted = true;
+            } else if (c == SEPARATOR) {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    static String formatLine(List<String> values) {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                line.append(SEPARATOR);
+            }
+            String value = values.get(i);
+            if (value == null) {
+                continue;
+            }
+            if (value.indexOf(SEPARATOR) >= 0 || value.indexOf(QUOTE) >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                line.append(QUOTE).append(value.replace("\"", "\"\"")).append(QUOTE);
+            } else {
+                line.append(value);
+            }
+        }
+        return line.toString();
+    }
+}
@@ -0,0 +1,126 @@
+package org.dev4tests.computerdb.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.dev4tests.computerdb.domain.Authority;
+import org.dev4tests.computerdb.domain.User;
+import org.dev4tests.computerdb.repository.UserRepository;
+import org.dev4tests.computerdb.service.dto.AdminUserDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service class for exporting all the users.
+ * <p>
+ * Users are streamed from the database and written one by one, then detached from the persistence context,
+ * so memory use does not grow with the number of users.
+ */
+@Service
+public class UserExportService {
+
+    private static final List<String> CSV_COLUMNS = List.of(
+        "id",
+        "login",
+        "firstName",
+        "lastName",
+        "email",
+        "imageUrl",
+        "activated",
+        "langKey",
+        "createdBy",
+        "createdDate",
+        "lastModifiedBy",
+        "lastModifiedDate",
+        "authorities"
+    );
+
+    private final Logger log = LoggerFactory.getLogger(UserExportService.class);
+
+    private final UserRepository userRepository;
+
+    private final EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+
+    public UserExportService(UserRepository userRepository, EntityManager entityManager, ObjectMapper objectMapper) {
+        this.userRepository = userRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Write all the users, one per line.
+     *
+     * @param out the stream to write the users to.
+     * @param format the format of the lines.
+     * @throws IOException if the users cannot be written.
+     */
+    @Transactional(readOnly = true)
+    public void exportUsers(OutputStream out, UserFileFormat format) throws IOException {
+        log.debug("Exporting all users as {}", format);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == UserFileFormat.CSV) {
+            writer.write(UserCsvSupport.formatLine(CSV_COLUMNS));
+            writer.write('\n');
+        }
+        try (Stream<User> users = userRepository.streamAllWithAuthorities()) {
+            users.forEach(user -> {
+                write(writer, user, format);
+                entityManager.detach(user);
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private void write(Writer writer, User user, UserFileFormat format) {
+        try {
+            if (format == UserFileFormat.NDJSON) {
+                writer.write(objectMapper.writeValueAsString(new AdminUserDTO(user)));
+            } else {
+                writer.write(UserCsvSupport.formatLine(toCsv(user)));
+            }
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<String> toCsv(User user) {
+        return Arrays.asList(
+            Objects.toString(user.getId(), null),
+            user.getLogin(),
+            user.getFirstName(),
+            user.getLastName(),
+            user.getEmail(),
+            user.getImageUrl(),
+            Boolean.toString(user.isActivated()),
+            user.getLangKey(),
+            user.getCreatedBy(),
+            Objects.toString(user.getCreatedDate(), null),
+            user.getLastModifiedBy(),
+            Objects.toString(user.getLastModifiedDate(), null),
+            user
+                .getAuthorities()
+                .stream()
+                .map(Authority::getName)
+                .sorted()
+                .collect(Collectors.joining(UserCsvSupport.AUTHORITIES_SEPARATOR))
+        );
+    }
+}
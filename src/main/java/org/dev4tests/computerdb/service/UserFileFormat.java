@@ -0,0 +1,16 @@
+package org.dev4tests.computerdb.service;
+
+/**
+ * Formats of the files used to import and export users, with one user per line.
+ */
+public enum UserFileFormat {
+    /**
+     * One JSON object per line.
+     */
+    NDJSON,
+
+    /**
+     * Comma-separated values, after a header line naming the columns.
+     */
+    CSV,
+}
@@ -0,0 +1,314 @@
+package org.dev4tests.computerdb.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import org.dev4tests.computerdb.config.ApplicationProperties;
+import org.dev4tests.computerdb.config.Constants;
+import org.dev4tests.computerdb.domain.Authority;
+import org.dev4tests.computerdb.domain.User;
+import org.dev4tests.computerdb.repository.AuthorityRepository;
+import org.dev4tests.computerdb.repository.UserRepository;
+import org.dev4tests.computerdb.service.dto.AdminUserDTO;
+import org.dev4tests.computerdb.service.dto.UserImportResultDTO;
+import org.dev4tests.computerdb.service.dto.UserImportResultDTO.Status;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import tech.jhipster.security.RandomUtil;
+
+/**
+ * Service class for importing users in bulk.
+ * <p>
+ * Users are read and created by chunks, each chunk in its own transaction: uniqueness is checked against the whole
+ * chunk with set-based queries, and the users are inserted with the JDBC batching configured for Hibernate.
+ * Each user is given a random password and a reset key, like users created one by one.
+ */
+@Service
+public class UserImportService {
+
+    private final Logger log = LoggerFactory.getLogger(UserImportService.class);
+
+    private final UserRepository userRepository;
+
+    private final AuthorityRepository authorityRepository;
+
+    private final PasswordEncoder passwordEncoder;
+
+    private final MailService mailService;
+
+    private final CacheManager cacheManager;
+
+    private final Validator validator;
+
+    private final ObjectMapper objectMapper;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int chunkSize;
+
+    public UserImportService(
+        UserRepository userRepository,
+        AuthorityRepository authorityRepository,
+        PasswordEncoder passwordEncoder,
+        MailService mailService,
+        CacheManager cacheManager,
+        Validator validator,
+        ObjectMapper objectMapper,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties
+    ) {
+        this.userRepository = userRepository;
+        this.authorityRepository = authorityRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.mailService = mailService;
+        this.cacheManager = cacheManager;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = applicationProperties.getUserImport().getChunkSize();
+    }
+
+    /**
+     * Import users, reporting the outcome of each line as soon as its chunk is processed.
+     *
+     * @param input the users to import, one per line.
+     * @param format the format of the lines.
+     * @param sendEmails whether to send a creation email to the created users.
+     * @param resultConsumer receives the results of each chunk, in the order of the lines.
+     * @throws IOException if the input cannot be read.
+     */
+    public void importUsers(
+        InputStream input,
+        UserFileFormat format,
+        boolean sendEmails,
+        Consumer<List<UserImportResultDTO>> resultConsumer
+    ) throws IOException {
+        Map<String, Authority> authorities = authorityRepository
+            .findAll()
+            .stream()
+            .collect(Collectors.toMap(Authority::getName, Function.identity()));
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        List<String> csvHeader = null;
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == UserFileFormat.CSV && csvHeader == null) {
+                csvHeader = UserCsvSupport.parseLine(line.trim());
+                continue;
+            }
+            chunk.add(parse(lineNumber, line, format, csvHeader));
+            if (chunk.size() == chunkSize) {
+                resultConsumer.accept(importChunk(chunk, authorities, sendEmails));
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            resultConsumer.accept(importChunk(chunk, authorities, sendEmails));
+        }
+    }
+
+    private ImportRow parse(long lineNumber, String line, UserFileFormat format, List<String> csvHeader) {
+        try {
+            AdminUserDTO userDTO = format == UserFileFormat.NDJSON
+                ? objectMapper.readValue(line, AdminUserDTO.class)
+                : fromCsv(line, csvHeader);
+            return new ImportRow(lineNumber, userDTO, null);
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            return new ImportRow(lineNumber, null, "Unreadable line: " + e.getMessage());
+        }
+    }
+
+    private AdminUserDTO fromCsv(String line, List<String> header) {
+        List<String> values = UserCsvSupport.parseLine(line);
+        if (values.size() != header.size()) {
+            throw new IllegalArgumentException("expected " + header.size() + " fields but found " + values.size());
+        }
+        AdminUserDTO userDTO = new AdminUserDTO();
+        for (int i = 0; i < header.size(); i++) {
+            String value = values.get(i).isEmpty() ? null : values.get(i);
+            switch (header.get(i)) {
+                case "login" -> userDTO.setLogin(value);
+                case "firstName" -> userDTO.setFirstName(value);
+                case "lastName" -> userDTO.setLastName(value);
+                case "email" -> userDTO.setEmail(value);
+                case "imageUrl" -> userDTO.setImageUrl(value);
+                case "langKey" -> userDTO.setLangKey(value);
+                case "authorities" -> userDTO.setAuthorities(
+                    value == null ? null : Set.of(value.split(Pattern.quote(UserCsvSupport.AUTHORITIES_SEPARATOR)))
+                );
+                default -> {
+                    // Other columns, such as the ones of an export, are not imported
+                }
+            }
+        }
+        return userDTO;
+    }
+
+    private List<UserImportResultDTO> importChunk(List<ImportRow> chunk, Map<String, Authority> authorities, boolean sendEmails) {
+        validate(chunk);
+        List<ImportRow> valid = chunk.stream().filter(ImportRow::isValid).toList();
+        List<User> created = new ArrayList<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> created.addAll(insert(valid, authorities)));
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Could not import a chunk of {} users: {}", valid.size(), e.getMessage());
+            valid.forEach(row -> row.fail(Status.FAILED, "Could not save the user: " + e.getMostSpecificCause().getMessage()));
+            created.clear();
+        }
+        clearUserCaches(created);
+        if (sendEmails) {
+            created.forEach(mailService::sendCreationEmail);
+        }
+        log.debug("Imported {} users out of {} lines", created.size(), chunk.size());
+        return chunk.stream().map(ImportRow::toResult).toList();
+    }
+
+    private void validate(List<ImportRow> chunk) {
+        Set<String> logins = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        for (ImportRow row : chunk) {
+            if (!row.isValid()) {
+                continue;
+            }
+            Set<ConstraintViolation<AdminUserDTO>> violations = validator.validate(row.userDTO);
+            if (!violations.isEmpty()) {
+                violations.stream().map(v -> v.getPropertyPath() + ": " + v.getMessage()).sorted().forEach(row.errors::add);
+                continue;
+            }
+            row.login = row.userDTO.getLogin().toLowerCase();
+            row.email = row.userDTO.getEmail() == null ? null : row.userDTO.getEmail().toLowerCase();
+            if (!logins.add(row.login)) {
+                row.errors.add("Login name already used in the import!");
+            }
+            if (row.email != null && !emails.add(row.email)) {
+                row.errors.add("Email is already used in the import!");
+            }
+        }
+        if (logins.isEmpty()) {
+            return;
+        }
+        Set<String> existingLogins = userRepository.findAllLoginsByLoginIn(logins);
+        Set<String> existingEmails = emails.isEmpty() ? Set.of() : userRepository.findAllEmailsByEmailIn(emails);
+        for (ImportRow row : chunk) {
+            if (row.isValid() && existingLogins.contains(row.login)) {
+                row.errors.add("Login name already used!");
+            }
+            if (row.isValid() && row.email != null && existingEmails.contains(row.email)) {
+                row.errors.add("Email is already in use!");
+            }
+        }
+    }
+
+    private List<User> insert(List<ImportRow> rows, Map<String, Authority> authorities) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        // The password is random and never disclosed, as users set theirs with the reset key: hash it once per chunk
+        String encryptedPassword = passwordEncoder.encode(RandomUtil.generatePassword());
+        Instant now = Instant.now();
+        List<User> users = new ArrayList<>(rows.size());
+        for (ImportRow row : rows) {
+            AdminUserDTO userDTO = row.userDTO;
+            User user = new User();
+            user.setLogin(row.login);
+            user.setFirstName(userDTO.getFirstName());
+            user.setLastName(userDTO.getLastName());
+            user.setEmail(row.email);
+            user.setImageUrl(userDTO.getImageUrl());
+            user.setLangKey(userDTO.getLangKey() == null ? Constants.DEFAULT_LANGUAGE : userDTO.getLangKey());
+            user.setPassword(encryptedPassword);
+            user.setResetKey(RandomUtil.generateResetKey());
+            user.setResetDate(now);
+            user.setActivated(true);
+            if (userDTO.getAuthorities() != null) {
+                user.setAuthorities(
+                    userDTO.getAuthorities().stream().map(authorities::get).filter(Objects::nonNull).collect(Collectors.toSet())
+                );
+            }
+            users.add(user);
+            row.user = user;
+        }
+        userRepository.saveAll(users);
+        userRepository.flush();
+        return users;
+    }
+
+    private void clearUserCaches(List<User> users) {
+        Cache usersByLogin = Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE));
+        Cache usersByEmail = Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE));
+        for (User user : users) {
+            usersByLogin.evict(user.getLogin());
+            if (user.getEmail() != null) {
+                usersByEmail.evict(user.getEmail());
+            }
+        }
+    }
+
+    private static final class ImportRow {
+
+        private final long line;
+
+        private final AdminUserDTO userDTO;
+
+        private final List<String> errors = new ArrayList<>();
+
+        private Status failure;
+
+        private String login;
+
+        private String email;
+
+        private User user;
+
+        private ImportRow(long line, AdminUserDTO userDTO, String parseError) {
+            this.line = line;
+            this.userDTO = userDTO;
+            if (parseError != null) {
+                errors.add(parseError);
+            }
+        }
+
+        private boolean isValid() {
+            return errors.isEmpty();
+        }
+
+        private void fail(Status status, String error) {
+            this.failure = status;
+            this.errors.add(error);
+            this.user = null;
+        }
+
+        private UserImportResultDTO toResult() {
+            String resultLogin = userDTO == null ? null : userDTO.getLogin();
+            if (user != null) {
+                return new UserImportResultDTO(line, user.getLogin(), Status.CREATED, user.getId(), null);
+            }
+            return new UserImportResultDTO(line, resultLogin, failure == null ? Status.REJECTED : failure, null, List.copyOf(errors));
+        }
+    }
+}
@@ -3,11 +3,16 @@ package org.dev4tests.computerdb.service;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import org.dev4tests.computerdb.config.Constants;
 import org.dev4tests.computerdb.domain.Authority;
 import org.dev4tests.computerdb.domain.User;
 import org.dev4tests.computerdb.repository.AuthorityRepository;
+import org.dev4tests.computerdb.repository.UserCacheWriter;
+import org.dev4tests.computerdb.repository.UserKeyFilter;
 import org.dev4tests.computerdb.repository.UserRepository;
 import org.dev4tests.computerdb.security.AuthoritiesConstants;
 import org.dev4tests.computerdb.security.SecurityUtils;
@@ -15,9 +20,15 @@ import org.dev4tests.computerdb.service.dto.AdminUserDTO;
 import org.dev4tests.computerdb.service.dto.UserDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.CacheManager;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -31,6 +42,12 @@ import tech.jhipster.security.RandomUtil;
 @Transactional
 public class UserService {
 
+    private static final String LOGIN_UNIQUE_CONSTRAINT = "ux_user_login";
+
+    private static final String EMAIL_UNIQUE_CONSTRAINT = "ux_user_email";
+
+    private static final Pattern CONSTRAINT_NAME = Pattern.compile("[\"'`]?(?:\\w+\\.)?(\\w+?)(?:_index_\\w+)?(?:[\"'`\\s]|$)");
+
     private final Logger log = LoggerFactory.getLogger(UserService.class);
 
     private final UserRepository userRepository;
@@ -39,18 +56,26 @@ public class UserService {
 
     private final AuthorityRepository authorityRepository;
 
-    private final CacheManager cacheManager;
+    private final UserCacheWriter userCacheWriter;
+
+    private final UserKeyFilter userKeyFilter;
+
+    private final ProfileVersionService profileVersionService;
 
     public UserService(
         UserRepository userRepository,
         PasswordEncoder passwordEncoder,
         AuthorityRepository authorityRepository,
-        CacheManager cacheManager
+        UserCacheWriter userCacheWriter,
+        UserKeyFilter userKeyFilter,
+        ProfileVersionService profileVersionService
     ) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.authorityRepository = authorityRepository;
-        this.cacheManager = cacheManager;
+        this.userCacheWriter = userCacheWriter;
+        this.userKeyFilter = userKeyFilter;
+        this.profileVersionService = profileVersionService;
     }
 
     public Optional<User> activateRegistration(String key) {
@@ -61,7 +86,7 @@ public class UserService {
                 // activate given user for the registration key.
                 user.setActivated(true);
                 user.setActivationKey(null);
-                this.clearUserCaches(user);
+                this.userChanged(user);
                 log.debug("Activated user: {}", user);
                 return user;
             });
@@ -76,7 +101,7 @@ public class UserService {
                 user.setPassword(passwordEncoder.encode(newPassword));
                 user.setResetKey(null);
                 user.setResetDate(null);
-                this.clearUserCaches(user);
+                this.userChanged(user);
                 return user;
             });
     }
@@ -88,22 +113,27 @@ public class UserService {
             .map(user -> {
                 user.setResetKey(RandomUtil.generateResetKey());
                 user.setResetDate(Instant.now());
-                this.clearUserCaches(user);
+                this.userChanged(user);
                 return user;
             });
     }
 
     public User registerUser(AdminUserDTO userDTO, String password) {
-        userRepository
-            .findOneByLogin(userDTO.getLogin().toLowerCase())
+        // Most registrations are for new logins and emails, which the key filter answers without a query
+        Optional
+            .of(userDTO.getLogin().toLowerCase())
+            .filter(userKeyFilter::mightContainLogin)
+            .flatMap(userRepository::findOneByLogin)
             .ifPresent(existingUser -> {
                 boolean removed = removeNonActivatedUser(existingUser);
                 if (!removed) {
                     throw new UsernameAlreadyUsedException();
                 }
             });
-        userRepository
-            .findOneByEmailIgnoreCase(userDTO.getEmail())
+        Optional
+            .ofNullable(userDTO.getEmail())
+            .filter(userKeyFilter::mightContainEmail)
+            .flatMap(userRepository::findOneByEmailIgnoreCase)
             .ifPresent(existingUser -> {
                 boolean removed = removeNonActivatedUser(existingUser);
                 if (!removed) {
@@ -129,19 +159,55 @@ public class UserService {
         Set<Authority> authorities = new HashSet<>();
         authorityRepository.findById(AuthoritiesConstants.USER).ifPresent(authorities::add);
         newUser.setAuthorities(authorities);
-        userRepository.save(newUser);
-        this.clearUserCaches(newUser);
+        insertUser(newUser);
+        this.userChanged(newUser);
         log.debug("Created Information for User: {}", newUser);
         return newUser;
     }
 
+    /**
+     * Insert a new user at once, so that a login or email taken meanwhile is reported as already used rather than failing
+     * the commit: the key filter only sees the users of the other instances after its next refresh.
+     */
+    private void insertUser(User user) {
+        try {
+            userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            String constraintName = violatedConstraintName(e);
+            if (LOGIN_UNIQUE_CONSTRAINT.equals(constraintName)) {
+                throw new UsernameAlreadyUsedException();
+            }
+            if (EMAIL_UNIQUE_CONSTRAINT.equals(constraintName)) {
+                throw new EmailAlreadyUsedException();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Get the name of the constraint violated by a statement, as extracted by the Hibernate dialect.
+     *
+     * @param exception the exception thrown by the statement.
+     * @return the lowercase constraint name, or {@code null} if unknown.
+     */
+    private static String violatedConstraintName(DataIntegrityViolationException exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException constraintViolation && constraintViolation.getConstraintName() != null) {
+                // H2 reports the index of the constraint, e.g. "PUBLIC.UX_USER_LOGIN_INDEX_6 ON PUBLIC.JHI_USER(LOGIN)"
+                Matcher matcher = CONSTRAINT_NAME.matcher(constraintViolation.getConstraintName().toLowerCase(Locale.ROOT));
+                return matcher.lookingAt() ? matcher.group(1) : null;
+            }
+        }
+        return null;
+    }
+
     private boolean removeNonActivatedUser(User existingUser) {
         if (existingUser.isActivated()) {
             return false;
         }
         userRepository.delete(existingUser);
         userRepository.flush();
-        this.clearUserCaches(existingUser);
+        this.userDeleted(existingUser);
         return true;
     }
 
@@ -174,8 +240,8 @@ public class UserService {
                 .collect(Collectors.toSet());
             user.setAuthorities(authorities);
         }
-        userRepository.save(user);
-        this.clearUserCaches(user);
+        insertUser(user);
+        this.userChanged(user);
         log.debug("Created Information for User: {}", user);
         return user;
     }
@@ -192,7 +258,7 @@ public class UserService {
             .filter(Optional::isPresent)
             .map(Optional::get)
             .map(user -> {
-                this.clearUserCaches(user);
+                this.userChanged(user);
                 user.setLogin(userDTO.getLogin().toLowerCase());
                 user.setFirstName(userDTO.getFirstName());
                 user.setLastName(userDTO.getLastName());
@@ -212,7 +278,6 @@ public class UserService {
                     .map(Optional::get)
                     .forEach(managedAuthorities::add);
                 userRepository.save(user);
-                this.clearUserCaches(user);
                 log.debug("Changed Information for User: {}", user);
                 return user;
             })
@@ -224,7 +289,7 @@ public class UserService {
             .findOneByLogin(login)
             .ifPresent(user -> {
                 userRepository.delete(user);
-                this.clearUserCaches(user);
+                this.userDeleted(user);
                 log.debug("Deleted User: {}", user);
             });
     }
@@ -243,6 +308,7 @@ public class UserService {
             .getCurrentUserLogin()
             .flatMap(userRepository::findOneByLogin)
             .ifPresent(user -> {
+                this.userChanged(user);
                 user.setFirstName(firstName);
                 user.setLastName(lastName);
                 if (email != null) {
@@ -251,7 +317,6 @@ public class UserService {
                 user.setLangKey(langKey);
                 user.setImageUrl(imageUrl);
                 userRepository.save(user);
-                this.clearUserCaches(user);
                 log.debug("Changed Information for User: {}", user);
             });
     }
@@ -268,14 +333,15 @@ public class UserService {
                 }
                 String encryptedPassword = passwordEncoder.encode(newPassword);
                 user.setPassword(encryptedPassword);
-                this.clearUserCaches(user);
+                this.userChanged(user);
                 log.debug("Changed password for User: {}", user);
             });
     }
 
     @Transactional(readOnly = true)
     public Page<AdminUserDTO> getAllManagedUsers(Pageable pageable) {
-        return userRepository.findAll(pageable).map(AdminUserDTO::new);
+        Page<Long> ids = userRepository.findAllIds(pageable);
+        return new PageImpl<>(findAllWithAuthorities(ids.getContent()), ids.getPageable(), ids.getTotalElements()).map(AdminUserDTO::new);
     }
 
     @Transactional(readOnly = true)
@@ -283,6 +349,94 @@ public class UserService {
         return userRepository.findAllByIdNotNullAndActivatedIsTrue(pageable).map(UserDTO::new);
     }
 
+    /**
+     * Get a page of users without counting them.
+     *
+     * @param pageable the pagination information.
+     * @return the users of the page.
+     */
+    @Transactional(readOnly = true)
+    public Slice<AdminUserDTO> getAllManagedUsersSlice(Pageable pageable) {
+        Slice<Long> ids = userRepository.findSliceOfIds(pageable);
+        return new SliceImpl<>(findAllWithAuthorities(ids.getContent()), ids.getPageable(), ids.hasNext()).map(AdminUserDTO::new);
+    }
+
+    /**
+     * Get a page of activated users without counting them.
+     *
+     * @param pageable the pagination information.
+     * @return the activated users of the page.
+     */
+    @Transactional(readOnly = true)
+    public Slice<UserDTO> getAllPublicUsersSlice(Pageable pageable) {
+        return userRepository.findSliceByIdNotNullAndActivatedIsTrue(pageable).map(UserDTO::new);
+    }
+
+    /**
+     * Get a page of users following the user with the given id, using keyset pagination.
+     *
+     * @param afterId the id of the last user of the previous page, or {@code null} for the first page.
+     * @param pageable the page size and the sort order, on a single property.
+     * @return the users following the given one.
+     * @throws InvalidCursorException if the user with the given id does not exist anymore.
+     */
+    @Transactional(readOnly = true)
+    public Slice<AdminUserDTO> getAllManagedUsersAfter(Long afterId, Pageable pageable) {
+        Slice<Long> ids = findAllIdsAfter(afterId, pageable, false);
+        return new SliceImpl<>(findAllWithAuthorities(ids.getContent()), ids.getPageable(), ids.hasNext()).map(AdminUserDTO::new);
+    }
+
+    /**
+     * Get a page of activated users following the user with the given id, using keyset pagination.
+     *
+     * @param afterId the id of the last user of the previous page, or {@code null} for the first page.
+     * @param pageable the page size and the sort order, on a single property.
+     * @return the activated users following the given one.
+     * @throws InvalidCursorException if the user with the given id does not exist anymore.
+     */
+    @Transactional(readOnly = true)
+    public Slice<UserDTO> getAllPublicUsersAfter(Long afterId, Pageable pageable) {
+        Slice<Long> ids = findAllIdsAfter(afterId, pageable, true);
+        return new SliceImpl<>(inIdOrder(ids.getContent(), userRepository.findAllById(ids.getContent())), ids.getPageable(), ids.hasNext())
+            .map(UserDTO::new);
+    }
+
+    @Transactional(readOnly = true)
+    public long countManagedUsers() {
+        return userRepository.count();
+    }
+
+    @Transactional(readOnly = true)
+    public long countPublicUsers() {
+        return userRepository.countByActivatedIsTrue();
+    }
+
+    private Slice<Long> findAllIdsAfter(Long afterId, Pageable pageable, boolean activatedOnly) {
+        User anchor = afterId == null ? null : userRepository.findById(afterId).orElseThrow(InvalidCursorException::new);
+        Sort.Order order = pageable.getSort().stream().findFirst().orElse(Sort.Order.asc("id"));
+        int size = pageable.getPageSize();
+        // Fetch one more user than requested to know whether there is a next page without counting
+        List<Long> ids = userRepository.findAllIdsAfter(anchor, order, size + 1, activatedOnly);
+        boolean hasNext = ids.size() > size;
+        return new SliceImpl<>(hasNext ? ids.subList(0, size) : ids, PageRequest.of(0, size, Sort.by(order)), hasNext);
+    }
+
+    /**
+     * Load the users with the given ids together with their authorities in a single query, instead of
+     * loading the authorities of each user one by one.
+     */
+    private List<User> findAllWithAuthorities(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return inIdOrder(ids, userRepository.findAllWithAuthoritiesByIdIn(ids));
+    }
+
+    private List<User> inIdOrder(List<Long> ids, List<User> users) {
+        Map<Long, User> usersById = users.stream().collect(Collectors.toMap(User::getId, Function.identity(), (a, b) -> a));
+        return ids.stream().map(usersById::get).filter(Objects::nonNull).toList();
+    }
+
     @Transactional(readOnly = true)
     public Optional<User> getUserWithAuthoritiesByLogin(String login) {
         return userRepository.findOneWithAuthoritiesByLogin(login);
@@ -305,7 +459,7 @@ public class UserService {
             .forEach(user -> {
                 log.debug("Deleting not activated user {}", user.getLogin());
                 userRepository.delete(user);
-                this.clearUserCaches(user);
+                this.userDeleted(user);
             });
     }
 
@@ -318,10 +472,15 @@ public class UserService {
         return authorityRepository.findAll().stream().map(Authority::getName).toList();
     }
 
-    private void clearUserCaches(User user) {
-        Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE)).evict(user.getLogin());
-        if (user.getEmail() != null) {
-            Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE)).evict(user.getEmail());
+    private void userChanged(User user) {
+        if (user.getId() != null) {
+            profileVersionService.profileChanged(user.getId());
         }
+        userCacheWriter.userChanged(user);
+    }
+
+    private void userDeleted(User user) {
+        profileVersionService.profileChanged(user.getId());
+        userCacheWriter.userDeleted(user);
     }
 }
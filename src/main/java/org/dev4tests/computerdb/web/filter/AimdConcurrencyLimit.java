@@ -0,0 +1,94 @@
+package org.dev4tests.computerdb.web.filter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Limit of the number of requests in flight, adapted to the latency of the responses with additive increase and
+ * multiplicative decrease, like the TCP congestion window.
+ * <p>
+ * While the responses are fast and at least half of the limit is used, the limit grows by one for every limit's worth
+ * of responses. When a response is slow or reports an overload, the limit is multiplied by the backoff ratio, at most
+ * once per latency threshold so that the responses already in flight during an overload only decrease it once.
+ */
+class AimdConcurrencyLimit {
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final long latencyThreshold;
+
+    private final double backoffRatio;
+
+    private final LongSupplier nanoTime;
+
+    private volatile double limit;
+
+    private long decreasedAt;
+
+    AimdConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, long latencyThreshold, double backoffRatio, LongSupplier nanoTime) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThreshold = latencyThreshold;
+        this.backoffRatio = backoffRatio;
+        this.nanoTime = nanoTime;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.decreasedAt = nanoTime.getAsLong() - latencyThreshold;
+    }
+
+    /**
+     * Count a request in flight, unless the limit is reached.
+     *
+     * @return whether the request was counted, in which case {@link #release(long, boolean)} must be called once it
+     * completes.
+     */
+    boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Stop counting a completed request, and adapt the limit to its latency.
+     *
+     * @param latency the time taken by the request, in nanoseconds.
+     * @param overloaded whether the request failed because the application or its dependencies were overloaded.
+     */
+    void release(long latency, boolean overloaded) {
+        int previousInFlight = inFlight.getAndDecrement();
+        if (overloaded || latency > latencyThreshold) {
+            decrease();
+        } else if (previousInFlight * 2 >= limit) {
+            increase();
+        }
+    }
+
+    int getLimit() {
+        return (int) limit;
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void increase() {
+        limit = Math.min(maxLimit, limit + 1 / limit);
+    }
+
+    private synchronized void decrease() {
+        long now = nanoTime.getAsLong();
+        if (now - decreasedAt >= latencyThreshold) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+            decreasedAt = now;
+        }
+    }
+}
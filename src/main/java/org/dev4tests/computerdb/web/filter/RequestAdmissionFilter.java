@@ -0,0 +1,204 @@
+package org.dev4tests.computerdb.web.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongSupplier;
+import org.dev4tests.computerdb.config.ApplicationProperties;
+import org.dev4tests.computerdb.web.rest.errors.ErrorConstants;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+/**
+ * Admits the {@code /api} requests before they take a worker thread and a database connection for long.
+ * <p>
+ * A request is rejected with {@code 429 Too Many Requests} when the token bucket of its principal, or of its client
+ * address when it is anonymous, or of its route is empty. It is rejected with {@code 503 Service Unavailable} when the
+ * number of requests in flight reaches the adaptive concurrency limit, which decreases when the responses get slow.
+ * Rejected requests are answered at once rather than queued, with a {@code Retry-After} header.
+ */
+public class RequestAdmissionFilter extends OncePerRequestFilter {
+
+    public static final String REJECTED_METER_NAME = "request-admission.rejected";
+    public static final String REJECTED_METER_REASON_DIMENSION = "reason";
+    public static final String CONCURRENCY_LIMIT_METER_NAME = "request-admission.concurrency-limit";
+    public static final String IN_FLIGHT_METER_NAME = "request-admission.in-flight";
+
+    private static final String PROBLEM = "{\"type\":\"%s\",\"title\":\"%s\",\"status\":%d,\"detail\":\"%s\"}";
+
+    private final TokenBucket.Limit principalLimit;
+
+    private final List<RouteLimit> routeLimits;
+
+    private final TokenBucketLimiter principalLimiter;
+
+    private final TokenBucketLimiter routeLimiter;
+
+    private final AimdConcurrencyLimit concurrencyLimit;
+
+    private final LongSupplier nanoTime;
+
+    private final Counter principalRejectedCounter;
+
+    private final Counter routeRejectedCounter;
+
+    private final Counter concurrencyRejectedCounter;
+
+    public RequestAdmissionFilter(ApplicationProperties.RequestAdmission properties, MeterRegistry registry) {
+        this(properties, registry, System::nanoTime);
+    }
+
+    RequestAdmissionFilter(ApplicationProperties.RequestAdmission properties, MeterRegistry registry, LongSupplier nanoTime) {
+        ApplicationProperties.RequestAdmission.Bucket perPrincipal = properties.getPerPrincipal();
+        ApplicationProperties.RequestAdmission.Concurrency concurrency = properties.getConcurrency();
+        this.principalLimit = new TokenBucket.Limit(perPrincipal.getBurst(), perPrincipal.getPermitsPerSecond());
+        this.routeLimits = properties.getRoutes().stream().map(RouteLimit::of).toList();
+        this.principalLimiter = new TokenBucketLimiter(properties.getMaxKeys(), nanoTime);
+        this.routeLimiter = new TokenBucketLimiter(properties.getRoutes().size(), nanoTime);
+        this.concurrencyLimit =
+            new AimdConcurrencyLimit(
+                concurrency.getInitialLimit(),
+                concurrency.getMinLimit(),
+                concurrency.getMaxLimit(),
+                concurrency.getLatencyThreshold().toNanos(),
+                concurrency.getBackoffRatio(),
+                nanoTime
+            );
+        this.nanoTime = nanoTime;
+        this.principalRejectedCounter = rejectedCounterForReasonBuilder("principal").register(registry);
+        this.routeRejectedCounter = rejectedCounterForReasonBuilder("route").register(registry);
+        this.concurrencyRejectedCounter = rejectedCounterForReasonBuilder("concurrency").register(registry);
+        Gauge
+            .builder(CONCURRENCY_LIMIT_METER_NAME, concurrencyLimit, AimdConcurrencyLimit::getLimit)
+            .description("Number of /api requests allowed in flight, adapted to their latency.")
+            .register(registry);
+        Gauge
+            .builder(IN_FLIGHT_METER_NAME, concurrencyLimit, AimdConcurrencyLimit::getInFlight)
+            .description("Number of /api requests in flight.")
+            .register(registry);
+    }
+
+    private static Counter.Builder rejectedCounterForReasonBuilder(String reason) {
+        return Counter
+            .builder(REJECTED_METER_NAME)
+            .description("Indicates the count of /api requests rejected before being handled.")
+            .tag(REJECTED_METER_REASON_DIMENSION, reason);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(request.getContextPath() + "/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        long waitTime = principalLimiter.tryAcquire(principalKey(request), principalLimit);
+        if (waitTime > 0) {
+            principalRejectedCounter.increment();
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, waitTime, "Too many requests, retry later");
+            return;
+        }
+        RouteLimit routeLimit = routeLimit(request);
+        if (routeLimit != null && (waitTime = routeLimiter.tryAcquire(routeLimit.key(), routeLimit.limit())) > 0) {
+            routeRejectedCounter.increment();
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, waitTime, "Too many requests to this resource, retry later");
+            return;
+        }
+        if (!concurrencyLimit.tryAcquire()) {
+            concurrencyRejectedCounter.increment();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, TimeUnit.SECONDS.toNanos(1), "Server overloaded, retry later");
+            return;
+        }
+        long start = nanoTime.getAsLong();
+        boolean overloaded = false;
+        try {
+            filterChain.doFilter(request, response);
+            overloaded = response.getStatus() == HttpStatus.SERVICE_UNAVAILABLE.value() ||
+                response.getStatus() == HttpStatus.GATEWAY_TIMEOUT.value();
+        } catch (IOException | ServletException | RuntimeException e) {
+            // Other failures, such as a client disconnecting or a bug, say nothing of the load
+            overloaded = isTimeout(e);
+            throw e;
+        } finally {
+            concurrencyLimit.release(nanoTime.getAsLong() - start, overloaded);
+        }
+    }
+
+    private static boolean isTimeout(Throwable exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (
+                cause instanceof TimeoutException ||
+                cause instanceof SocketTimeoutException ||
+                cause instanceof QueryTimeoutException ||
+                cause instanceof TransactionTimedOutException
+            ) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String principalKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && !(authentication instanceof AnonymousAuthenticationToken) && authentication.isAuthenticated()) {
+            return "principal:" + authentication.getName();
+        }
+        return "address:" + request.getRemoteAddr();
+    }
+
+    private RouteLimit routeLimit(HttpServletRequest request) {
+        if (routeLimits.isEmpty()) {
+            return null;
+        }
+        PathContainer path = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+        for (RouteLimit routeLimit : routeLimits) {
+            if (routeLimit.matches(request.getMethod(), path)) {
+                return routeLimit;
+            }
+        }
+        return null;
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, long waitTime, String detail) throws IOException {
+        response.setStatus(status.value());
+        // Retry-After is in whole seconds, rounded up so that the retry is not rejected again
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, (waitTime + 999_999_999) / 1_000_000_000)));
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        response.getWriter().write(PROBLEM.formatted(ErrorConstants.DEFAULT_TYPE, status.getReasonPhrase(), status.value(), detail));
+    }
+
+    private record RouteLimit(String key, String method, PathPattern pattern, TokenBucket.Limit limit) {
+        private static RouteLimit of(ApplicationProperties.RequestAdmission.Route route) {
+            return new RouteLimit(
+                route.getMethod() + " " + route.getPattern(),
+                route.getMethod(),
+                PathPatternParser.defaultInstance.parse(route.getPattern()),
+                new TokenBucket.Limit(route.getBurst(), route.getPermitsPerSecond())
+            );
+        }
+
+        private boolean matches(String requestMethod, PathContainer path) {
+            return (method == null || method.equalsIgnoreCase(requestMethod)) && pattern.matches(path);
+        }
+    }
+}
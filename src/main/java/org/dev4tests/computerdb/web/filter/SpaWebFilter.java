@@ -4,32 +4,193 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+/**
+ * Answers the client routes with the client {@code index.html}.
+ * <p>
+ * The paths of the server endpoints are recognized by a prefix trie built once, without allocating. When the
+ * {@code index.html} resource is given, it is read once and the {@code GET} and {@code HEAD} requests of the client
+ * routes are answered from memory, gzipped when the client accepts it, with an {@code ETag} that the browsers revalidate.
+ * The other requests of the client routes are forwarded to {@code index.html}.
+ */
 public class SpaWebFilter extends OncePerRequestFilter {
 
+    private static final String INDEX_PATH = "/index.html";
+
+    private static final String GZIP_ENCODING = "gzip";
+
+    private static final PathPrefixTrie SERVER_PATHS = new PathPrefixTrie(
+        "/api",
+        "/management",
+        "/v3/api-docs",
+        "/h2-console",
+        "/websocket"
+    );
+
+    private final Logger log = LoggerFactory.getLogger(SpaWebFilter.class);
+
+    private final IndexPage indexPage;
+
+    /**
+     * Forward the client routes to {@code index.html}.
+     */
+    public SpaWebFilter() {
+        this.indexPage = null;
+    }
+
     /**
-     * Forwards any unmapped paths (except those containing a period) to the client {@code index.html}.
+     * Answer the client routes with the given {@code index.html}, or forward them to {@code index.html} if it cannot be
+     * read.
+     *
+     * @param index the client {@code index.html}.
+     */
+    public SpaWebFilter(Resource index) {
+        this.indexPage = readIndexPage(index);
+    }
+
+    /**
+     * Answers any unmapped paths (except those containing a period) with the client {@code index.html}.
      */
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
         throws ServletException, IOException {
-        // Request URI includes the contextPath if any, removed it.
-        String path = request.getRequestURI().substring(request.getContextPath().length());
-        if (
-            !path.startsWith("/api") &&
-            !path.startsWith("/management") &&
-            !path.startsWith("/v3/api-docs") &&
-            !path.startsWith("/h2-console") &&
-            !path.startsWith("/websocket") &&
-            !path.contains(".") &&
-            path.matches("/(.*)")
-        ) {
-            request.getRequestDispatcher("/index.html").forward(request, response);
+        // Request URI includes the contextPath if any, skip it.
+        if (!isClientRoute(request.getRequestURI(), request.getContextPath().length())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        String method = request.getMethod();
+        if (indexPage != null && (HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method))) {
+            indexPage.write(request, response);
             return;
         }
+        request.getRequestDispatcher(INDEX_PATH).forward(request, response);
+    }
+
+    static boolean isClientRoute(String uri, int start) {
+        return uri.length() > start && uri.charAt(start) == '/' && uri.indexOf('.', start) < 0 && !SERVER_PATHS.matches(uri, start);
+    }
 
-        filterChain.doFilter(request, response);
+    private IndexPage readIndexPage(Resource index) {
+        if (!index.exists()) {
+            log.warn("{} not found, the client routes are forwarded to it", index.getDescription());
+            return null;
+        }
+        try (InputStream in = index.getInputStream()) {
+            byte[] content = in.readAllBytes();
+            ByteArrayOutputStream gzipped = new ByteArrayOutputStream(content.length / 2);
+            try (GZIPOutputStream gzip = new BestCompressionGZIPOutputStream(gzipped)) {
+                gzip.write(content);
+            }
+            String hash = DigestUtils.md5DigestAsHex(content);
+            return new IndexPage(content, gzipped.toByteArray(), "\"0" + hash + "\"", "\"0" + hash + "-gzip\"");
+        } catch (IOException e) {
+            log.warn("Could not read {}, the client routes are forwarded to it", index.getDescription(), e);
+            return null;
+        }
+    }
+
+    /**
+     * The client {@code index.html}, as it is and gzipped.
+     */
+    private record IndexPage(byte[] content, byte[] gzippedContent, String etag, String gzippedEtag) {
+        private static final String CACHE_CONTROL = CacheControl.noCache().getHeaderValue();
+
+        private static final String CONTENT_TYPE = MediaType.TEXT_HTML_VALUE + ";charset=UTF-8";
+
+        void write(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+            boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains(GZIP_ENCODING);
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+            if (new ServletWebRequest(request, response).checkNotModified(gzip ? gzippedEtag : etag)) {
+                return;
+            }
+            byte[] body = gzip ? gzippedContent : content;
+            response.setContentType(CONTENT_TYPE);
+            if (gzip) {
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP_ENCODING);
+            }
+            response.setContentLength(body.length);
+            if (!HttpMethod.HEAD.matches(request.getMethod())) {
+                response.getOutputStream().write(body);
+            }
+        }
+    }
+
+    /**
+     * Prefixes of paths, stored in a trie of their ASCII characters.
+     */
+    static final class PathPrefixTrie {
+
+        private final Node root = new Node();
+
+        PathPrefixTrie(String... prefixes) {
+            for (String prefix : prefixes) {
+                Node node = root;
+                for (int i = 0; i < prefix.length(); i++) {
+                    char c = prefix.charAt(i);
+                    if (c >= Node.SIZE) {
+                        throw new IllegalArgumentException("Only ASCII prefixes are supported: " + prefix);
+                    }
+                    if (node.children[c] == null) {
+                        node.children[c] = new Node();
+                    }
+                    node = node.children[c];
+                }
+                node.terminal = true;
+            }
+        }
+
+        /**
+         * Whether the path starting at the given index starts with one of the prefixes.
+         */
+        boolean matches(String path, int start) {
+            Node node = root;
+            for (int i = start; i < path.length(); i++) {
+                char c = path.charAt(i);
+                node = c < Node.SIZE ? node.children[c] : null;
+                if (node == null) {
+                    return false;
+                }
+                if (node.terminal) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static final class Node {
+
+            static final int SIZE = 128;
+
+            final Node[] children = new Node[SIZE];
+
+            boolean terminal;
+        }
+    }
+
+    private static final class BestCompressionGZIPOutputStream extends GZIPOutputStream {
+
+        BestCompressionGZIPOutputStream(ByteArrayOutputStream out) throws IOException {
+            super(out);
+            def.setLevel(Deflater.BEST_COMPRESSION);
+        }
     }
 }
@@ -0,0 +1,61 @@
+package org.dev4tests.computerdb.web.filter;
+
+/**
+ * Immutable token bucket: it holds up to a burst of tokens, refilled at a constant rate, and each request takes one.
+ *
+ * @param tokens the number of tokens in the bucket at {@code refilledAt}.
+ * @param refilledAt the time the tokens were counted, in nanoseconds.
+ */
+record TokenBucket(double tokens, long refilledAt) {
+    private static final double NANOS_PER_SECOND = 1_000_000_000;
+
+    /**
+     * Add the tokens refilled since the tokens were counted.
+     *
+     * @param now the time, in nanoseconds.
+     * @param limit the burst and the refill rate of the bucket.
+     * @return the bucket with the tokens available at {@code now}.
+     */
+    TokenBucket refill(long now, Limit limit) {
+        if (now <= refilledAt) {
+            return this;
+        }
+        return new TokenBucket(Math.min(limit.burst(), tokens + (now - refilledAt) * limit.permitsPerSecond() / NANOS_PER_SECOND), now);
+    }
+
+    /**
+     * Get the delay before a token is available.
+     *
+     * @param limit the burst and the refill rate of the bucket.
+     * @return {@code 0} if a token is available now, or the delay in nanoseconds before a token is available.
+     */
+    long waitTime(Limit limit) {
+        return tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) * NANOS_PER_SECOND / limit.permitsPerSecond());
+    }
+
+    /**
+     * Take a token.
+     *
+     * @return the bucket with one less token.
+     */
+    TokenBucket take() {
+        return new TokenBucket(tokens - 1, refilledAt);
+    }
+
+    /**
+     * Burst and refill rate of a bucket.
+     *
+     * @param burst the maximum number of tokens of the bucket, that is the number of requests allowed at once.
+     * @param permitsPerSecond the number of tokens added per second, that is the sustained request rate.
+     */
+    record Limit(int burst, double permitsPerSecond) {
+        /**
+         * Get the time an empty bucket takes to hold its burst of tokens again.
+         *
+         * @return the time in nanoseconds, or {@link Long#MAX_VALUE} if the bucket is not refilled.
+         */
+        long refillTime() {
+            return (long) Math.ceil(burst * NANOS_PER_SECOND / permitsPerSecond);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package org.dev4tests.computerdb.web.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets of the principals and the routes, kept in memory.
+ * <p>
+ * Each bucket is replaced with compare-and-set, so that concurrent requests do not lock each other. The buckets are
+ * held in a Caffeine cache of at most {@code maxKeys} keys, which removes a bucket once it would be full again, since a
+ * new bucket is full. A full cache does not fail open: every request takes a token, and beyond {@code maxKeys} keys
+ * the least frequently used buckets are evicted as new ones are added, so that a flood of new keys does not evict the
+ * buckets of the busiest principals, and each eviction costs a constant time.
+ */
+class TokenBucketLimiter {
+
+    private final Cache<String, Bucket> buckets;
+
+    private final LongSupplier nanoTime;
+
+    TokenBucketLimiter(int maxKeys, LongSupplier nanoTime) {
+        this.nanoTime = nanoTime;
+        this.buckets =
+            Caffeine
+                .newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfter(new BucketExpiry())
+                .ticker(nanoTime::getAsLong)
+                // The evictions are amortized over the requests, rather than run by the common pool
+                .executor(Runnable::run)
+                .build();
+    }
+
+    /**
+     * Take a token from the bucket of a key.
+     *
+     * @param key the key of the bucket.
+     * @param limit the burst and the refill rate of the bucket.
+     * @return {@code 0} if a token was taken, or the delay in nanoseconds before a token is available.
+     */
+    long tryAcquire(String key, TokenBucket.Limit limit) {
+        long now = nanoTime.getAsLong();
+        AtomicReference<TokenBucket> bucket = buckets.get(key, k -> new Bucket(limit, now)).value();
+        while (true) {
+            TokenBucket previous = bucket.get();
+            TokenBucket refilled = previous.refill(now, limit);
+            long waitTime = refilled.waitTime(limit);
+            if (waitTime > 0) {
+                return waitTime;
+            }
+            if (bucket.compareAndSet(previous, refilled.take())) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * The bucket of a key, with its limit.
+     */
+    private record Bucket(AtomicReference<TokenBucket> value, TokenBucket.Limit limit) {
+        Bucket(TokenBucket.Limit limit, long now) {
+            this(new AtomicReference<>(new TokenBucket(limit.burst(), now)), limit);
+        }
+    }
+
+    /**
+     * Expires the buckets once they would be refilled from empty after their last request.
+     */
+    private static final class BucketExpiry implements Expiry<String, Bucket> {
+
+        @Override
+        public long expireAfterCreate(String key, Bucket bucket, long currentTime) {
+            return bucket.limit().refillTime();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Bucket bucket, long currentTime, long currentDuration) {
+            return bucket.limit().refillTime();
+        }
+
+        @Override
+        public long expireAfterRead(String key, Bucket bucket, long currentTime, long currentDuration) {
+            return bucket.limit().refillTime();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package org.dev4tests.computerdb.web.filter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Takes the client address of the requests sent by a trusted proxy from their {@code X-Forwarded-For} header, so that
+ * the login throttling and the request admission count the requests per client rather than per proxy.
+ * <p>
+ * The header is read from right to left, skipping the trusted proxies: the first other address is the one the last
+ * trusted proxy received the request from, the addresses on its left being sent by the client. The requests of the
+ * other peers keep their address, whatever their headers.
+ */
+public class TrustedProxyFilter extends OncePerRequestFilter {
+
+    static final String X_FORWARDED_FOR = "X-Forwarded-For";
+
+    // IPv4 and IPv6 literals only, so that a forwarded host name is never resolved
+    private static final Pattern IP_ADDRESS = Pattern.compile("[0-9a-fA-F.:]+");
+
+    private final List<IpAddressMatcher> trustedProxies;
+
+    /**
+     * @param trustedProxies the addresses of the trusted proxies, as IP addresses or CIDR ranges.
+     */
+    public TrustedProxyFilter(List<String> trustedProxies) {
+        this.trustedProxies = trustedProxies.stream().map(IpAddressMatcher::new).toList();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !isTrustedProxy(request.getRemoteAddr());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        String clientAddress = clientAddress(request);
+        if (clientAddress == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        filterChain.doFilter(new ForwardedRequest(request, clientAddress), response);
+    }
+
+    /**
+     * Get the address the last trusted proxy received the request from.
+     *
+     * @param request the request sent by a trusted proxy.
+     * @return the client address, or {@code null} if the header is missing or malformed.
+     */
+    String clientAddress(HttpServletRequest request) {
+        List<String> addresses = new ArrayList<>();
+        for (String header : Collections.list(request.getHeaders(X_FORWARDED_FOR))) {
+            for (String address : header.split(",")) {
+                addresses.add(address.trim());
+            }
+        }
+        try {
+            for (int i = addresses.size() - 1; i >= 0; i--) {
+                String address = addresses.get(i);
+                if (!IP_ADDRESS.matcher(address).matches()) {
+                    return null;
+                }
+                if (!isTrustedProxy(address) || i == 0) {
+                    return address;
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            // Not an IP address after all
+        }
+        return null;
+    }
+
+    private boolean isTrustedProxy(String address) {
+        for (IpAddressMatcher trustedProxy : trustedProxies) {
+            if (trustedProxy.matches(address)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class ForwardedRequest extends HttpServletRequestWrapper {
+
+        private final String clientAddress;
+
+        ForwardedRequest(HttpServletRequest request, String clientAddress) {
+            super(request);
+            this.clientAddress = clientAddress;
+        }
+
+        @Override
+        public String getRemoteAddr() {
+            return clientAddress;
+        }
+
+        @Override
+        public String getRemoteHost() {
+            return clientAddress;
+        }
+    }
+}
@@ -7,6 +7,7 @@ import org.dev4tests.computerdb.domain.User;
 import org.dev4tests.computerdb.repository.UserRepository;
 import org.dev4tests.computerdb.security.SecurityUtils;
 import org.dev4tests.computerdb.service.MailService;
+import org.dev4tests.computerdb.service.ProfileVersionService;
 import org.dev4tests.computerdb.service.UserService;
 import org.dev4tests.computerdb.service.dto.AdminUserDTO;
 import org.dev4tests.computerdb.service.dto.PasswordChangeDTO;
@@ -15,8 +16,12 @@ import org.dev4tests.computerdb.web.rest.vm.KeyAndPasswordVM;
 import org.dev4tests.computerdb.web.rest.vm.ManagedUserVM;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 /**
  * REST controller for managing the current user's account.
@@ -40,10 +45,18 @@ public class AccountResource {
 
     private final MailService mailService;
 
-    public AccountResource(UserRepository userRepository, UserService userService, MailService mailService) {
+    private final ProfileVersionService profileVersionService;
+
+    public AccountResource(
+        UserRepository userRepository,
+        UserService userService,
+        MailService mailService,
+        ProfileVersionService profileVersionService
+    ) {
         this.userRepository = userRepository;
         this.userService = userService;
         this.mailService = mailService;
+        this.profileVersionService = profileVersionService;
     }
 
     /**
@@ -80,16 +93,29 @@ public class AccountResource {
 
     /**
      * {@code GET  /account} : get the current user.
+     * <p>
+     * When the token of the user holds its id, the response has an {@code ETag} built from the version of its profile,
+     * and a request whose {@code If-None-Match} header matches the current version is answered without loading the profile.
      *
-     * @return the current user.
+     * @param request the web request.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the current user, or with status
+     * {@code 304 (Not Modified)} if the profile known by the client is current.
      * @throws RuntimeException {@code 500 (Internal Server Error)} if the user couldn't be returned.
      */
     @GetMapping("/account")
-    public AdminUserDTO getAccount() {
-        return userService
+    public ResponseEntity<AdminUserDTO> getAccount(WebRequest request) {
+        // The version is read before the profile is loaded, so that a concurrent change gives the next request a new ETag
+        Optional<String> eTag = SecurityUtils.getCurrentUserId().map(id -> "W/\"" + id + "-" + profileVersionService.getVersion(id) + "\"");
+        if (eTag.isPresent() && isKnownByClient(request, eTag.orElseThrow())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag.orElseThrow()).cacheControl(CacheControl.noCache()).build();
+        }
+        AdminUserDTO account = userService
             .getUserWithAuthorities()
             .map(AdminUserDTO::new)
             .orElseThrow(() -> new AccountResourceException("User could not be found"));
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(CacheControl.noCache());
+        eTag.ifPresent(response::eTag);
+        return response.body(account);
     }
 
     /**
@@ -171,6 +197,11 @@ public class AccountResource {
         }
     }
 
+    private static boolean isKnownByClient(WebRequest request, String eTag) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        return ifNoneMatch != null && Arrays.stream(ifNoneMatch.split(",")).map(String::trim).anyMatch(eTag::equals);
+    }
+
     private static boolean isPasswordLengthInvalid(String password) {
         return (
             StringUtils.isEmpty(password) ||
@@ -0,0 +1,48 @@
+package org.dev4tests.computerdb.web.rest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.observation.ObservationRegistry;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import org.dev4tests.computerdb.security.AuthenticationObservations;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+/**
+ * Writes the {@link AuthenticateController.JWTToken} responses with the application {@link ObjectMapper}, observing their
+ * serialization as a stage of the authentication.
+ * <p>
+ * The other types are left to the default converters.
+ */
+public class JWTTokenHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    private final ObservationRegistry observationRegistry;
+
+    public JWTTokenHttpMessageConverter(ObjectMapper objectMapper, ObservationRegistry observationRegistry) {
+        super(objectMapper);
+        this.observationRegistry = observationRegistry;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return AuthenticateController.JWTToken.class.equals(clazz) && super.canWrite(clazz, mediaType);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+        AuthenticationObservations
+            .create(observationRegistry, AuthenticationObservations.SERIALIZATION)
+            .observeChecked(() -> super.writeInternal(object, type, outputMessage));
+    }
+}
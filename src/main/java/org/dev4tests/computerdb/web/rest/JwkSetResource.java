@@ -0,0 +1,48 @@
+package org.dev4tests.computerdb.web.rest;
+
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import java.time.Duration;
+import java.util.Map;
+import org.dev4tests.computerdb.config.ApplicationProperties;
+import org.dev4tests.computerdb.security.RotatingJwkSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller publishing the public keys verifying the tokens, so that other services can verify them locally.
+ */
+@RestController
+public class JwkSetResource {
+
+    private final Logger log = LoggerFactory.getLogger(JwkSetResource.class);
+
+    private final JWKSource<SecurityContext> jwkSource;
+
+    private final CacheControl cacheControl;
+
+    public JwkSetResource(JWKSource<SecurityContext> jwkSource, ApplicationProperties applicationProperties) {
+        this.jwkSource = jwkSource;
+        // The next signing key is published a full rotation period before it is used
+        Duration keyRotation = applicationProperties.getSecurity().getSigning().getKeyRotation();
+        this.cacheControl = CacheControl.maxAge(keyRotation.dividedBy(2)).cachePublic();
+    }
+
+    /**
+     * {@code GET /.well-known/jwks.json} : get the public keys verifying the tokens.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the JSON Web Key Set, without any key
+     * when tokens are signed with the shared secret.
+     */
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> getJwkSet() {
+        log.debug("REST request to get the JSON Web Key Set");
+        JWKSet jwkSet = jwkSource instanceof RotatingJwkSource rotatingJwkSource ? rotatingJwkSource.getPublicJwkSet() : new JWKSet();
+        return ResponseEntity.ok().cacheControl(cacheControl).body(jwkSet.toJSONObject());
+    }
+}
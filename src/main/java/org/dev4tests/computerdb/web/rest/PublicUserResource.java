@@ -2,12 +2,16 @@ package org.dev4tests.computerdb.web.rest;
 
 import java.util.*;
 import java.util.Collections;
+import org.dev4tests.computerdb.service.UserCountService;
 import org.dev4tests.computerdb.service.UserService;
 import org.dev4tests.computerdb.service.dto.UserDTO;
+import org.dev4tests.computerdb.web.rest.util.KeysetPaginationUtil;
+import org.dev4tests.computerdb.web.rest.util.SlicePaginationUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -28,8 +32,11 @@ public class PublicUserResource {
 
     private final UserService userService;
 
-    public PublicUserResource(UserService userService) {
+    private final UserCountService userCountService;
+
+    public PublicUserResource(UserService userService, UserCountService userCountService) {
         this.userService = userService;
+        this.userCountService = userCountService;
     }
 
     /**
@@ -50,6 +57,70 @@ public class PublicUserResource {
         return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
     }
 
+    /**
+     * {@code GET /users?skipCount=true} : get a page of users with only public information, without counting them - calling this method is allowed for anyone.
+     * <p>
+     * The {@code X-Has-Next} header tells whether there is a next page.
+     *
+     * @param approximateCount whether to return an approximate number of users in the {@code X-Total-Count-Approximate} header.
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the users of the page.
+     */
+    @GetMapping(
+        value = "/users",
+        params = { SlicePaginationUtil.SKIP_COUNT_PARAMETER + "=true", "!" + KeysetPaginationUtil.AFTER_PARAMETER }
+    )
+    public ResponseEntity<List<UserDTO>> getAllPublicUsersWithoutCount(
+        @RequestParam(value = SlicePaginationUtil.APPROXIMATE_COUNT_PARAMETER, defaultValue = "false") boolean approximateCount,
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable
+    ) {
+        log.debug("REST request to get a slice of public User names");
+        if (!onlyContainsAllowedProperties(pageable)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        final Slice<UserDTO> slice = userService.getAllPublicUsersSlice(pageable);
+        HttpHeaders headers = SlicePaginationUtil.generateSliceHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            slice,
+            approximateCount ? userCountService.getApproximatePublicUserCount() : null
+        );
+        return new ResponseEntity<>(slice.getContent(), headers, HttpStatus.OK);
+    }
+
+    /**
+     * {@code GET /users?after=:cursor} : get a page of users with only public information, using keyset pagination - calling this method is allowed for anyone.
+     * <p>
+     * The page starts right after the last user of the previous one instead of at an offset, so its latency does not depend on its depth.
+     * Start with an empty cursor, then follow the {@code next} link of the {@code Link} header.
+     *
+     * @param after the cursor of the previous page, empty for the first page.
+     * @param count whether to return the total number of users in the {@code X-Total-Count} header.
+     * @param pageable the pagination information, sorted on a single property.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the users of the page, or with status {@code 400 (Bad Request)} if the cursor or the sort is invalid.
+     */
+    @GetMapping(value = "/users", params = KeysetPaginationUtil.AFTER_PARAMETER)
+    public ResponseEntity<List<UserDTO>> getAllPublicUsersAfter(
+        @RequestParam(value = KeysetPaginationUtil.AFTER_PARAMETER, required = false) String after,
+        @RequestParam(value = KeysetPaginationUtil.COUNT_PARAMETER, defaultValue = "false") boolean count,
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable
+    ) {
+        log.debug("REST request to get a keyset page of public User names");
+        if (!onlyContainsAllowedProperties(pageable) || pageable.getSort().stream().count() > 1) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        final Slice<UserDTO> slice = userService.getAllPublicUsersAfter(KeysetPaginationUtil.decodeCursor(after), pageable);
+        Long lastId = slice.hasContent() ? slice.getContent().get(slice.getNumberOfElements() - 1).getId() : null;
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            slice,
+            lastId,
+            count ? userService.countPublicUsers() : null
+        );
+        return new ResponseEntity<>(slice.getContent(), headers, HttpStatus.OK);
+    }
+
     private boolean onlyContainsAllowedProperties(Pageable pageable) {
         return pageable.getSort().stream().map(Sort.Order::getProperty).allMatch(ALLOWED_ORDERED_PROPERTIES::contains);
     }
@@ -1,32 +1,50 @@
 package org.dev4tests.computerdb.web.rest;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Pattern;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.*;
 import java.util.Collections;
 import org.dev4tests.computerdb.config.Constants;
 import org.dev4tests.computerdb.domain.User;
+import org.dev4tests.computerdb.repository.UserKeyFilter;
 import org.dev4tests.computerdb.repository.UserRepository;
 import org.dev4tests.computerdb.security.AuthoritiesConstants;
 import org.dev4tests.computerdb.service.MailService;
+import org.dev4tests.computerdb.service.UserCountService;
+import org.dev4tests.computerdb.service.UserExportService;
+import org.dev4tests.computerdb.service.UserFileFormat;
+import org.dev4tests.computerdb.service.UserImportService;
 import org.dev4tests.computerdb.service.UserService;
 import org.dev4tests.computerdb.service.dto.AdminUserDTO;
+import org.dev4tests.computerdb.service.dto.UserImportResultDTO;
 import org.dev4tests.computerdb.web.rest.errors.BadRequestAlertException;
 import org.dev4tests.computerdb.web.rest.errors.EmailAlreadyUsedException;
 import org.dev4tests.computerdb.web.rest.errors.LoginAlreadyUsedException;
+import org.dev4tests.computerdb.web.rest.util.KeysetPaginationUtil;
+import org.dev4tests.computerdb.web.rest.util.SlicePaginationUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
@@ -54,7 +72,8 @@ import tech.jhipster.web.util.ResponseUtil;
  * <li> As this manages users, for security reasons, we'd rather have a DTO layer.</li>
  * </ul>
  * <p>
- * Another option would be to have a specific JPA entity graph to handle this case.
+ * The listings avoid those n+1 requests anyway with a two-phase fetch: the ids of a page are selected first, then
+ * the users of the page are loaded with their authorities by a single JPA entity graph query.
  */
 @RestController
 @RequestMapping("/api/admin")
@@ -85,12 +104,36 @@ public class UserResource {
 
     private final UserRepository userRepository;
 
+    private final UserKeyFilter userKeyFilter;
+
     private final MailService mailService;
 
-    public UserResource(UserService userService, UserRepository userRepository, MailService mailService) {
+    private final UserCountService userCountService;
+
+    private final UserImportService userImportService;
+
+    private final UserExportService userExportService;
+
+    private final ObjectMapper objectMapper;
+
+    public UserResource(
+        UserService userService,
+        UserRepository userRepository,
+        UserKeyFilter userKeyFilter,
+        MailService mailService,
+        UserCountService userCountService,
+        UserImportService userImportService,
+        UserExportService userExportService,
+        ObjectMapper objectMapper
+    ) {
         this.userService = userService;
         this.userRepository = userRepository;
+        this.userKeyFilter = userKeyFilter;
         this.mailService = mailService;
+        this.userCountService = userCountService;
+        this.userImportService = userImportService;
+        this.userExportService = userExportService;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -112,10 +155,9 @@ public class UserResource {
 
         if (userDTO.getId() != null) {
             throw new BadRequestAlertException("A new user cannot already have an ID", "userManagement", "idexists");
-            // Lowercase the user login before comparing with database
-        } else if (userRepository.findOneByLogin(userDTO.getLogin().toLowerCase()).isPresent()) {
+        } else if (isLoginUsed(userDTO.getLogin())) {
             throw new LoginAlreadyUsedException();
-        } else if (userRepository.findOneByEmailIgnoreCase(userDTO.getEmail()).isPresent()) {
+        } else if (isEmailUsed(userDTO.getEmail())) {
             throw new EmailAlreadyUsedException();
         } else {
             User newUser = userService.createUser(userDTO);
@@ -127,6 +169,63 @@ public class UserResource {
         }
     }
 
+    private boolean isLoginUsed(String login) {
+        // Lowercase the user login before comparing with database
+        return userKeyFilter.mightContainLogin(login) && userRepository.findOneByLogin(login.toLowerCase()).isPresent();
+    }
+
+    private boolean isEmailUsed(String email) {
+        return userKeyFilter.mightContainEmail(email) && userRepository.findOneByEmailIgnoreCase(email).isPresent();
+    }
+
+    /**
+     * {@code POST  /admin/users/import}  : Creates users in bulk.
+     * <p>
+     * The request body holds one user per line, either as JSON objects ({@code application/x-ndjson}) or as CSV lines
+     * after a header line naming the columns ({@code text/csv}). Users are created like with {@code POST /admin/users}.
+     * <p>
+     * The response is streamed while the import goes on, with one JSON result per non-empty input line, telling
+     * whether the user was created or why it was rejected.
+     *
+     * @param sendEmails whether to send a creation email to the created users.
+     * @param request the HTTP request, holding the users to import.
+     * @param response the HTTP response, to stream the results to.
+     * @throws IOException if the users cannot be read or the results cannot be written.
+     */
+    @PostMapping(value = "/users/import", consumes = { MediaType.APPLICATION_NDJSON_VALUE, "text/csv" })
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public void importUsers(
+        @RequestParam(value = "sendEmails", defaultValue = "false") boolean sendEmails,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) throws IOException {
+        log.debug("REST request to import Users");
+        MediaType contentType = MediaType.parseMediaType(request.getContentType());
+        UserFileFormat format = MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)
+            ? UserFileFormat.NDJSON
+            : UserFileFormat.CSV;
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        OutputStream out = response.getOutputStream();
+        try {
+            userImportService.importUsers(request.getInputStream(), format, sendEmails, results -> writeResults(out, results));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void writeResults(OutputStream out, List<UserImportResultDTO> results) {
+        try {
+            for (UserImportResultDTO result : results) {
+                out.write(objectMapper.writeValueAsBytes(result));
+                out.write('\n');
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     /**
      * {@code PUT /admin/users} : Updates an existing User.
      *
@@ -174,6 +273,102 @@ public class UserResource {
         return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
     }
 
+    /**
+     * {@code GET /admin/users?skipCount=true} : get a page of users with all the details, without counting them - calling this are only allowed for the administrators.
+     * <p>
+     * The {@code X-Has-Next} header tells whether there is a next page.
+     *
+     * @param approximateCount whether to return an approximate number of users in the {@code X-Total-Count-Approximate} header.
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the users of the page.
+     */
+    @GetMapping(
+        value = "/users",
+        params = { SlicePaginationUtil.SKIP_COUNT_PARAMETER + "=true", "!" + KeysetPaginationUtil.AFTER_PARAMETER }
+    )
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<List<AdminUserDTO>> getAllUsersWithoutCount(
+        @RequestParam(value = SlicePaginationUtil.APPROXIMATE_COUNT_PARAMETER, defaultValue = "false") boolean approximateCount,
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable
+    ) {
+        log.debug("REST request to get a slice of User for an admin");
+        if (!onlyContainsAllowedProperties(pageable)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        final Slice<AdminUserDTO> slice = userService.getAllManagedUsersSlice(pageable);
+        HttpHeaders headers = SlicePaginationUtil.generateSliceHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            slice,
+            approximateCount ? userCountService.getApproximateManagedUserCount() : null
+        );
+        return new ResponseEntity<>(slice.getContent(), headers, HttpStatus.OK);
+    }
+
+    /**
+     * {@code GET /admin/users?after=:cursor} : get a page of users with all the details, using keyset pagination - calling this are only allowed for the administrators.
+     * <p>
+     * The page starts right after the last user of the previous one instead of at an offset, so its latency does not depend on its depth.
+     * Start with an empty cursor, then follow the {@code next} link of the {@code Link} header.
+     *
+     * @param after the cursor of the previous page, empty for the first page.
+     * @param count whether to return the total number of users in the {@code X-Total-Count} header.
+     * @param pageable the pagination information, sorted on a single property.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the users of the page, or with status {@code 400 (Bad Request)} if the cursor or the sort is invalid.
+     */
+    @GetMapping(value = "/users", params = KeysetPaginationUtil.AFTER_PARAMETER)
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<List<AdminUserDTO>> getAllUsersAfter(
+        @RequestParam(value = KeysetPaginationUtil.AFTER_PARAMETER, required = false) String after,
+        @RequestParam(value = KeysetPaginationUtil.COUNT_PARAMETER, defaultValue = "false") boolean count,
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable
+    ) {
+        log.debug("REST request to get a keyset page of User for an admin");
+        if (!onlyContainsAllowedProperties(pageable) || pageable.getSort().stream().count() > 1) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        final Slice<AdminUserDTO> slice = userService.getAllManagedUsersAfter(KeysetPaginationUtil.decodeCursor(after), pageable);
+        Long lastId = slice.hasContent() ? slice.getContent().get(slice.getNumberOfElements() - 1).getId() : null;
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            slice,
+            lastId,
+            count ? userService.countManagedUsers() : null
+        );
+        return new ResponseEntity<>(slice.getContent(), headers, HttpStatus.OK);
+    }
+
+    /**
+     * {@code GET /admin/export/users} : export all users with all the details - calling this are only allowed for the administrators.
+     * <p>
+     * Users are streamed to the response one per line, as JSON objects or as CSV lines after a header line.
+     *
+     * @param format the format of the export, {@code ndjson} or {@code csv}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body all users, or with status {@code 400 (Bad Request)} if the format is unknown.
+     */
+    @GetMapping("/export/users")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(value = "format", defaultValue = "ndjson") String format) {
+        log.debug("REST request to export all Users as {}", format);
+        UserFileFormat userFileFormat = Arrays
+            .stream(UserFileFormat.values())
+            .filter(value -> value.name().equalsIgnoreCase(format))
+            .findFirst()
+            .orElse(null);
+        if (userFileFormat == null) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        MediaType mediaType = userFileFormat == UserFileFormat.CSV ? new MediaType("text", "csv") : MediaType.APPLICATION_NDJSON;
+        ContentDisposition contentDisposition = ContentDisposition
+            .attachment()
+            .filename("users." + userFileFormat.name().toLowerCase(Locale.ROOT))
+            .build();
+        StreamingResponseBody body = out -> userExportService.exportUsers(out, userFileFormat);
+        return ResponseEntity.ok().contentType(mediaType).header(HttpHeaders.CONTENT_DISPOSITION, contentDisposition.toString()).body(body);
+    }
+
     private boolean onlyContainsAllowedProperties(Pageable pageable) {
         return pageable.getSort().stream().map(Sort.Order::getProperty).allMatch(ALLOWED_ORDERED_PROPERTIES::contains);
     }
@@ -10,6 +10,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import org.apache.commons.lang3.StringUtils;
+import org.dev4tests.computerdb.security.LoginThrottledException;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.env.Environment;
 import org.springframework.dao.ConcurrencyFailureException;
@@ -90,6 +91,9 @@ public class ExceptionTranslator extends ResponseEntityExceptionHandler {
         if (
             ex instanceof org.dev4tests.computerdb.service.InvalidPasswordException
         ) return (ProblemDetailWithCause) new InvalidPasswordException().getBody();
+        if (
+            ex instanceof org.dev4tests.computerdb.service.InvalidCursorException
+        ) return (ProblemDetailWithCause) new InvalidCursorException().getBody();
 
         if (
             ex instanceof ErrorResponseException exp && exp.getBody() instanceof ProblemDetailWithCause problemDetailWithCause
@@ -224,6 +228,13 @@ public class ExceptionTranslator extends ResponseEntityExceptionHandler {
     }
 
     private HttpHeaders buildHeaders(Throwable err) {
+        if (err instanceof LoginThrottledException loginThrottledException) {
+            HttpHeaders headers = new HttpHeaders();
+            // Retry-After is in whole seconds, rounded up so that the retry is not rejected again
+            long retryAfterSeconds = (loginThrottledException.getRetryAfter().toMillis() + 999) / 1000;
+            headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            return headers;
+        }
         return err instanceof BadRequestAlertException badRequestAlertException
             ? HeaderUtil.createFailureAlert(
                 applicationName,
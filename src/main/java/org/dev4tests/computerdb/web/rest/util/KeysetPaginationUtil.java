@@ -0,0 +1,88 @@
+package org.dev4tests.computerdb.web.rest.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import org.dev4tests.computerdb.web.rest.errors.InvalidCursorException;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Utility class for handling keyset pagination.
+ * <p>
+ * Cursors are opaque to the clients: they should only follow the {@code next} link of the
+ * <a href="https://tools.ietf.org/html/rfc5988">Link header</a>, which is absent on the last page.
+ */
+public final class KeysetPaginationUtil {
+
+    public static final String AFTER_PARAMETER = "after";
+
+    public static final String COUNT_PARAMETER = "count";
+
+    private static final String HEADER_X_TOTAL_COUNT = "X-Total-Count";
+
+    private static final String HEADER_LINK_FORMAT = "<%s>; rel=\"%s\"";
+
+    private static final String CURSOR_PREFIX = "v1:";
+
+    private KeysetPaginationUtil() {}
+
+    /**
+     * Encode the id of the last element of a page into an opaque cursor.
+     *
+     * @param id the id of the last element of the page.
+     * @return the cursor.
+     */
+    public static String encodeCursor(Long id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString((CURSOR_PREFIX + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor returned by {@link #encodeCursor(Long)}.
+     *
+     * @param cursor the cursor, empty for the first page.
+     * @return the id of the last element of the previous page, or {@code null} for the first page.
+     * @throws InvalidCursorException {@code 400 (Bad Request)} if the cursor is malformed.
+     */
+    public static Long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(CURSOR_PREFIX)) {
+                throw new InvalidCursorException();
+            }
+            return Long.valueOf(decoded.substring(CURSOR_PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException();
+        }
+    }
+
+    /**
+     * Generate keyset pagination headers for a Spring Data {@link Slice} object.
+     *
+     * @param uriBuilder the URI builder of the current request.
+     * @param slice the page.
+     * @param lastId the id of the last element of the page.
+     * @param totalCount the total number of elements, or {@code null} if it was not requested.
+     * @return the {@link HttpHeaders}.
+     */
+    public static HttpHeaders generateKeysetHttpHeaders(UriComponentsBuilder uriBuilder, Slice<?> slice, Long lastId, Long totalCount) {
+        HttpHeaders headers = new HttpHeaders();
+        if (totalCount != null) {
+            headers.add(HEADER_X_TOTAL_COUNT, Long.toString(totalCount));
+        }
+        StringBuilder link = new StringBuilder();
+        if (slice.hasNext() && lastId != null) {
+            link.append(prepareLink(uriBuilder, encodeCursor(lastId), "next")).append(",");
+        }
+        link.append(prepareLink(uriBuilder, "", "first"));
+        headers.add(HttpHeaders.LINK, link.toString());
+        return headers;
+    }
+
+    private static String prepareLink(UriComponentsBuilder uriBuilder, String cursor, String relType) {
+        return String.format(HEADER_LINK_FORMAT, uriBuilder.replaceQueryParam(AFTER_PARAMETER, cursor).toUriString(), relType);
+    }
+}
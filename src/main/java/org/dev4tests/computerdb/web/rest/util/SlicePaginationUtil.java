@@ -0,0 +1,62 @@
+package org.dev4tests.computerdb.web.rest.util;
+
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Utility class for handling pagination without a total count.
+ * <p>
+ * Instead of {@code X-Total-Count}, the {@code X-Has-Next} header tells whether there is a next page,
+ * and the <a href="https://tools.ietf.org/html/rfc5988">Link header</a> has no {@code last} link.
+ */
+public final class SlicePaginationUtil {
+
+    public static final String SKIP_COUNT_PARAMETER = "skipCount";
+
+    public static final String APPROXIMATE_COUNT_PARAMETER = "approximateCount";
+
+    private static final String HEADER_X_HAS_NEXT = "X-Has-Next";
+
+    private static final String HEADER_X_TOTAL_COUNT_APPROXIMATE = "X-Total-Count-Approximate";
+
+    private static final String HEADER_LINK_FORMAT = "<%s>; rel=\"%s\"";
+
+    private SlicePaginationUtil() {}
+
+    /**
+     * Generate pagination headers for a Spring Data {@link Slice} object.
+     *
+     * @param uriBuilder the URI builder of the current request.
+     * @param slice the page.
+     * @param approximateCount the approximate total number of elements, or {@code null} if it was not requested.
+     * @return the {@link HttpHeaders}.
+     */
+    public static HttpHeaders generateSliceHttpHeaders(UriComponentsBuilder uriBuilder, Slice<?> slice, Long approximateCount) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HEADER_X_HAS_NEXT, Boolean.toString(slice.hasNext()));
+        if (approximateCount != null) {
+            headers.add(HEADER_X_TOTAL_COUNT_APPROXIMATE, Long.toString(approximateCount));
+        }
+        int pageNumber = slice.getNumber();
+        int pageSize = slice.getSize();
+        StringBuilder link = new StringBuilder();
+        if (slice.hasNext()) {
+            link.append(prepareLink(uriBuilder, pageNumber + 1, pageSize, "next")).append(",");
+        }
+        if (slice.hasPrevious()) {
+            link.append(prepareLink(uriBuilder, pageNumber - 1, pageSize, "prev")).append(",");
+        }
+        link.append(prepareLink(uriBuilder, 0, pageSize, "first"));
+        headers.add(HttpHeaders.LINK, link.toString());
+        return headers;
+    }
+
+    private static String prepareLink(UriComponentsBuilder uriBuilder, int pageNumber, int pageSize, String relType) {
+        String uri = uriBuilder
+            .replaceQueryParam("page", Integer.toString(pageNumber))
+            .replaceQueryParam("size", Integer.toString(pageSize))
+            .toUriString();
+        return String.format(HEADER_LINK_FORMAT, uri, relType);
+    }
+}
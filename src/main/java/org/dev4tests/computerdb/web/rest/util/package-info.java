@@ -0,0 +1,4 @@
+/**
+ * Rest layer utilities.
+ */
+package org.dev4tests.computerdb.web.rest.util;
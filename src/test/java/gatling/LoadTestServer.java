@@ -0,0 +1,125 @@
+package gatling;
+
+import com.icegreen.greenmail.store.FolderException;
+import com.icegreen.greenmail.store.StoredMessage;
+import com.icegreen.greenmail.user.GreenMailUser;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import jakarta.mail.MessagingException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.dev4tests.computerdb.ComputerDbApp;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+/**
+ * Starts the application for the Gatling simulations, with the "testdev" and "loadtest" profiles, and an in-process
+ * GreenMail SMTP server receiving its emails.
+ * <p>
+ * The activation and reset keys sent by email are served by a mailbox stub, so that the simulations can follow the
+ * registration and password reset flows: {@code GET /keys/{email}?link=account/activate} returns the key of the last
+ * email sent to the address with such a link, waiting up to 10 seconds for it, or responds with 404.
+ * <p>
+ * Start the server, then run the simulations from another terminal:
+ * <pre>
+ * ./mvnw test-compile exec:java -Dexec.mainClass=gatling.LoadTestServer -Dexec.classpathScope=test
+ * ./mvnw gatling:test -Dusers=100 -Dramp=60
+ * </pre>
+ */
+public final class LoadTestServer {
+
+    private static final int MAILBOX_PORT = Integer.getInteger("mailboxPort", 10345);
+
+    private static final long KEY_TIMEOUT_MILLIS = 10_000;
+
+    private static final long KEY_POLL_MILLIS = 50;
+
+    private static final Pattern KEY = Pattern.compile("\\?key=([A-Za-z0-9]+)");
+
+    private LoadTestServer() {}
+
+    public static void main(String[] args) throws IOException {
+        GreenMail greenMail = new GreenMail(ServerSetupTest.SMTP);
+        greenMail.start();
+        startMailbox(greenMail);
+        new SpringApplicationBuilder(ComputerDbApp.class).profiles("testdev", "loadtest").run(args);
+    }
+
+    private static void startMailbox(GreenMail greenMail) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", MAILBOX_PORT), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/keys/", exchange -> serveKey(greenMail, exchange));
+        server.start();
+    }
+
+    private static void serveKey(GreenMail greenMail, HttpExchange exchange) throws IOException {
+        try {
+            String email = URLDecoder.decode(exchange.getRequestURI().getPath().substring("/keys/".length()), StandardCharsets.UTF_8);
+            String query = Optional.ofNullable(exchange.getRequestURI().getQuery()).orElse("");
+            String link = URLDecoder.decode(query.replaceFirst("^link=", ""), StandardCharsets.UTF_8);
+            Optional<String> key = awaitKey(greenMail, email, link);
+            if (key.isPresent()) {
+                respond(exchange, 200, key.orElseThrow());
+            } else {
+                respond(exchange, 404, "No email to " + email + " with a link to " + link);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static Optional<String> awaitKey(GreenMail greenMail, String email, String link) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + KEY_TIMEOUT_MILLIS;
+        do {
+            Optional<String> key = findKey(greenMail, email, link);
+            if (key.isPresent()) {
+                return key;
+            }
+            Thread.sleep(KEY_POLL_MILLIS);
+        } while (System.currentTimeMillis() < deadline);
+        return Optional.empty();
+    }
+
+    private static Optional<String> findKey(GreenMail greenMail, String email, String link) {
+        GreenMailUser user = greenMail.getUserManager().getUserByEmail(email);
+        if (user == null) {
+            return Optional.empty();
+        }
+        try {
+            List<StoredMessage> messages = greenMail.getManagers().getImapHostManager().getInbox(user).getMessages();
+            for (int i = messages.size() - 1; i >= 0; i--) {
+                String content = messages.get(i).getMimeMessage().getContent().toString();
+                int index = content.indexOf(link + "?key=");
+                if (index >= 0) {
+                    Matcher matcher = KEY.matcher(content);
+                    if (matcher.find(index)) {
+                        return Optional.of(matcher.group(1));
+                    }
+                }
+            }
+            return Optional.empty();
+        } catch (FolderException | MessagingException | IOException e) {
+            throw new IllegalStateException("Could not read the emails to " + email, e);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
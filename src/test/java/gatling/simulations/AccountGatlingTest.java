@@ -0,0 +1,34 @@
+package gatling.simulations;
+
+import static io.gatling.javaapi.core.CoreDsl.exec;
+import static io.gatling.javaapi.core.CoreDsl.repeat;
+import static io.gatling.javaapi.core.CoreDsl.scenario;
+import static io.gatling.javaapi.http.HttpDsl.http;
+import static io.gatling.javaapi.http.HttpDsl.status;
+
+import io.gatling.javaapi.core.ScenarioBuilder;
+import io.gatling.javaapi.core.Simulation;
+import java.time.Duration;
+
+/**
+ * Login, then load of the account on each page, as the client application does.
+ */
+public class AccountGatlingTest extends Simulation {
+
+    ScenarioBuilder scenario = scenario("Login and account")
+        .exec(LoadTestSettings.authenticate(LoadTestSettings.USER_LOGIN, LoadTestSettings.USER_PASSWORD))
+        .pause(Duration.ofSeconds(1))
+        .exec(
+            repeat(10)
+                .on(
+                    exec(http("Get the account").get("/api/account").header("Authorization", "Bearer #{token}").check(status().is(200)))
+                        .pause(Duration.ofMillis(500), Duration.ofSeconds(2))
+                )
+        );
+
+    {
+        setUp(scenario.injectOpen(LoadTestSettings.injection()))
+            .protocols(LoadTestSettings.httpProtocol())
+            .assertions(LoadTestSettings.assertions());
+    }
+}
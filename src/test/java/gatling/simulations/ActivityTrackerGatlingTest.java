@@ -0,0 +1,53 @@
+package gatling.simulations;
+
+import static io.gatling.javaapi.core.CoreDsl.exec;
+import static io.gatling.javaapi.core.CoreDsl.regex;
+import static io.gatling.javaapi.core.CoreDsl.repeat;
+import static io.gatling.javaapi.core.CoreDsl.scenario;
+import static io.gatling.javaapi.http.HttpDsl.ws;
+
+import io.gatling.javaapi.core.ScenarioBuilder;
+import io.gatling.javaapi.core.Simulation;
+import java.time.Duration;
+
+/**
+ * Activity tracking over the websocket: each user connects to the STOMP endpoint, as a plain websocket client of the
+ * SockJS endpoint, subscribes to the tracker, then reports its page views and gets them back from the broker.
+ */
+public class ActivityTrackerGatlingTest extends Simulation {
+
+    private static final String END_OF_FRAME = "\u0000";
+
+    ScenarioBuilder scenario = scenario("Activity tracking")
+        .exec(LoadTestSettings.authenticate(LoadTestSettings.USER_LOGIN, LoadTestSettings.USER_PASSWORD))
+        .exec(ws("Connect").connect("/websocket/tracker/websocket?access_token=#{token}"))
+        .exec(
+            ws("STOMP connect")
+                .sendText("CONNECT\naccept-version:1.2\nheart-beat:0,0\n\n" + END_OF_FRAME)
+                .await(Duration.ofSeconds(5))
+                .on(ws.checkTextMessage("Connected").check(regex("^CONNECTED")))
+        )
+        .exec(ws("Subscribe").sendText("SUBSCRIBE\nid:sub-0\ndestination:/topic/tracker\n\n" + END_OF_FRAME))
+        .exec(
+            repeat(10, "view")
+                .on(
+                    exec(
+                        ws("Send the activity")
+                            .sendText(
+                                "SEND\ndestination:/topic/activity\ncontent-type:application/json\n\n{\"page\":\"page-#{view}\"}" +
+                                END_OF_FRAME
+                            )
+                            .await(Duration.ofSeconds(5))
+                            .on(ws.checkTextMessage("Tracked").check(regex("^MESSAGE[\\s\\S]*\"page\":\"page-")))
+                    )
+                        .pause(Duration.ofSeconds(1), Duration.ofSeconds(3))
+                )
+        )
+        .exec(ws("Close").close());
+
+    {
+        setUp(scenario.injectOpen(LoadTestSettings.injection()))
+            .protocols(LoadTestSettings.httpProtocol())
+            .assertions(LoadTestSettings.assertions());
+    }
+}
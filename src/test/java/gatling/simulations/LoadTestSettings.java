@@ -0,0 +1,124 @@
+package gatling.simulations;
+
+import static io.gatling.javaapi.core.CoreDsl.StringBody;
+import static io.gatling.javaapi.core.CoreDsl.bodyString;
+import static io.gatling.javaapi.core.CoreDsl.exec;
+import static io.gatling.javaapi.core.CoreDsl.global;
+import static io.gatling.javaapi.core.CoreDsl.jsonPath;
+import static io.gatling.javaapi.core.CoreDsl.rampUsers;
+import static io.gatling.javaapi.http.HttpDsl.http;
+import static io.gatling.javaapi.http.HttpDsl.status;
+
+import io.gatling.javaapi.core.Assertion;
+import io.gatling.javaapi.core.ChainBuilder;
+import io.gatling.javaapi.core.OpenInjectionStep;
+import io.gatling.javaapi.http.HttpProtocolBuilder;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Settings shared by the simulations, overridden with system properties:
+ * <ul>
+ *     <li>{@code baseURL}: the application, {@code http://localhost:10344} as started by {@link gatling.LoadTestServer}</li>
+ *     <li>{@code mailboxURL}: the mailbox stub of the {@link gatling.LoadTestServer}</li>
+ *     <li>{@code users}: the number of users of each simulation</li>
+ *     <li>{@code ramp}: the duration in seconds over which the users start</li>
+ *     <li>{@code p95} and {@code p99}: the maximum 95th and 99th percentiles of the response times, in milliseconds</li>
+ *     <li>{@code maxErrorPercent}: the maximum percentage of failed requests</li>
+ * </ul>
+ */
+final class LoadTestSettings {
+
+    static final String BASE_URL = System.getProperty("baseURL", "http://localhost:10344");
+
+    static final String MAILBOX_URL = System.getProperty("mailboxURL", "http://localhost:10345");
+
+    static final int USERS = Integer.getInteger("users", 100);
+
+    static final Duration RAMP = Duration.ofSeconds(Long.getLong("ramp", 30));
+
+    static final int P95 = Integer.getInteger("p95", 500);
+
+    static final int P99 = Integer.getInteger("p99", 1000);
+
+    static final double MAX_ERROR_PERCENT = Double.parseDouble(System.getProperty("maxErrorPercent", "1"));
+
+    static final String ADMIN_LOGIN = "admin";
+
+    static final String ADMIN_PASSWORD = "admin";
+
+    static final String USER_LOGIN = "user";
+
+    static final String USER_PASSWORD = "user";
+
+    private LoadTestSettings() {}
+
+    static HttpProtocolBuilder httpProtocol() {
+        return http
+            .baseUrl(BASE_URL)
+            .wsBaseUrl(BASE_URL.replaceFirst("^http", "ws"))
+            .acceptHeader("application/json")
+            .acceptEncodingHeader("gzip, deflate")
+            .acceptLanguageHeader("en-US,en;q=0.5")
+            .userAgentHeader("Gatling")
+            .shareConnections();
+    }
+
+    static OpenInjectionStep injection() {
+        return rampUsers(USERS).during(RAMP);
+    }
+
+    static Assertion[] assertions() {
+        return new Assertion[] {
+            global().responseTime().percentile(95).lt(P95),
+            global().responseTime().percentile(99).lt(P99),
+            global().failedRequests().percent().lte(MAX_ERROR_PERCENT),
+        };
+    }
+
+    /**
+     * Feeder of new accounts, with a unique login and email, and a password.
+     */
+    static Iterator<Map<String, Object>> newAccounts() {
+        return Stream
+            .generate(() -> {
+                String login = "gatling-" + UUID.randomUUID();
+                return Map.<String, Object>of("login", login, "email", login + "@example.com", "password", "gatling-password");
+            })
+            .iterator();
+    }
+
+    /**
+     * Authenticate, saving the token in the {@code token} session attribute.
+     */
+    static ChainBuilder authenticate(String login, String password) {
+        return exec(
+            http("Authenticate")
+                .post("/api/authenticate")
+                .body(StringBody("{\"username\":\"" + login + "\",\"password\":\"" + password + "\"}"))
+                .asJson()
+                .check(status().is(200))
+                .check(jsonPath("$.id_token").saveAs("token"))
+        )
+            .exitHereIfFailed();
+    }
+
+    /**
+     * Wait for the email with a link to the path to be sent to the {@code email} of the session, and save its key in
+     * the session attribute. The request to the mailbox stub is not part of the statistics, a missing email fails the
+     * next request using the key.
+     */
+    static ChainBuilder awaitMailKey(String path, String attribute) {
+        return exec(
+            http("Mailbox")
+                .get(MAILBOX_URL + "/keys/#{email}")
+                .queryParam("link", path)
+                .silent()
+                .check(status().is(200))
+                .check(bodyString().saveAs(attribute))
+        );
+    }
+}
@@ -0,0 +1,57 @@
+package gatling.simulations;
+
+import static io.gatling.javaapi.core.CoreDsl.StringBody;
+import static io.gatling.javaapi.core.CoreDsl.scenario;
+import static io.gatling.javaapi.http.HttpDsl.http;
+import static io.gatling.javaapi.http.HttpDsl.status;
+
+import io.gatling.javaapi.core.ScenarioBuilder;
+import io.gatling.javaapi.core.Simulation;
+import java.time.Duration;
+
+/**
+ * Password reset of an account, with the key sent by email, then login with the new password.
+ * <p>
+ * Each user first registers and activates its own account, so that the resets do not compete for the same user.
+ */
+public class PasswordResetGatlingTest extends Simulation {
+
+    ScenarioBuilder scenario = scenario("Password reset")
+        .feed(LoadTestSettings.newAccounts())
+        .exec(
+            http("Register")
+                .post("/api/register")
+                .body(StringBody("{\"login\":\"#{login}\",\"email\":\"#{email}\",\"password\":\"#{password}\",\"langKey\":\"en\"}"))
+                .asJson()
+                .check(status().is(201))
+        )
+        .exitHereIfFailed()
+        .exec(LoadTestSettings.awaitMailKey("account/activate", "activationKey"))
+        .exec(http("Activate").get("/api/activate").queryParam("key", "#{activationKey}").check(status().is(200)))
+        .exitHereIfFailed()
+        .pause(Duration.ofSeconds(1))
+        .exec(
+            http("Request a password reset")
+                .post("/api/account/reset-password/init")
+                .header("Content-Type", "text/plain")
+                .body(StringBody("#{email}"))
+                .check(status().is(200))
+        )
+        .exec(LoadTestSettings.awaitMailKey("account/reset/finish", "resetKey"))
+        .pause(Duration.ofSeconds(1))
+        .exec(
+            http("Finish the password reset")
+                .post("/api/account/reset-password/finish")
+                .body(StringBody("{\"key\":\"#{resetKey}\",\"newPassword\":\"new-#{password}\"}"))
+                .asJson()
+                .check(status().is(200))
+        )
+        .exitHereIfFailed()
+        .exec(LoadTestSettings.authenticate("#{login}", "new-#{password}"));
+
+    {
+        setUp(scenario.injectOpen(LoadTestSettings.injection()))
+            .protocols(LoadTestSettings.httpProtocol())
+            .assertions(LoadTestSettings.assertions());
+    }
+}
@@ -0,0 +1,39 @@
+package gatling.simulations;
+
+import static io.gatling.javaapi.core.CoreDsl.StringBody;
+import static io.gatling.javaapi.core.CoreDsl.scenario;
+import static io.gatling.javaapi.http.HttpDsl.http;
+import static io.gatling.javaapi.http.HttpDsl.status;
+
+import io.gatling.javaapi.core.ScenarioBuilder;
+import io.gatling.javaapi.core.Simulation;
+import java.time.Duration;
+
+/**
+ * Registration of a new account, activation with the key sent by email, then first login.
+ */
+public class RegistrationGatlingTest extends Simulation {
+
+    ScenarioBuilder scenario = scenario("Registration and activation")
+        .feed(LoadTestSettings.newAccounts())
+        .exec(
+            http("Register")
+                .post("/api/register")
+                .body(StringBody("{\"login\":\"#{login}\",\"email\":\"#{email}\",\"password\":\"#{password}\",\"langKey\":\"en\"}"))
+                .asJson()
+                .check(status().is(201))
+        )
+        .exitHereIfFailed()
+        .exec(LoadTestSettings.awaitMailKey("account/activate", "activationKey"))
+        .pause(Duration.ofSeconds(1))
+        .exec(http("Activate").get("/api/activate").queryParam("key", "#{activationKey}").check(status().is(200)))
+        .exitHereIfFailed()
+        .exec(LoadTestSettings.authenticate("#{login}", "#{password}"))
+        .exec(http("Get the account").get("/api/account").header("Authorization", "Bearer #{token}").check(status().is(200)));
+
+    {
+        setUp(scenario.injectOpen(LoadTestSettings.injection()))
+            .protocols(LoadTestSettings.httpProtocol())
+            .assertions(LoadTestSettings.assertions());
+    }
+}
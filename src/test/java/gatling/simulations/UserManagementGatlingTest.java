@@ -0,0 +1,115 @@
+package gatling.simulations;
+
+import static io.gatling.javaapi.core.CoreDsl.StringBody;
+import static io.gatling.javaapi.core.CoreDsl.asLongAs;
+import static io.gatling.javaapi.core.CoreDsl.exec;
+import static io.gatling.javaapi.core.CoreDsl.jsonPath;
+import static io.gatling.javaapi.core.CoreDsl.repeat;
+import static io.gatling.javaapi.core.CoreDsl.scenario;
+import static io.gatling.javaapi.http.HttpDsl.headerRegex;
+import static io.gatling.javaapi.http.HttpDsl.http;
+import static io.gatling.javaapi.http.HttpDsl.status;
+
+import io.gatling.javaapi.core.ChainBuilder;
+import io.gatling.javaapi.core.ScenarioBuilder;
+import io.gatling.javaapi.core.Simulation;
+import java.time.Duration;
+
+/**
+ * Administration of the users: paging through them with the three kinds of pagination, then creation, update and
+ * deletion of a user.
+ */
+public class UserManagementGatlingTest extends Simulation {
+
+    private static final int PAGES = 5;
+
+    private static final String NEXT_CURSOR = "<[^>]*[?&]after=([A-Za-z0-9_-]+)[^>]*>; rel=\"next\"";
+
+    private static final String USER_BODY =
+        "{\"login\":\"#{login}\",\"email\":\"#{email}\",\"firstName\":\"#{firstName}\",\"lastName\":\"Gatling\"," +
+        "\"activated\":true,\"langKey\":\"en\",\"authorities\":[\"ROLE_USER\"]";
+
+    ChainBuilder offsetPages = repeat(PAGES, "page")
+        .on(
+            exec(
+                http("Get a page of users")
+                    .get("/api/admin/users?page=#{page}&size=20&sort=id,asc")
+                    .header("Authorization", "Bearer #{token}")
+                    .check(status().is(200))
+            )
+                .pause(Duration.ofMillis(200))
+        );
+
+    ChainBuilder slicePages = repeat(PAGES, "page")
+        .on(
+            exec(
+                http("Get a slice of users")
+                    .get("/api/admin/users?skipCount=true&approximateCount=true&page=#{page}&size=20&sort=id,asc")
+                    .header("Authorization", "Bearer #{token}")
+                    .check(status().is(200))
+            )
+                .pause(Duration.ofMillis(200))
+        );
+
+    ChainBuilder keysetPages = exec(session -> session.set("after", ""))
+        .exec(
+            asLongAs(session -> session.contains("after") && session.getInt("page") < PAGES, "page")
+                .on(
+                    exec(session -> session.set("cursor", session.getString("after")).remove("after"))
+                        .exec(
+                            http("Get a keyset page of users")
+                                .get("/api/admin/users?after=#{cursor}&size=20&sort=id,asc")
+                                .header("Authorization", "Bearer #{token}")
+                                .check(status().is(200))
+                                .check(headerRegex("Link", NEXT_CURSOR).optional().saveAs("after"))
+                        )
+                        .pause(Duration.ofMillis(200))
+                )
+        );
+
+    ChainBuilder crud = exec(session -> session.set("firstName", "Created"))
+        .exec(
+            http("Create a user")
+                .post("/api/admin/users")
+                .header("Authorization", "Bearer #{token}")
+                .body(StringBody(USER_BODY + "}"))
+                .asJson()
+                .check(status().is(201))
+                .check(jsonPath("$.id").saveAs("userId"))
+        )
+        .exitHereIfFailed()
+        .pause(Duration.ofMillis(500))
+        .exec(
+            http("Get the user")
+                .get("/api/admin/users/#{login}")
+                .header("Authorization", "Bearer #{token}")
+                .check(status().is(200))
+        )
+        .exec(session -> session.set("firstName", "Updated"))
+        .exec(
+            http("Update the user")
+                .put("/api/admin/users")
+                .header("Authorization", "Bearer #{token}")
+                .body(StringBody(USER_BODY + ",\"id\":#{userId}}"))
+                .asJson()
+                .check(status().is(200))
+        )
+        .pause(Duration.ofMillis(500))
+        .exec(
+            http("Delete the user")
+                .delete("/api/admin/users/#{login}")
+                .header("Authorization", "Bearer #{token}")
+                .check(status().is(204))
+        );
+
+    ScenarioBuilder scenario = scenario("User management")
+        .feed(LoadTestSettings.newAccounts())
+        .exec(LoadTestSettings.authenticate(LoadTestSettings.ADMIN_LOGIN, LoadTestSettings.ADMIN_PASSWORD))
+        .exec(offsetPages, slicePages, keysetPages, crud);
+
+    {
+        setUp(scenario.injectOpen(LoadTestSettings.injection()))
+            .protocols(LoadTestSettings.httpProtocol())
+            .assertions(LoadTestSettings.assertions());
+    }
+}
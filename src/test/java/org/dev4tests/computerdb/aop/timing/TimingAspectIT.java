@@ -0,0 +1,81 @@
+package org.dev4tests.computerdb.aop.timing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.dev4tests.computerdb.IntegrationTest;
+import org.dev4tests.computerdb.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Integration tests for {@link TimingAspect} and {@link TimingEndpoint}.
+ */
+@IntegrationTest
+class TimingAspectIT {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TimingEndpoint timingEndpoint;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    public void cleanup() {
+        timingEndpoint.update(true, 1.0);
+    }
+
+    @Test
+    void testTimesServiceMethods() {
+        userService.getAuthorities();
+        long count = getAuthoritiesTimer().count();
+
+        userService.getAuthorities();
+
+        assertThat(getAuthoritiesTimer().count()).isEqualTo(count + 1);
+        assertThat(getAuthoritiesTimer().takeSnapshot().percentileValues()).hasSize(3);
+    }
+
+    @Test
+    void testDoesNotTimeWhenSwitchedOff() {
+        userService.getAuthorities();
+        long count = getAuthoritiesTimer().count();
+
+        assertThat(timingEndpoint.update(false, null).enabled()).isFalse();
+        userService.getAuthorities();
+
+        assertThat(getAuthoritiesTimer().count()).isEqualTo(count);
+    }
+
+    @Test
+    void testDoesNotTimeUnsampledCalls() {
+        userService.getAuthorities();
+        long count = getAuthoritiesTimer().count();
+
+        assertThat(timingEndpoint.update(null, 0.0).sampleRate()).isZero();
+        userService.getAuthorities();
+
+        assertThat(getAuthoritiesTimer().count()).isEqualTo(count);
+    }
+
+    @Test
+    void testRejectsInvalidSampleRates() {
+        assertThatIllegalArgumentException().isThrownBy(() -> timingEndpoint.update(null, 1.5));
+        assertThat(timingEndpoint.settings().sampleRate()).isEqualTo(1.0);
+    }
+
+    private Timer getAuthoritiesTimer() {
+        return meterRegistry
+            .get(TimingAspect.METER_NAME)
+            .tag("class", UserService.class.getName())
+            .tag("method", "getAuthorities")
+            .tag("exception", "none")
+            .timer();
+    }
+}
@@ -0,0 +1,61 @@
+package org.dev4tests.computerdb.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import org.ehcache.config.ResourcePools;
+import org.ehcache.config.ResourceType;
+import org.ehcache.config.SizedResourcePool;
+import org.ehcache.config.units.EntryUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Unit tests for the sizing of the caches by the {@link org.dev4tests.computerdb.config.CacheConfiguration} class.
+ */
+class CacheConfigurationTest {
+
+    private org.dev4tests.computerdb.config.CacheConfiguration cacheConfiguration;
+
+    @BeforeEach
+    public void setup() {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getCache().getEhcache().setMaxEntries(100);
+        jHipsterProperties.getCache().getEhcache().setTimeToLiveSeconds(3600);
+
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        ApplicationProperties.Cache.Size usersByLogin = new ApplicationProperties.Cache.Size();
+        usersByLogin.setHeapEntries(10_000L);
+        usersByLogin.setOffHeap(DataSize.ofMegabytes(16));
+        usersByLogin.setTimeToLive(Duration.ofMinutes(10));
+        applicationProperties.getCache().getSizes().put("usersByLogin", usersByLogin);
+
+        cacheConfiguration = new org.dev4tests.computerdb.config.CacheConfiguration(jHipsterProperties, applicationProperties);
+    }
+
+    @Test
+    void testCacheWithoutSizeUsesJHipsterDefaults() {
+        ResourcePools resourcePools = resourcePools("usersByEmail");
+
+        assertThat(resourcePools.getResourceTypeSet()).containsExactly(ResourceType.Core.HEAP);
+        assertThat(resourcePools.getPoolForResource(ResourceType.Core.HEAP).getSize()).isEqualTo(100);
+    }
+
+    @Test
+    void testCacheWithSizeHasItsTiers() {
+        ResourcePools resourcePools = resourcePools("usersByLogin");
+
+        SizedResourcePool heap = resourcePools.getPoolForResource(ResourceType.Core.HEAP);
+        assertThat(heap.getSize()).isEqualTo(10_000);
+        assertThat(heap.getUnit()).isEqualTo(EntryUnit.ENTRIES);
+        assertThat(resourcePools.getPoolForResource(ResourceType.Core.OFFHEAP).getSize())
+            .isEqualTo(DataSize.ofMegabytes(16).toBytes());
+        assertThat(resourcePools.getResourceTypeSet()).doesNotContain(ResourceType.Core.DISK);
+    }
+
+    private ResourcePools resourcePools(String cacheName) {
+        return cacheConfiguration.ehcacheConfiguration(cacheName).getResourcePools();
+    }
+}
@@ -0,0 +1,104 @@
+package org.dev4tests.computerdb.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import java.util.List;
+import java.util.UUID;
+import org.dev4tests.computerdb.config.ClusterCacheInvalidator.Invalidation;
+import org.dev4tests.computerdb.config.ClusterCacheInvalidator.InvalidationType;
+import org.dev4tests.computerdb.domain.User;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+/**
+ * Integration tests for the {@link ClusterCacheInvalidator}, with two Hazelcast members in the same JVM.
+ */
+class ClusterCacheInvalidatorIT {
+
+    private static final String CACHE_NAME = "usersByLogin";
+
+    private static final String ENTITY_NAME = User.class.getName();
+
+    private static HazelcastInstance firstMember;
+
+    private static HazelcastInstance secondMember;
+
+    private static Member first;
+
+    private static Member second;
+
+    @BeforeAll
+    static void startMembers() {
+        ApplicationProperties.Cache.Cluster cluster = new ApplicationProperties.Cache.Cluster();
+        cluster.setName("computerdb-test-" + UUID.randomUUID());
+        cluster.setPort(5801);
+        cluster.setMembers(List.of("127.0.0.1:5801", "127.0.0.1:5802"));
+        firstMember = Hazelcast.newHazelcastInstance(ClusterCacheConfiguration.hazelcastConfig(cluster));
+        secondMember = Hazelcast.newHazelcastInstance(ClusterCacheConfiguration.hazelcastConfig(cluster));
+        assertThat(firstMember.getCluster().getMembers()).hasSize(2);
+        first = new Member(firstMember);
+        second = new Member(secondMember);
+    }
+
+    @AfterAll
+    static void stopMembers() {
+        secondMember.shutdown();
+        firstMember.shutdown();
+    }
+
+    @Test
+    void testEvictionIsPropagatedToOtherMember() throws InterruptedException {
+        first.localCache().put("evicted", "first");
+        second.localCache().put("evicted", "second");
+        second.localCache().put("kept", "second");
+
+        first.cacheManager.getCache(CACHE_NAME).evict("evicted");
+
+        assertThat(first.localCache().get("evicted")).isNull();
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (second.localCache().get("evicted") != null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(second.localCache().get("evicted")).isNull();
+        assertThat(second.localCache().get("kept")).isNotNull();
+    }
+
+    @Test
+    void testEntityInvalidationIsAppliedByOtherMemberOnly() {
+        first.invalidator.publish(new Invalidation(InvalidationType.ENTITY, ENTITY_NAME, 42L));
+
+        verify(second.hibernateCache, timeout(10_000)).evictEntityData(ENTITY_NAME, 42L);
+        verify(first.hibernateCache, after(500).never()).evictEntityData(ENTITY_NAME, 42L);
+    }
+
+    private static final class Member {
+
+        private final ConcurrentMapCacheManager localCacheManager = new ConcurrentMapCacheManager(CACHE_NAME);
+
+        private final org.hibernate.Cache hibernateCache = mock(org.hibernate.Cache.class);
+
+        private final ClusterCacheInvalidator invalidator;
+
+        private final CacheManager cacheManager;
+
+        private Member(HazelcastInstance hazelcastInstance) {
+            invalidator = new ClusterCacheInvalidator(hazelcastInstance, localCacheManager, hibernateCache);
+            cacheManager = ClusterCacheInvalidator.decorate(localCacheManager, () -> invalidator);
+        }
+
+        private Cache localCache() {
+            return localCacheManager.getCache(CACHE_NAME);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package org.dev4tests.computerdb.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.servlet.resource.HttpResource;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+/**
+ * Tests for {@link InMemoryResourceResolver}.
+ */
+class InMemoryResourceResolverTest {
+
+    private static final List<Resource> LOCATIONS = List.of(new ClassPathResource("config/"));
+
+    private ResourceResolverChain chain;
+
+    private Resource resource;
+
+    @BeforeEach
+    public void setup() {
+        chain = mock(ResourceResolverChain.class);
+        resource = new ClassPathResource("config/application.yml");
+        when(chain.resolveResource(any(), anyString(), anyList())).thenReturn(resource);
+    }
+
+    @Test
+    void testSmallResourceIsHeldInMemoryOnce() throws Exception {
+        InMemoryResourceResolver resolver = new InMemoryResourceResolver(resource.contentLength(), Long.MAX_VALUE);
+
+        Resource resolved = resolve(resolver);
+
+        assertThat(resolved).isInstanceOf(InMemoryResourceResolver.InMemoryResource.class);
+        assertThat(resolved.getContentAsByteArray()).isEqualTo(resource.getContentAsByteArray());
+        assertThat(resolved.getFilename()).isEqualTo(resource.getFilename());
+        assertThat(resolved.getDescription()).isEqualTo(resource.getDescription());
+        assertThat(resolved.lastModified()).isEqualTo(resource.lastModified());
+        assertThat(resolve(resolver)).isSameAs(resolved);
+        assertThat(resolver.getTotalSize()).isEqualTo(resource.contentLength());
+    }
+
+    @Test
+    void testLargeResourceIsNotHeldInMemory() throws Exception {
+        InMemoryResourceResolver resolver = new InMemoryResourceResolver(resource.contentLength() - 1, Long.MAX_VALUE);
+
+        assertThat(resolve(resolver)).isSameAs(resource);
+        assertThat(resolver.getTotalSize()).isZero();
+    }
+
+    @Test
+    void testResourceBeyondTotalSizeIsNotHeldInMemory() throws Exception {
+        InMemoryResourceResolver resolver = new InMemoryResourceResolver(Long.MAX_VALUE, resource.contentLength() - 1);
+
+        assertThat(resolve(resolver)).isSameAs(resource);
+        assertThat(resolver.getTotalSize()).isZero();
+    }
+
+    @Test
+    void testResponseHeadersAreKept() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.CONTENT_ENCODING, "br");
+        resource = new EncodedClassPathResource("config/application.yml", headers);
+        when(chain.resolveResource(any(), anyString(), anyList())).thenReturn(resource);
+        InMemoryResourceResolver resolver = new InMemoryResourceResolver(Long.MAX_VALUE, Long.MAX_VALUE);
+
+        Resource resolved = resolve(resolver);
+
+        assertThat(resolved).isInstanceOf(HttpResource.class);
+        assertThat(((HttpResource) resolved).getResponseHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("br");
+    }
+
+    private Resource resolve(InMemoryResourceResolver resolver) {
+        return resolver.resolveResource(new MockHttpServletRequest("GET", "/application.yml"), "application.yml", LOCATIONS, chain);
+    }
+
+    private static class EncodedClassPathResource extends ClassPathResource implements HttpResource {
+
+        private final HttpHeaders headers;
+
+        EncodedClassPathResource(String path, HttpHeaders headers) {
+            super(path);
+            this.headers = headers;
+        }
+
+        @Override
+        public HttpHeaders getResponseHeaders() {
+            return headers;
+        }
+    }
+}
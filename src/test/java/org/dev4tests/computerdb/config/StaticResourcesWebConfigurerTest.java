@@ -4,14 +4,18 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.dev4tests.computerdb.config.StaticResourcesWebConfiguration.*;
 import static org.mockito.Mockito.*;
 
+import java.time.Duration;
 import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.CacheControl;
+import org.springframework.http.server.PathContainer;
 import org.springframework.mock.web.MockServletContext;
 import org.springframework.web.context.WebApplicationContext;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistration;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
 import tech.jhipster.config.JHipsterDefaults;
 import tech.jhipster.config.JHipsterProperties;
 
@@ -23,6 +27,7 @@ class StaticResourcesWebConfigurerTest {
     private MockServletContext servletContext;
     private WebApplicationContext applicationContext;
     private JHipsterProperties props;
+    private ApplicationProperties applicationProperties;
 
     @BeforeEach
     void setUp() {
@@ -30,7 +35,8 @@ class StaticResourcesWebConfigurerTest {
         applicationContext = mock(WebApplicationContext.class);
         resourceHandlerRegistry = spy(new ResourceHandlerRegistry(applicationContext, servletContext));
         props = new JHipsterProperties();
-        staticResourcesWebConfiguration = spy(new StaticResourcesWebConfiguration(props));
+        applicationProperties = new ApplicationProperties();
+        staticResourcesWebConfiguration = spy(new StaticResourcesWebConfiguration(props, applicationProperties));
     }
 
     @Test
@@ -44,6 +50,30 @@ class StaticResourcesWebConfigurerTest {
         }
     }
 
+    @Test
+    void shouldAppendHashedResourceHandlerAndInitializeIt() {
+        staticResourcesWebConfiguration.addResourceHandlers(resourceHandlerRegistry);
+
+        verify(resourceHandlerRegistry, times(1)).addResourceHandler(HASHED_RESOURCE_PATHS);
+        verify(staticResourcesWebConfiguration, times(1)).initializeHashedResourceHandler(any(ResourceHandlerRegistration.class));
+        for (String testingPath : HASHED_RESOURCE_PATHS) {
+            assertThat(resourceHandlerRegistry.hasMappingForPattern(testingPath)).isTrue();
+        }
+    }
+
+    @Test
+    void shouldMatchOnlyHashedFileNames() {
+        PathPatternParser parser = new PathPatternParser();
+        PathPattern scripts = parser.parse(HASHED_RESOURCE_PATHS[0]);
+        PathPattern stylesheets = parser.parse(HASHED_RESOURCE_PATHS[1]);
+
+        assertThat(scripts.matches(PathContainer.parsePath("/main.1a2b3c4d.js"))).isTrue();
+        assertThat(scripts.matches(PathContainer.parsePath("/src_main_webapp_app_admin.1a2b3c4d.chunk.js"))).isTrue();
+        assertThat(scripts.matches(PathContainer.parsePath("/axios.min.js"))).isFalse();
+        assertThat(stylesheets.matches(PathContainer.parsePath("/content/main.0123456789abcdef0123.css"))).isTrue();
+        assertThat(stylesheets.matches(PathContainer.parsePath("/content/css/loading.css"))).isFalse();
+    }
+
     @Test
     void shouldInitializeResourceHandlerWithCacheControlAndLocations() {
         CacheControl ccExpected = CacheControl.maxAge(5, TimeUnit.DAYS).cachePublic();
@@ -55,6 +85,17 @@ class StaticResourcesWebConfigurerTest {
         verify(staticResourcesWebConfiguration, times(1)).getCacheControl();
         verify(resourceHandlerRegistration, times(1)).setCacheControl(ccExpected);
         verify(resourceHandlerRegistration, times(1)).addResourceLocations(RESOURCE_LOCATIONS);
+        verify(staticResourcesWebConfiguration, times(1)).initializeResourceChain(resourceHandlerRegistration);
+        verify(resourceHandlerRegistration, times(1)).resourceChain(true);
+    }
+
+    @Test
+    void shouldCreateImmutableCacheControlForHashedResources() {
+        applicationProperties.getStaticResources().setHashedTimeToLive(Duration.ofDays(MAX_AGE_TEST));
+        CacheControl cacheExpected = CacheControl.maxAge(MAX_AGE_TEST, TimeUnit.DAYS).cachePublic().immutable();
+        assertThat(staticResourcesWebConfiguration.getHashedCacheControl())
+            .extracting(CacheControl::getHeaderValue)
+            .isEqualTo(cacheExpected.getHeaderValue());
     }
 
     @Test
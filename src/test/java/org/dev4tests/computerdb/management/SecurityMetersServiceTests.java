@@ -13,6 +13,12 @@ class SecurityMetersServiceTests {
 
     private static final String INVALID_TOKENS_METER_EXPECTED_NAME = "security.authentication.invalid-tokens";
 
+    private static final String TOKEN_CACHE_METER_EXPECTED_NAME = "security.authentication.token-cache";
+
+    private static final String TOKEN_DECODE_TIME_METER_EXPECTED_NAME = "security.authentication.token-decode";
+
+    private static final String LOGIN_ATTEMPTS_METER_EXPECTED_NAME = "security.authentication.login-attempts";
+
     private MeterRegistry meterRegistry;
 
     private SecurityMetersService securityMetersService;
@@ -67,4 +73,27 @@ class SecurityMetersServiceTests {
 
         assertThat(meterRegistry.get(INVALID_TOKENS_METER_EXPECTED_NAME).tag("cause", "malformed").counter().count()).isEqualTo(1);
     }
+
+    @Test
+    void testTokenCacheMethodsShouldBeBoundToCorrectMeters() {
+        securityMetersService.trackTokenCacheHit();
+        securityMetersService.trackTokenCacheHit();
+        securityMetersService.trackTokenCacheMiss();
+        securityMetersService.trackTokenDecodeTime(1_000_000);
+
+        assertThat(meterRegistry.get(TOKEN_CACHE_METER_EXPECTED_NAME).tag("result", "hit").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get(TOKEN_CACHE_METER_EXPECTED_NAME).tag("result", "miss").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(TOKEN_DECODE_TIME_METER_EXPECTED_NAME).timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.find(INVALID_TOKENS_METER_EXPECTED_NAME).counters()).hasSize(4);
+    }
+
+    @Test
+    void testLoginAttemptMethodsShouldBeBoundToCorrectCounters() {
+        securityMetersService.trackLoginAttemptAllowed();
+        securityMetersService.trackLoginAttemptAllowed();
+        securityMetersService.trackLoginAttemptRejected();
+
+        assertThat(meterRegistry.get(LOGIN_ATTEMPTS_METER_EXPECTED_NAME).tag("result", "allowed").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get(LOGIN_ATTEMPTS_METER_EXPECTED_NAME).tag("result", "rejected").counter().count()).isEqualTo(1);
+    }
 }
@@ -0,0 +1,42 @@
+package org.dev4tests.computerdb.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link StringBloomFilter}.
+ */
+class StringBloomFilterTest {
+
+    private static final int EXPECTED_INSERTIONS = 10_000;
+
+    @Test
+    void testPutStringsAreAlwaysContained() {
+        StringBloomFilter filter = new StringBloomFilter(EXPECTED_INSERTIONS, 0.01);
+        IntStream.range(0, EXPECTED_INSERTIONS).forEach(i -> filter.put("user-" + i));
+
+        assertThat(IntStream.range(0, EXPECTED_INSERTIONS).allMatch(i -> filter.mightContain("user-" + i))).isTrue();
+    }
+
+    @Test
+    void testFalsePositiveProbabilityIsRespected() {
+        StringBloomFilter filter = new StringBloomFilter(EXPECTED_INSERTIONS, 0.01);
+        IntStream.range(0, EXPECTED_INSERTIONS).forEach(i -> filter.put("user-" + i));
+
+        long falsePositives = IntStream.range(0, 100_000).filter(i -> filter.mightContain("unknown-" + i)).count();
+        assertThat(falsePositives).isLessThan(2_000);
+    }
+
+    @Test
+    void testFilterIsSaturatedBeyondExpectedInsertions() {
+        StringBloomFilter filter = new StringBloomFilter(100, 0.01);
+        IntStream.range(0, 80).forEach(i -> filter.put("user-" + i));
+        IntStream.range(0, 80).forEach(i -> filter.put("user-" + i));
+        assertThat(filter.isSaturated()).isFalse();
+
+        IntStream.range(80, 200).forEach(i -> filter.put("user-" + i));
+        assertThat(filter.isSaturated()).isTrue();
+    }
+}
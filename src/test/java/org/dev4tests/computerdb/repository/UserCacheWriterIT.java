@@ -0,0 +1,112 @@
+package org.dev4tests.computerdb.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.apache.commons.lang3.RandomStringUtils;
+import org.dev4tests.computerdb.IntegrationTest;
+import org.dev4tests.computerdb.domain.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link UserCacheWriter}.
+ */
+@IntegrationTest
+class UserCacheWriterIT {
+
+    private static final String LOGIN = "cache-writer";
+
+    private static final String EMAIL = "cache-writer@localhost";
+
+    private static final String NEW_EMAIL = "cache-writer-new@localhost";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserCacheWriter userCacheWriter;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private Cache usersByLogin;
+
+    private Cache usersByEmail;
+
+    @BeforeEach
+    public void setup() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        usersByLogin = cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE);
+        usersByEmail = cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE);
+        usersByLogin.clear();
+        usersByEmail.clear();
+
+        User user = new User();
+        user.setLogin(LOGIN);
+        user.setEmail(EMAIL);
+        user.setPassword(RandomStringUtils.randomAlphanumeric(60));
+        user.setActivated(true);
+        userRepository.saveAndFlush(user);
+        userRepository.findOneWithAuthoritiesByLogin(LOGIN);
+        userRepository.findOneWithAuthoritiesByEmailIgnoreCase(EMAIL);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        userRepository.findOneByLogin(LOGIN).ifPresent(userRepository::delete);
+        usersByLogin.clear();
+        usersByEmail.clear();
+    }
+
+    @Test
+    void testCommittedUserIsWrittenUnderItsNewKeys() {
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = userRepository.findOneByLogin(LOGIN).orElseThrow();
+            userCacheWriter.userChanged(user);
+            user.setEmail(NEW_EMAIL);
+            // The cached entries are only changed once the transaction commits
+            assertThat(usersByEmail.get(EMAIL)).isNotNull();
+        });
+
+        assertThat(usersByEmail.get(EMAIL)).isNull();
+        assertThat(usersByEmail.get(NEW_EMAIL, User.class).getLogin()).isEqualTo(LOGIN);
+        assertThat(usersByLogin.get(LOGIN, User.class).getEmail()).isEqualTo(NEW_EMAIL);
+    }
+
+    @Test
+    void testRolledBackUserIsNotWritten() {
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = userRepository.findOneByLogin(LOGIN).orElseThrow();
+            userCacheWriter.userChanged(user);
+            user.setEmail(NEW_EMAIL);
+            status.setRollbackOnly();
+        });
+
+        assertThat(usersByEmail.get(EMAIL, User.class).getEmail()).isEqualTo(EMAIL);
+        assertThat(usersByEmail.get(NEW_EMAIL)).isNull();
+        assertThat(usersByLogin.get(LOGIN, User.class).getEmail()).isEqualTo(EMAIL);
+    }
+
+    @Test
+    void testDeletedUserIsEvicted() {
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = userRepository.findOneByLogin(LOGIN).orElseThrow();
+            userRepository.delete(user);
+            userCacheWriter.userDeleted(user);
+        });
+
+        assertThat(usersByLogin.get(LOGIN)).isNull();
+        assertThat(usersByEmail.get(EMAIL)).isNull();
+    }
+}
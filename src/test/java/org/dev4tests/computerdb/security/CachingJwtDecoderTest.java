@@ -0,0 +1,94 @@
+package org.dev4tests.computerdb.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.dev4tests.computerdb.management.SecurityMetersService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidationException;
+
+/**
+ * Test class for the {@link CachingJwtDecoder} class.
+ */
+class CachingJwtDecoderTest {
+
+    private final AtomicInteger decodeCount = new AtomicInteger();
+
+    private MeterRegistry meterRegistry;
+
+    private SecurityMetersService securityMetersService;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        securityMetersService = new SecurityMetersService(meterRegistry);
+    }
+
+    @Test
+    void testDecodedTokenIsCachedUntilItExpires() {
+        JwtDecoder jwtDecoder = new CachingJwtDecoder(countingDecoder(Instant.now().plusSeconds(60)), 10, securityMetersService);
+
+        Jwt first = jwtDecoder.decode("token");
+        Jwt second = jwtDecoder.decode("token");
+
+        assertThat(second).isSameAs(first);
+        assertThat(decodeCount).hasValue(1);
+        assertThat(meterRegistry.get("security.authentication.token-cache").tag("result", "hit").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("security.authentication.token-cache").tag("result", "miss").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("security.authentication.token-decode").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testExpiredTokenIsDecodedAgain() {
+        JwtDecoder jwtDecoder = new CachingJwtDecoder(countingDecoder(Instant.now().minusSeconds(1)), 10, securityMetersService);
+
+        jwtDecoder.decode("token");
+        jwtDecoder.decode("token");
+
+        assertThat(decodeCount).hasValue(2);
+    }
+
+    @Test
+    void testCacheIsBoundedToMaxSize() {
+        CachingJwtDecoder jwtDecoder = new CachingJwtDecoder(countingDecoder(Instant.now().plusSeconds(60)), 10, securityMetersService);
+
+        IntStream.range(0, 1000).forEach(i -> jwtDecoder.decode("token" + i));
+
+        assertThat(decodeCount).hasValue(1000);
+        assertThat(jwtDecoder.cacheSize()).isLessThanOrEqualTo(10);
+    }
+
+    @Test
+    void testTimestampValidationFailureIsTrackedAsExpired() {
+        JwtDecoder jwtDecoder = new CachingJwtDecoder(
+            token -> {
+                throw new JwtValidationException(
+                    "expired",
+                    List.of(new OAuth2Error(CachingJwtDecoder.EXPIRED_TOKEN_ERROR_CODE, "Jwt expired", null))
+                );
+            },
+            10,
+            securityMetersService
+        );
+
+        assertThatExceptionOfType(JwtValidationException.class).isThrownBy(() -> jwtDecoder.decode("token"));
+        assertThat(meterRegistry.get("security.authentication.invalid-tokens").tag("cause", "expired").counter().count()).isEqualTo(1);
+    }
+
+    private JwtDecoder countingDecoder(Instant expiresAt) {
+        return token -> {
+            decodeCount.incrementAndGet();
+            return Jwt.withTokenValue(token).header("alg", "HS512").subject("user").expiresAt(expiresAt).build();
+        };
+    }
+}
@@ -0,0 +1,110 @@
+package org.dev4tests.computerdb.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link InMemoryLoginRateLimiter} and {@link SlidingWindowCounter} classes.
+ */
+class InMemoryLoginRateLimiterTest {
+
+    private static final Duration WINDOW = Duration.ofMinutes(1);
+
+    private static final int LIMIT = 5;
+
+    private final MutableClock clock = new MutableClock();
+
+    private final InMemoryLoginRateLimiter limiter = new InMemoryLoginRateLimiter(100, clock);
+
+    @Test
+    void testAttemptsBeyondLimitAreRejected() {
+        IntStream.range(0, LIMIT).forEach(i -> assertThat(limiter.tryAcquire("login:admin", LIMIT, WINDOW)).isZero());
+
+        Duration retryAfter = limiter.tryAcquire("login:admin", LIMIT, WINDOW);
+        assertThat(retryAfter).isPositive().isLessThanOrEqualTo(WINDOW.multipliedBy(2));
+        assertThat(limiter.tryAcquire("login:user", LIMIT, WINDOW)).isZero();
+    }
+
+    @Test
+    void testAttemptIsAllowedAfterRetryDelay() {
+        IntStream.range(0, LIMIT).forEach(i -> limiter.tryAcquire("login:admin", LIMIT, WINDOW));
+        Duration retryAfter = limiter.tryAcquire("login:admin", LIMIT, WINDOW);
+
+        clock.advance(retryAfter.minusMillis(1));
+        assertThat(limiter.tryAcquire("login:admin", LIMIT, WINDOW)).isPositive();
+
+        clock.advance(Duration.ofMillis(1));
+        assertThat(limiter.tryAcquire("login:admin", LIMIT, WINDOW)).isZero();
+    }
+
+    @Test
+    void testPreviousWindowAttemptsAreWeighted() {
+        clock.alignToWindow(WINDOW);
+        IntStream.range(0, LIMIT).forEach(i -> limiter.tryAcquire("login:admin", LIMIT, WINDOW));
+
+        // Halfway through the next window, half of the previous attempts still count
+        clock.advance(WINDOW.multipliedBy(3).dividedBy(2));
+        IntStream.range(0, 3).forEach(i -> assertThat(limiter.tryAcquire("login:admin", LIMIT, WINDOW)).isZero());
+        assertThat(limiter.tryAcquire("login:admin", LIMIT, WINDOW)).isPositive();
+    }
+
+    @Test
+    void testCountersExpireTwoWindowsAfterLastAttempt() {
+        InMemoryLoginRateLimiter smallLimiter = new InMemoryLoginRateLimiter(1, clock);
+        assertThat(smallLimiter.tryAcquire("login:user", 1, WINDOW)).isZero();
+        assertThat(smallLimiter.tryAcquire("login:user", 1, WINDOW)).isPositive();
+
+        clock.advance(WINDOW.multipliedBy(2));
+        assertThat(smallLimiter.tryAcquire("login:user", 1, WINDOW)).isZero();
+        assertThat(smallLimiter.tryAcquire("login:user", 1, WINDOW)).isPositive();
+    }
+
+    @Test
+    void testAttemptsAreCountedBeyondMaxKeys() {
+        InMemoryLoginRateLimiter smallLimiter = new InMemoryLoginRateLimiter(10, clock);
+        IntStream.range(0, LIMIT).forEach(i -> smallLimiter.tryAcquire("address:192.0.2.1", LIMIT, WINDOW));
+
+        // A flood of new keys does not evict the counter of the attacked address
+        IntStream
+            .range(0, 1000)
+            .forEach(i -> {
+                assertThat(smallLimiter.tryAcquire("login:user" + i, LIMIT, WINDOW)).isZero();
+                assertThat(smallLimiter.tryAcquire("address:192.0.2.1", LIMIT, WINDOW)).isPositive();
+            });
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant instant = Instant.now();
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        void alignToWindow(Duration window) {
+            instant = Instant.ofEpochMilli(instant.toEpochMilli() - instant.toEpochMilli() % window.toMillis());
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
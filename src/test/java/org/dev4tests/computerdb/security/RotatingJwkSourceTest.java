@@ -0,0 +1,153 @@
+package org.dev4tests.computerdb.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+/**
+ * Test class for the {@link RotatingJwkSource} and {@link RotatingKeyJwtEncoder} classes.
+ */
+class RotatingJwkSourceTest {
+
+    private static final Duration ROTATION = Duration.ofHours(1);
+
+    private static final Duration RETENTION = Duration.ofHours(2);
+
+    private final MutableClock clock = new MutableClock();
+
+    private RotatingJwkSource jwkSource;
+
+    private RotatingKeyJwtEncoder jwtEncoder;
+
+    private JwtDecoder jwtDecoder;
+
+    @BeforeEach
+    public void setup() {
+        jwkSource = new RotatingJwkSource(JWSAlgorithm.ES256, ROTATION, RETENTION, clock);
+        jwtEncoder = new RotatingKeyJwtEncoder(jwkSource);
+        DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.ES256, jwkSource));
+        jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {});
+        jwtDecoder = new NimbusJwtDecoder(jwtProcessor);
+    }
+
+    @Test
+    void testNextKeyIsPublishedBeforeItSigns() {
+        String signingKeyId = jwkSource.getSigningKeyId();
+        assertThat(jwkSource.getPublicJwkSet().getKeys()).hasSize(2).noneMatch(JWK::isPrivate);
+
+        clock.advance(ROTATION);
+
+        assertThat(jwkSource.getSigningKeyId()).isNotEqualTo(signingKeyId);
+        assertThat(jwkSource.getPublicJwkSet().getKeyByKeyId(signingKeyId)).isNotNull();
+        assertThat(jwkSource.getPublicJwkSet().getKeys()).hasSize(3);
+    }
+
+    @Test
+    void testTokenIsVerifiedUntilItsKeyRetentionEnds() {
+        String token = encode();
+        assertThat(jwtDecoder.decode(token).getSubject()).isEqualTo("user");
+
+        clock.advance(ROTATION);
+        assertThat(jwtDecoder.decode(token).getSubject()).isEqualTo("user");
+
+        clock.advance(RETENTION);
+        clock.advance(ROTATION);
+        assertThatExceptionOfType(BadJwtException.class).isThrownBy(() -> jwtDecoder.decode(token));
+    }
+
+    @Test
+    void testHeaderAlgorithmIsTheSigningKeyOne() {
+        String token = jwtEncoder
+            .encode(JwtEncoderParameters.from(JwsHeader.with(SignatureAlgorithm.RS256).build(), claims()))
+            .getTokenValue();
+
+        assertThat(jwtDecoder.decode(token).getHeaders()).containsEntry("alg", "ES256").containsEntry("kid", jwkSource.getSigningKeyId());
+    }
+
+    @Test
+    void testKeySetFileIsSharedAndSurvivesRestarts(@TempDir Path directory) {
+        Path keySetFile = directory.resolve("jwks.json");
+        RotatingJwkSource first = new RotatingJwkSource(JWSAlgorithm.ES256, ROTATION, RETENTION, clock, keySetFile);
+        RotatingJwkSource second = new RotatingJwkSource(JWSAlgorithm.ES256, ROTATION, RETENTION, clock, keySetFile);
+        String signingKeyId = first.getSigningKeyId();
+        assertThat(second.getSigningKeyId()).isEqualTo(signingKeyId);
+
+        clock.advance(ROTATION);
+
+        String rotatedKeyId = first.getSigningKeyId();
+        assertThat(rotatedKeyId).isNotEqualTo(signingKeyId);
+        assertThat(second.getSigningKeyId()).isEqualTo(rotatedKeyId);
+        assertThat(second.getPublicJwkSet().getKeyByKeyId(signingKeyId)).isNotNull();
+        assertThat(new RotatingJwkSource(JWSAlgorithm.ES256, ROTATION, RETENTION, clock, keySetFile).getSigningKeyId())
+            .isEqualTo(rotatedKeyId);
+    }
+
+    @Test
+    void testKeySetFileOfAnotherAlgorithmIsRejected(@TempDir Path directory) {
+        Path keySetFile = directory.resolve("jwks.json");
+        new RotatingJwkSource(JWSAlgorithm.ES256, ROTATION, RETENTION, clock, keySetFile);
+
+        assertThatExceptionOfType(IllegalStateException.class)
+            .isThrownBy(() -> new RotatingJwkSource(JWSAlgorithm.RS256, ROTATION, RETENTION, clock, keySetFile));
+    }
+
+    @Test
+    void testSymmetricAlgorithmIsRejected() {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+            .isThrownBy(() -> new RotatingJwkSource(JWSAlgorithm.HS512, ROTATION, RETENTION, clock));
+    }
+
+    private String encode() {
+        return jwtEncoder.encode(JwtEncoderParameters.from(claims())).getTokenValue();
+    }
+
+    private JwtClaimsSet claims() {
+        return JwtClaimsSet.builder().subject("user").build();
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant instant = Instant.now();
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
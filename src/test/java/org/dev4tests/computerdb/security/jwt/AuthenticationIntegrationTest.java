@@ -4,10 +4,13 @@ import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
+import org.dev4tests.computerdb.config.ApplicationProperties;
 import org.dev4tests.computerdb.config.SecurityConfiguration;
 import org.dev4tests.computerdb.config.SecurityJwtConfiguration;
 import org.dev4tests.computerdb.config.WebConfigurer;
 import org.dev4tests.computerdb.management.SecurityMetersService;
+import org.dev4tests.computerdb.security.LoginThrottle;
+import org.dev4tests.computerdb.service.ProfileVersionService;
 import org.dev4tests.computerdb.web.rest.AuthenticateController;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
@@ -22,11 +25,14 @@ import tech.jhipster.config.JHipsterProperties;
     },
     classes = {
         JHipsterProperties.class,
+        ApplicationProperties.class,
         WebConfigurer.class,
         SecurityConfiguration.class,
         SecurityJwtConfiguration.class,
         SecurityMetersService.class,
         AuthenticateController.class,
+        LoginThrottle.class,
+        ProfileVersionService.class,
         JwtAuthenticationTestUtils.class,
     }
 )
@@ -0,0 +1,40 @@
+package org.dev4tests.computerdb.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.dev4tests.computerdb.IntegrationTest;
+import org.dev4tests.computerdb.domain.User;
+import org.dev4tests.computerdb.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+
+/**
+ * Integration tests for {@link CacheWarmUpService}.
+ */
+@IntegrationTest
+class CacheWarmUpServiceIT {
+
+    @Autowired
+    private CacheWarmUpService cacheWarmUpService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    public void setup() {
+        cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE).clear();
+        cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE).clear();
+    }
+
+    @Test
+    void testWarmUpFillsUserCaches() {
+        assertThat(cacheWarmUpService.warmUp()).isTrue();
+
+        User admin = cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE).get("admin", User.class);
+        assertThat(admin).isNotNull();
+        assertThat(admin.getAuthorities()).isNotEmpty();
+        assertThat(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE).get(admin.getEmail(), User.class)).isEqualTo(admin);
+    }
+}
@@ -0,0 +1,162 @@
+package org.dev4tests.computerdb.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import org.dev4tests.computerdb.IntegrationTest;
+import org.dev4tests.computerdb.config.ApplicationProperties;
+import org.dev4tests.computerdb.domain.MailOutboxMessage;
+import org.dev4tests.computerdb.domain.enumeration.MailOutboxStatus;
+import org.dev4tests.computerdb.repository.MailOutboxRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Integration tests for {@link MailDispatcher}.
+ * <p>
+ * The GreenMail SMTP server is only started by the tests expecting the emails to be sent.
+ */
+@IntegrationTest
+class MailDispatcherIT {
+
+    private final GreenMail greenMail = new GreenMail(ServerSetupTest.SMTP);
+
+    @Autowired
+    private MailService mailService;
+
+    @Autowired
+    private MailDispatcher mailDispatcher;
+
+    @Autowired
+    private MailOutboxRepository mailOutboxRepository;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    private int batchSize;
+
+    private int maxAttempts;
+
+    @BeforeEach
+    public void setup() {
+        mailOutboxRepository.deleteAll();
+        batchSize = applicationProperties.getMailOutbox().getBatchSize();
+        maxAttempts = applicationProperties.getMailOutbox().getMaxAttempts();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        if (greenMail.isRunning()) {
+            greenMail.stop();
+        }
+        applicationProperties.getMailOutbox().setBatchSize(batchSize);
+        applicationProperties.getMailOutbox().setMaxAttempts(maxAttempts);
+    }
+
+    @Test
+    void testSendsAllDueMessagesInBatches() {
+        applicationProperties.getMailOutbox().setBatchSize(2);
+        for (int i = 0; i < 5; i++) {
+            mailService.sendEmail("user" + i + "@example.com", "testSubject", "testContent", false, false);
+        }
+        greenMail.start();
+
+        mailDispatcher.dispatch();
+
+        assertThat(greenMail.waitForIncomingEmail(5000, 5)).isTrue();
+        assertThat(mailOutboxRepository.findAll())
+            .hasSize(5)
+            .allSatisfy(message -> {
+                assertThat(message.getStatus()).isEqualTo(MailOutboxStatus.SENT);
+                assertThat(message.getAttempts()).isEqualTo(1);
+                assertThat(message.getSentDate()).isNotNull();
+                assertThat(message.getDedupeKey()).isNull();
+            });
+    }
+
+    @Test
+    void testRetriesWithBackoffWhenTheServerIsDown() {
+        mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, false);
+
+        mailDispatcher.dispatch();
+
+        MailOutboxMessage message = mailOutboxRepository.findAll().get(0);
+        assertThat(message.getStatus()).isEqualTo(MailOutboxStatus.PENDING);
+        assertThat(message.getAttempts()).isEqualTo(1);
+        assertThat(message.getLastError()).isNotNull();
+        Instant retry = Instant.now().plus(applicationProperties.getMailOutbox().getInitialBackoff());
+        assertThat(message.getNextAttemptDate()).isCloseTo(retry, within(10, ChronoUnit.SECONDS));
+
+        // Not due yet
+        greenMail.start();
+        mailDispatcher.dispatch();
+        assertThat(mailOutboxRepository.findById(message.getId()).orElseThrow().getAttempts()).isEqualTo(1);
+
+        message.setNextAttemptDate(Instant.now());
+        mailOutboxRepository.saveAndFlush(message);
+        mailDispatcher.dispatch();
+
+        assertThat(greenMail.waitForIncomingEmail(5000, 1)).isTrue();
+        message = mailOutboxRepository.findById(message.getId()).orElseThrow();
+        assertThat(message.getStatus()).isEqualTo(MailOutboxStatus.SENT);
+        assertThat(message.getAttempts()).isEqualTo(2);
+    }
+
+    @Test
+    void testGivesUpAfterTheMaximumNumberOfAttempts() {
+        applicationProperties.getMailOutbox().setMaxAttempts(1);
+        mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, false);
+
+        mailDispatcher.dispatch();
+
+        MailOutboxMessage message = mailOutboxRepository.findAll().get(0);
+        assertThat(message.getStatus()).isEqualTo(MailOutboxStatus.FAILED);
+        assertThat(message.getDedupeKey()).isNull();
+    }
+
+    @Test
+    void testDoesNotQueueTheSameEmailTwiceWhilePending() {
+        mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, false);
+        mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, false);
+        mailService.sendEmail("jane.doe@example.com", "testSubject", "testContent", false, false);
+        assertThat(mailOutboxRepository.count()).isEqualTo(2);
+
+        greenMail.start();
+        mailDispatcher.dispatch();
+        mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, false);
+
+        assertThat(mailOutboxRepository.count()).isEqualTo(3);
+    }
+
+    @Test
+    void testRemovesOldMessages() {
+        Instant old = Instant.now().minus(applicationProperties.getMailOutbox().getRetention()).minus(Duration.ofDays(1));
+        mailOutboxRepository.saveAndFlush(message(MailOutboxStatus.SENT, old));
+        mailOutboxRepository.saveAndFlush(message(MailOutboxStatus.FAILED, old));
+        MailOutboxMessage pending = mailOutboxRepository.saveAndFlush(message(MailOutboxStatus.PENDING, old));
+        MailOutboxMessage recent = mailOutboxRepository.saveAndFlush(message(MailOutboxStatus.SENT, Instant.now()));
+
+        mailDispatcher.removeOldMessages();
+
+        assertThat(mailOutboxRepository.findAll()).extracting(MailOutboxMessage::getId).containsOnly(pending.getId(), recent.getId());
+    }
+
+    private static MailOutboxMessage message(MailOutboxStatus status, Instant createdDate) {
+        MailOutboxMessage message = new MailOutboxMessage();
+        message.setRecipient("john.doe@example.com");
+        message.setSubject("testSubject");
+        message.setContent("testContent");
+        message.setStatus(status);
+        message.setCreatedDate(createdDate);
+        // Not due, so that the scheduled dispatch leaves it alone
+        message.setNextAttemptDate(Instant.now().plus(Duration.ofDays(1)));
+        return message;
+    }
+}
@@ -0,0 +1,85 @@
+package org.dev4tests.computerdb.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Locale;
+import org.dev4tests.computerdb.IntegrationTest;
+import org.dev4tests.computerdb.domain.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.MessageSource;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Integration tests for {@link MailTemplateRenderer}, checking that its output is the one of Thymeleaf.
+ */
+@IntegrationTest
+class MailTemplateRendererIT {
+
+    @Autowired
+    private MailTemplateRenderer mailTemplateRenderer;
+
+    @Autowired
+    private SpringTemplateEngine templateEngine;
+
+    @Autowired
+    private MessageSource messageSource;
+
+    @Autowired
+    private JHipsterProperties jHipsterProperties;
+
+    @Test
+    void testRendersLikeThymeleaf() {
+        String[] templateNames = { "mail/activationEmail", "mail/creationEmail", "mail/passwordResetEmail", "mail/testEmail" };
+        for (String templateName : templateNames) {
+            for (String langKey : new String[] { "en", "fr" }) {
+                assertRendersLikeThymeleaf(templateName, langKey);
+            }
+        }
+    }
+
+    @Test
+    void testRendersTemplatesTransformingTheUserPropertiesLikeThymeleaf() {
+        assertRendersLikeThymeleaf("mail/testUpperCaseEmail", "en");
+        assertThat(mailTemplateRenderer.renderContent("mail/testUpperCaseEmail", user("jane", "en"), Locale.ENGLISH))
+            .isEqualTo("<html>JANE</html>\n");
+    }
+
+    @Test
+    void testResolvesTheSubject() {
+        for (Locale locale : new Locale[] { Locale.ENGLISH, Locale.FRENCH }) {
+            String subject = messageSource.getMessage("email.activation.title", null, locale);
+            assertThat(mailTemplateRenderer.renderSubject("email.activation.title", locale)).isEqualTo(subject);
+            assertThat(mailTemplateRenderer.renderSubject("email.activation.title", locale)).isEqualTo(subject);
+        }
+    }
+
+    private void assertRendersLikeThymeleaf(String templateName, String langKey) {
+        Locale locale = Locale.forLanguageTag(langKey);
+        for (String login : new String[] { "john", "jane.doe@example.com", "o'brien<&>\"" }) {
+            User user = user(login, langKey);
+            assertThat(mailTemplateRenderer.renderContent(templateName, user, locale))
+                .as("%s in %s for %s", templateName, langKey, login)
+                .isEqualTo(process(templateName, user, locale));
+        }
+    }
+
+    private String process(String templateName, User user, Locale locale) {
+        Context context = new Context(locale);
+        context.setVariable("user", user);
+        context.setVariable("baseUrl", jHipsterProperties.getMail().getBaseUrl());
+        return templateEngine.process(templateName, context);
+    }
+
+    private static User user(String login, String langKey) {
+        User user = new User();
+        user.setLogin(login);
+        user.setEmail(login + "@example.com");
+        user.setLangKey(langKey);
+        user.setActivationKey("activation" + login.length());
+        user.setResetKey("reset&key=" + login.length());
+        return user;
+    }
+}
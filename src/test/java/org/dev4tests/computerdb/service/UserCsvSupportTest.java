@@ -0,0 +1,38 @@
+package org.dev4tests.computerdb.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link UserCsvSupport} utility class.
+ */
+class UserCsvSupportTest {
+
+    @Test
+    void testParseLine() {
+        assertThat(UserCsvSupport.parseLine("john,,\"Doe, \"\"Jr\"\"\",john@localhost")).containsExactly(
+            "john",
+            "",
+            "Doe, \"Jr\"",
+            "john@localhost"
+        );
+    }
+
+    @Test
+    void testParseLineWithUnterminatedQuote() {
+        assertThatIllegalArgumentException().isThrownBy(() -> UserCsvSupport.parseLine("john,\"Doe"));
+    }
+
+    @Test
+    void testFormatLineRoundTrip() {
+        List<String> values = Arrays.asList("john", null, "Doe, \"Jr\"", "john@localhost");
+        String line = UserCsvSupport.formatLine(values);
+
+        assertThat(line).isEqualTo("john,,\"Doe, \"\"Jr\"\"\",john@localhost");
+        assertThat(UserCsvSupport.parseLine(line)).containsExactly("john", "", "Doe, \"Jr\"", "john@localhost");
+    }
+}
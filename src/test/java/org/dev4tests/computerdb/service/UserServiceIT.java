@@ -1,23 +1,38 @@
 package org.dev4tests.computerdb.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.when;
 
+import jakarta.persistence.EntityManager;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.dev4tests.computerdb.IntegrationTest;
+import org.dev4tests.computerdb.domain.Authority;
 import org.dev4tests.computerdb.domain.User;
+import org.dev4tests.computerdb.repository.AuthorityRepository;
+import org.dev4tests.computerdb.repository.UserKeyFilter;
 import org.dev4tests.computerdb.repository.UserRepository;
+import org.dev4tests.computerdb.security.AuthoritiesConstants;
+import org.dev4tests.computerdb.service.dto.AdminUserDTO;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.data.auditing.AuditingHandler;
 import org.springframework.data.auditing.DateTimeProvider;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.transaction.annotation.Transactional;
 import tech.jhipster.security.RandomUtil;
 
@@ -46,12 +61,21 @@ class UserServiceIT {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private AuthorityRepository authorityRepository;
+
+    @Autowired
+    private EntityManager em;
+
     @Autowired
     private AuditingHandler auditingHandler;
 
     @MockBean
     private DateTimeProvider dateTimeProvider;
 
+    @SpyBean
+    private UserKeyFilter userKeyFilter;
+
     private User user;
 
     @BeforeEach
@@ -84,6 +108,34 @@ class UserServiceIT {
         assertThat(maybeUser.orElse(null).getResetKey()).isNotNull();
     }
 
+    @Test
+    @Transactional
+    void assertThatLoginTakenOnAnotherInstanceCannotBeRegistered() {
+        userRepository.saveAndFlush(user);
+        // The key filter of this instance has not seen the user yet
+        doReturn(false).when(userKeyFilter).mightContainLogin(DEFAULT_LOGIN);
+        AdminUserDTO userDTO = new AdminUserDTO();
+        userDTO.setLogin(DEFAULT_LOGIN);
+        userDTO.setEmail("other-" + DEFAULT_EMAIL);
+        userDTO.setLangKey(DEFAULT_LANGKEY);
+
+        assertThatThrownBy(() -> userService.registerUser(userDTO, "password")).isInstanceOf(UsernameAlreadyUsedException.class);
+    }
+
+    @Test
+    @Transactional
+    void assertThatEmailTakenOnAnotherInstanceCannotBeRegistered() {
+        userRepository.saveAndFlush(user);
+        // The key filter of this instance has not seen the user yet
+        doReturn(false).when(userKeyFilter).mightContainEmail(DEFAULT_EMAIL);
+        AdminUserDTO userDTO = new AdminUserDTO();
+        userDTO.setLogin("other-" + DEFAULT_LOGIN);
+        userDTO.setEmail(DEFAULT_EMAIL);
+        userDTO.setLangKey(DEFAULT_LANGKEY);
+
+        assertThatThrownBy(() -> userService.registerUser(userDTO, "password")).isInstanceOf(EmailAlreadyUsedException.class);
+    }
+
     @Test
     @Transactional
     void assertThatOnlyActivatedUserCanRequestPasswordReset() {
@@ -178,4 +230,34 @@ class UserServiceIT {
         Optional<User> maybeDbUser = userRepository.findById(dbUser.getId());
         assertThat(maybeDbUser).contains(dbUser);
     }
+
+    @Test
+    @Transactional
+    void assertThatManagedUsersAreListedWithoutLoadingAuthoritiesOneByOne() {
+        Authority authority = authorityRepository.findById(AuthoritiesConstants.USER).orElseThrow();
+        for (int i = 0; i < 10; i++) {
+            User other = new User();
+            other.setLogin(DEFAULT_LOGIN + i);
+            other.setPassword(RandomStringUtils.randomAlphanumeric(60));
+            other.setActivated(true);
+            other.setAuthorities(Set.of(authority));
+            userRepository.save(other);
+        }
+        userRepository.flush();
+        em.clear();
+        em.getEntityManagerFactory().getCache().evictAll();
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        try {
+            Page<AdminUserDTO> page = userService.getAllManagedUsers(PageRequest.of(0, 20, Sort.by("id")));
+
+            assertThat(page.getContent()).hasSizeGreaterThanOrEqualTo(10).allSatisfy(u -> assertThat(u.getAuthorities()).isNotEmpty());
+            // The ids of the page, the count when needed, then the users with their authorities
+            assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
 }
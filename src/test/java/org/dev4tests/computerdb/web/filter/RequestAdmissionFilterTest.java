@@ -0,0 +1,189 @@
+package org.dev4tests.computerdb.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.dev4tests.computerdb.config.ApplicationProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Tests for {@link RequestAdmissionFilter}.
+ */
+class RequestAdmissionFilterTest {
+
+    private final AtomicLong nanoTime = new AtomicLong();
+
+    private ApplicationProperties.RequestAdmission properties;
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setup() {
+        properties = new ApplicationProperties.RequestAdmission();
+        properties.getPerPrincipal().setBurst(2);
+        properties.getPerPrincipal().setPermitsPerSecond(1);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void testPrincipalIsLimitedToItsBucket() throws Exception {
+        RequestAdmissionFilter filter = new RequestAdmissionFilter(properties, meterRegistry, nanoTime::get);
+
+        assertThat(perform(filter, "GET", "/api/account").getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(perform(filter, "GET", "/api/account").getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        MockHttpServletResponse rejected = perform(filter, "GET", "/api/account");
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+
+        nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertThat(perform(filter, "GET", "/api/account").getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(meterRegistry.get(RequestAdmissionFilter.REJECTED_METER_NAME).tag("reason", "principal").counter().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void testRouteIsLimitedToItsBucket() throws Exception {
+        properties.getPerPrincipal().setBurst(100);
+        ApplicationProperties.RequestAdmission.Route route = new ApplicationProperties.RequestAdmission.Route();
+        route.setMethod("POST");
+        route.setPattern("/api/admin/users/import");
+        route.setBurst(1);
+        route.setPermitsPerSecond(0.125);
+        properties.setRoutes(List.of(route));
+        RequestAdmissionFilter filter = new RequestAdmissionFilter(properties, meterRegistry, nanoTime::get);
+
+        assertThat(perform(filter, "POST", "/api/admin/users/import").getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        MockHttpServletResponse rejected = perform(filter, "POST", "/api/admin/users/import");
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("8");
+        assertThat(perform(filter, "GET", "/api/admin/users/import").getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+    }
+
+    @Test
+    void testPrincipalIsLimitedBeyondMaxKeys() throws Exception {
+        properties.setMaxKeys(10);
+        RequestAdmissionFilter filter = new RequestAdmissionFilter(properties, meterRegistry, nanoTime::get);
+        perform(filter, "GET", "/api/account");
+        perform(filter, "GET", "/api/account");
+
+        for (int i = 0; i < 1000; i++) {
+            MockHttpServletRequest request = apiRequest("GET", "/api/account");
+            request.setRemoteAddr("198.51." + (i / 256) + "." + (i % 256));
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(request, response, new MockFilterChain());
+            assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+            assertThat(perform(filter, "GET", "/api/account").getStatus()).isEqualTo(429);
+        }
+    }
+
+    @Test
+    void testConcurrencyLimitDecreasesWithSlowResponses() throws Exception {
+        properties.getPerPrincipal().setBurst(100);
+        properties.getConcurrency().setInitialLimit(20);
+        properties.getConcurrency().setMinLimit(1);
+        properties.getConcurrency().setLatencyThreshold(Duration.ofSeconds(1));
+        properties.getConcurrency().setBackoffRatio(0.5);
+        RequestAdmissionFilter filter = new RequestAdmissionFilter(properties, meterRegistry, nanoTime::get);
+
+        MockFilterChain slowChain = new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest request, ServletResponse response) {
+                nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(2));
+            }
+        };
+        filter.doFilter(apiRequest("GET", "/api/admin/users"), new MockHttpServletResponse(), slowChain);
+
+        assertThat(meterRegistry.get(RequestAdmissionFilter.CONCURRENCY_LIMIT_METER_NAME).gauge().value()).isEqualTo(10);
+        assertThat(meterRegistry.get(RequestAdmissionFilter.IN_FLIGHT_METER_NAME).gauge().value()).isZero();
+    }
+
+    @Test
+    void testConcurrencyLimitDecreasesOnlyWithTimeouts() throws Exception {
+        properties.getPerPrincipal().setBurst(100);
+        properties.getConcurrency().setInitialLimit(20);
+        properties.getConcurrency().setMinLimit(1);
+        properties.getConcurrency().setBackoffRatio(0.5);
+        RequestAdmissionFilter filter = new RequestAdmissionFilter(properties, meterRegistry, nanoTime::get);
+
+        MockFilterChain bugChain = failingChain(new IllegalArgumentException());
+        assertThatExceptionOfType(IllegalArgumentException.class)
+            .isThrownBy(() -> filter.doFilter(apiRequest("GET", "/api/account"), new MockHttpServletResponse(), bugChain));
+        assertThat(meterRegistry.get(RequestAdmissionFilter.CONCURRENCY_LIMIT_METER_NAME).gauge().value()).isEqualTo(20);
+
+        MockFilterChain timeoutChain = failingChain(new QueryTimeoutException("Query timed out"));
+        assertThatExceptionOfType(QueryTimeoutException.class)
+            .isThrownBy(() -> filter.doFilter(apiRequest("GET", "/api/account"), new MockHttpServletResponse(), timeoutChain));
+        assertThat(meterRegistry.get(RequestAdmissionFilter.CONCURRENCY_LIMIT_METER_NAME).gauge().value()).isEqualTo(10);
+        assertThat(meterRegistry.get(RequestAdmissionFilter.IN_FLIGHT_METER_NAME).gauge().value()).isZero();
+    }
+
+    @Test
+    void testConcurrencyLimitRejectsRequestsInFlightBeyondIt() throws Exception {
+        properties.getPerPrincipal().setBurst(100);
+        properties.getConcurrency().setInitialLimit(1);
+        properties.getConcurrency().setMinLimit(1);
+        RequestAdmissionFilter filter = new RequestAdmissionFilter(properties, meterRegistry, nanoTime::get);
+
+        MockHttpServletResponse[] nested = new MockHttpServletResponse[1];
+        MockFilterChain reentrantChain = new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest request, ServletResponse response) {
+                nested[0] = new MockHttpServletResponse();
+                try {
+                    filter.doFilter(apiRequest("GET", "/api/account"), nested[0], new MockFilterChain());
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        };
+        filter.doFilter(apiRequest("GET", "/api/account"), new MockHttpServletResponse(), reentrantChain);
+
+        assertThat(nested[0].getStatus()).isEqualTo(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        assertThat(nested[0].getContentAsString()).contains("\"status\":503");
+    }
+
+    @Test
+    void testNonApiRequestsAreNotLimited() throws Exception {
+        RequestAdmissionFilter filter = new RequestAdmissionFilter(properties, meterRegistry, nanoTime::get);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(perform(filter, "GET", "/management/health").getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        }
+    }
+
+    private static MockFilterChain failingChain(RuntimeException exception) {
+        return new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest request, ServletResponse response) {
+                throw exception;
+            }
+        };
+    }
+
+    private static MockHttpServletResponse perform(RequestAdmissionFilter filter, String method, String uri) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(apiRequest(method, uri), response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest apiRequest(String method, String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr("192.0.2.1");
+        return request;
+    }
+}
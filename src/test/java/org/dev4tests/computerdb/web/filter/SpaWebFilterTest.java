@@ -0,0 +1,111 @@
+package org.dev4tests.computerdb.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Tests for {@link SpaWebFilter}.
+ */
+class SpaWebFilterTest {
+
+    private static final String INDEX = "<!doctype html><html><body><jhi-main></jhi-main></body></html>";
+
+    private final SpaWebFilter filter = new SpaWebFilter(new ByteArrayResource(INDEX.getBytes(StandardCharsets.UTF_8)));
+
+    @Test
+    void testClientRouteIsAnsweredWithIndex() throws Exception {
+        MockHttpServletResponse response = perform(filter, new MockHttpServletRequest("GET", "/admin/user-management"));
+
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(response.getForwardedUrl()).isNull();
+        assertThat(response.getContentType()).isEqualTo("text/html;charset=UTF-8");
+        assertThat(response.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("no-cache");
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNotBlank();
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(response.getContentAsString(StandardCharsets.UTF_8)).isEqualTo(INDEX);
+    }
+
+    @Test
+    void testClientRouteIsAnsweredWithGzippedIndex() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/account/settings");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br");
+        MockHttpServletResponse response = perform(filter, request);
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(response.getHeader(HttpHeaders.VARY)).isEqualTo(HttpHeaders.ACCEPT_ENCODING);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(INDEX);
+        }
+    }
+
+    @Test
+    void testClientRouteIsNotModified() throws Exception {
+        String etag = perform(filter, new MockHttpServletRequest("GET", "/")).getHeader(HttpHeaders.ETAG);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/computer");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        MockHttpServletResponse response = perform(filter, request);
+
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_NOT_MODIFIED);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void testHeadIsAnsweredWithoutBody() throws Exception {
+        MockHttpServletResponse response = perform(filter, new MockHttpServletRequest("HEAD", "/computer"));
+
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(response.getContentLength()).isEqualTo(INDEX.length());
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void testOtherMethodsAreForwarded() throws Exception {
+        MockHttpServletResponse response = perform(filter, new MockHttpServletRequest("POST", "/computer"));
+
+        assertThat(response.getForwardedUrl()).isEqualTo("/index.html");
+    }
+
+    @Test
+    void testServerPathsAndFilesAreNotHandled() throws Exception {
+        for (String uri : new String[] { "/api/account", "/management/health", "/v3/api-docs", "/websocket/tracker", "/main.js" }) {
+            MockFilterChain filterChain = new MockFilterChain();
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(new MockHttpServletRequest("GET", uri), response, filterChain);
+
+            assertThat(filterChain.getRequest()).as(uri).isNotNull();
+            assertThat(response.getContentAsByteArray()).as(uri).isEmpty();
+        }
+    }
+
+    @Test
+    void testContextPathIsSkipped() {
+        assertThat(SpaWebFilter.isClientRoute("/app/computer", "/app".length())).isTrue();
+        assertThat(SpaWebFilter.isClientRoute("/app/api/account", "/app".length())).isFalse();
+        assertThat(SpaWebFilter.isClientRoute("/app", "/app".length())).isFalse();
+    }
+
+    @Test
+    void testClientRouteIsForwardedWithoutIndex() throws Exception {
+        SpaWebFilter forwardingFilter = new SpaWebFilter(new ClassPathResource("static/missing-index.html"));
+        MockHttpServletResponse response = perform(forwardingFilter, new MockHttpServletRequest("GET", "/computer"));
+
+        assertThat(response.getForwardedUrl()).isEqualTo("/index.html");
+    }
+
+    private static MockHttpServletResponse perform(SpaWebFilter filter, MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,60 @@
+package org.dev4tests.computerdb.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Tests for {@link TrustedProxyFilter}.
+ */
+class TrustedProxyFilterTest {
+
+    private final TrustedProxyFilter filter = new TrustedProxyFilter(List.of("10.0.0.0/8", "192.168.1.1"));
+
+    @Test
+    void testClientAddressIsForwardedByTrustedProxy() throws Exception {
+        assertThat(remoteAddr("10.0.0.5", "203.0.113.7")).isEqualTo("203.0.113.7");
+    }
+
+    @Test
+    void testForwardedAddressIsIgnoredFromOtherPeers() throws Exception {
+        assertThat(remoteAddr("198.51.100.2", "203.0.113.7")).isEqualTo("198.51.100.2");
+    }
+
+    @Test
+    void testAddressesSpoofedByClientAreIgnored() throws Exception {
+        assertThat(remoteAddr("10.0.0.5", "1.2.3.4, 203.0.113.7, 192.168.1.1")).isEqualTo("203.0.113.7");
+    }
+
+    @Test
+    void testLeftmostAddressIsKeptWhenAllAreTrusted() throws Exception {
+        assertThat(remoteAddr("10.0.0.5", "10.1.1.1, 192.168.1.1")).isEqualTo("10.1.1.1");
+    }
+
+    @Test
+    void testMalformedHeaderKeepsPeerAddress() throws Exception {
+        assertThat(remoteAddr("10.0.0.5", "client.example.com")).isEqualTo("10.0.0.5");
+        assertThat(remoteAddr("10.0.0.5", "203.0.113.7, ")).isEqualTo("10.0.0.5");
+        assertThat(remoteAddr("10.0.0.5", "ffff::zz")).isEqualTo("10.0.0.5");
+    }
+
+    @Test
+    void testMissingHeaderKeepsPeerAddress() throws Exception {
+        assertThat(remoteAddr("10.0.0.5", null)).isEqualTo("10.0.0.5");
+    }
+
+    private String remoteAddr(String peerAddress, String forwardedFor) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/account");
+        request.setRemoteAddr(peerAddress);
+        if (forwardedFor != null) {
+            request.addHeader(TrustedProxyFilter.X_FORWARDED_FOR, forwardedFor);
+        }
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        return chain.getRequest().getRemoteAddr();
+    }
+}
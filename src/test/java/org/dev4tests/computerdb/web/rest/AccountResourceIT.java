@@ -1,6 +1,8 @@
 package org.dev4tests.computerdb.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -13,6 +15,7 @@ import org.dev4tests.computerdb.domain.User;
 import org.dev4tests.computerdb.repository.AuthorityRepository;
 import org.dev4tests.computerdb.repository.UserRepository;
 import org.dev4tests.computerdb.security.AuthoritiesConstants;
+import org.dev4tests.computerdb.security.SecurityUtils;
 import org.dev4tests.computerdb.service.UserService;
 import org.dev4tests.computerdb.service.dto.AdminUserDTO;
 import org.dev4tests.computerdb.service.dto.PasswordChangeDTO;
@@ -21,9 +24,11 @@ import org.dev4tests.computerdb.web.rest.vm.ManagedUserVM;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.JwtRequestPostProcessor;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -98,6 +103,46 @@ class AccountResourceIT {
             .andExpect(jsonPath("$.authorities").value(AuthoritiesConstants.ADMIN));
     }
 
+    @Test
+    @Transactional
+    void testGetAccountNotModified() throws Exception {
+        User user = new User();
+        user.setLogin("account-etag");
+        user.setEmail("account-etag@example.com");
+        user.setPassword(RandomStringUtils.randomAlphanumeric(60));
+        user.setActivated(true);
+        userRepository.saveAndFlush(user);
+        JwtRequestPostProcessor token = jwt().jwt(jwt -> jwt.subject("account-etag").claim(SecurityUtils.USER_ID_KEY, user.getId()));
+
+        String eTag = restAccountMockMvc
+            .perform(get("/api/account").with(token).accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andExpect(jsonPath("$.login").value("account-etag"))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        restAccountMockMvc
+            .perform(get("/api/account").with(token).header(HttpHeaders.IF_NONE_MATCH, eTag).accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+
+        AdminUserDTO userDTO = new AdminUserDTO(user);
+        userDTO.setFirstName("etag");
+        restAccountMockMvc
+            .perform(
+                post("/api/account").with(token).contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(userDTO))
+            )
+            .andExpect(status().isOk());
+
+        restAccountMockMvc
+            .perform(get("/api/account").with(token).header(HttpHeaders.IF_NONE_MATCH, eTag).accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(eTag)))
+            .andExpect(jsonPath("$.firstName").value("etag"));
+    }
+
     @Test
     void testGetUnknownAccount() throws Exception {
         restAccountMockMvc.perform(get("/api/account").accept(MediaType.APPLICATION_PROBLEM_JSON)).andExpect(status().isUnauthorized());
@@ -1,24 +1,33 @@
 package org.dev4tests.computerdb.web.rest;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.emptyString;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.nullValue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.dev4tests.computerdb.IntegrationTest;
+import org.dev4tests.computerdb.config.ApplicationProperties;
 import org.dev4tests.computerdb.domain.User;
 import org.dev4tests.computerdb.repository.UserRepository;
+import org.dev4tests.computerdb.security.AuthenticationObservations;
 import org.dev4tests.computerdb.web.rest.vm.LoginVM;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -28,6 +37,13 @@ import org.springframework.transaction.annotation.Transactional;
 @IntegrationTest
 class AuthenticateControllerIT {
 
+    private static final String[] AUTHENTICATION_STAGES = {
+        AuthenticationObservations.USER_LOOKUP,
+        AuthenticationObservations.PASSWORD_VERIFY,
+        AuthenticationObservations.TOKEN_ENCODE,
+        AuthenticationObservations.SERIALIZATION,
+    };
+
     @Autowired
     private UserRepository userRepository;
 
@@ -37,6 +53,12 @@ class AuthenticateControllerIT {
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
     @Test
     @Transactional
     void testAuthorize() throws Exception {
@@ -60,6 +82,29 @@ class AuthenticateControllerIT {
             .andExpect(header().string("Authorization", not(is(emptyString()))));
     }
 
+    @Test
+    @Transactional
+    void testAuthorizeUpgradesLegacyPasswordHash() throws Exception {
+        User user = new User();
+        user.setLogin("user-jwt-controller-legacy-hash");
+        user.setEmail("user-jwt-controller-legacy-hash@example.com");
+        user.setActivated(true);
+        user.setPassword(new BCryptPasswordEncoder(4).encode("test"));
+
+        userRepository.saveAndFlush(user);
+
+        LoginVM login = new LoginVM();
+        login.setUsername("user-jwt-controller-legacy-hash");
+        login.setPassword("test");
+        mockMvc
+            .perform(post("/api/authenticate").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(login)))
+            .andExpect(status().isOk());
+
+        String upgradedPassword = userRepository.findOneByLogin("user-jwt-controller-legacy-hash").orElseThrow().getPassword();
+        assertThat(upgradedPassword).startsWith("{bcrypt}$2a$10$");
+        assertThat(passwordEncoder.matches("test", upgradedPassword)).isTrue();
+    }
+
     @Test
     @Transactional
     void testAuthorizeWithRememberMe() throws Exception {
@@ -84,6 +129,35 @@ class AuthenticateControllerIT {
             .andExpect(header().string("Authorization", not(is(emptyString()))));
     }
 
+    @Test
+    @Transactional
+    void testAuthorizeObservesTheStages() throws Exception {
+        User user = new User();
+        user.setLogin("user-jwt-controller-stages");
+        user.setEmail("user-jwt-controller-stages@example.com");
+        user.setActivated(true);
+        user.setPassword(passwordEncoder.encode("test"));
+
+        userRepository.saveAndFlush(user);
+
+        LoginVM login = new LoginVM();
+        login.setUsername("user-jwt-controller-stages");
+        login.setPassword("test");
+        long[] counts = new long[AUTHENTICATION_STAGES.length];
+        for (int i = 0; i < AUTHENTICATION_STAGES.length; i++) {
+            counts[i] = stageCount(AUTHENTICATION_STAGES[i]);
+        }
+        mockMvc
+            .perform(post("/api/authenticate").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(login)))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+            .andExpect(jsonPath("$.id_token").isNotEmpty());
+
+        for (int i = 0; i < AUTHENTICATION_STAGES.length; i++) {
+            assertThat(stageCount(AUTHENTICATION_STAGES[i])).as(AUTHENTICATION_STAGES[i]).isEqualTo(counts[i] + 1);
+        }
+    }
+
     @Test
     void testAuthorizeFails() throws Exception {
         LoginVM login = new LoginVM();
@@ -95,4 +169,43 @@ class AuthenticateControllerIT {
             .andExpect(jsonPath("$.id_token").doesNotExist())
             .andExpect(header().doesNotExist("Authorization"));
     }
+
+    @Test
+    void testAuthorizeIsThrottled() throws Exception {
+        LoginVM login = new LoginVM();
+        login.setUsername("user-jwt-controller-throttled");
+        login.setPassword("wrong password");
+        byte[] content = TestUtil.convertObjectToJsonBytes(login);
+        int maxAttempts = applicationProperties.getSecurity().getLoginThrottling().getMaxAttemptsPerLogin();
+        for (int i = 0; i < maxAttempts; i++) {
+            mockMvc.perform(authenticateFrom("192.0.2.10", content)).andExpect(status().isUnauthorized());
+        }
+
+        mockMvc
+            .perform(authenticateFrom("192.0.2.10", content))
+            .andExpect(status().isTooManyRequests())
+            .andExpect(header().string(HttpHeaders.RETRY_AFTER, not(is(emptyString()))))
+            .andExpect(jsonPath("$.id_token").doesNotExist());
+    }
+
+    private static MockHttpServletRequestBuilder authenticateFrom(String remoteAddress, byte[] content) {
+        return post("/api/authenticate")
+            .with(request -> {
+                request.setRemoteAddr(remoteAddress);
+                return request;
+            })
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(content);
+    }
+
+    private long stageCount(String stage) {
+        // One timer per error, the failed lookups of the other tests included
+        return meterRegistry
+            .find(AuthenticationObservations.NAME)
+            .tag(AuthenticationObservations.STAGE, stage)
+            .timers()
+            .stream()
+            .mapToLong(Timer::count)
+            .sum();
+    }
 }
@@ -0,0 +1,87 @@
+package org.dev4tests.computerdb.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.nimbusds.jwt.SignedJWT;
+import org.dev4tests.computerdb.IntegrationTest;
+import org.dev4tests.computerdb.domain.User;
+import org.dev4tests.computerdb.repository.UserRepository;
+import org.dev4tests.computerdb.web.rest.vm.LoginVM;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the {@link JwkSetResource} REST controller, with tokens signed by rotating ES256 keys.
+ */
+@AutoConfigureMockMvc
+@IntegrationTest
+@TestPropertySource(properties = "application.security.signing.algorithm=ES256")
+class JwkSetResourceIT {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void testGetJwkSet() throws Exception {
+        mockMvc
+            .perform(get("/.well-known/jwks.json"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+            .andExpect(header().exists(HttpHeaders.CACHE_CONTROL))
+            .andExpect(jsonPath("$.keys", hasSize(2)))
+            .andExpect(jsonPath("$.keys[*].kty").value(hasItem("EC")))
+            .andExpect(jsonPath("$.keys[0].d").doesNotExist());
+    }
+
+    @Test
+    @Transactional
+    void testTokenIsSignedWithPublishedKey() throws Exception {
+        User user = new User();
+        user.setLogin("user-jwks");
+        user.setEmail("user-jwks@example.com");
+        user.setActivated(true);
+        user.setPassword(passwordEncoder.encode("test"));
+        userRepository.saveAndFlush(user);
+
+        LoginVM login = new LoginVM();
+        login.setUsername("user-jwks");
+        login.setPassword("test");
+        String token = mockMvc
+            .perform(post("/api/authenticate").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(login)))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.AUTHORIZATION)
+            .substring("Bearer ".length());
+
+        SignedJWT jwt = SignedJWT.parse(token);
+        assertThat(jwt.getHeader().getAlgorithm().getName()).isEqualTo("ES256");
+        mockMvc.perform(get("/.well-known/jwks.json")).andExpect(jsonPath("$.keys[*].kid").value(hasItem(jwt.getHeader().getKeyID())));
+
+        mockMvc
+            .perform(get("/api/authenticate").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+            .andExpect(status().isOk())
+            .andExpect(content().string("user-jwks"));
+    }
+}
@@ -2,6 +2,7 @@ package org.dev4tests.computerdb.web.rest;
 
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -18,6 +19,7 @@ import org.springframework.cache.CacheManager;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -72,6 +74,49 @@ class PublicUserResourceIT {
             .andExpect(jsonPath("$.[*].langKey").doesNotExist());
     }
 
+    @Test
+    @Transactional
+    void getAllPublicUsersWithoutCount() throws Exception {
+        // Initialize the database
+        userRepository.saveAndFlush(user);
+
+        restUserMockMvc
+            .perform(get("/api/users?skipCount=true&approximateCount=true&sort=id,desc").accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(header().exists("X-Total-Count-Approximate"))
+            .andExpect(header().string("X-Has-Next", "false"))
+            .andExpect(jsonPath("$.[*].login").value(hasItem(DEFAULT_LOGIN)));
+    }
+
+    @Test
+    @Transactional
+    void getAllPublicUsersWithKeysetPagination() throws Exception {
+        // Initialize the database
+        userRepository.saveAndFlush(user);
+        User other = UserResourceIT.createEntity(em);
+        userRepository.saveAndFlush(other);
+        User notActivated = UserResourceIT.createEntity(em);
+        notActivated.setActivated(false);
+        userRepository.saveAndFlush(notActivated);
+
+        MvcResult firstPage = restUserMockMvc
+            .perform(get("/api/users?after=&size=1&sort=id,asc&count=true").accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "2"))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].login").value(DEFAULT_LOGIN))
+            .andReturn();
+
+        restUserMockMvc
+            .perform(get("/api/users?size=1&sort=id,asc&after=" + UserResourceIT.nextCursor(firstPage)).accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].login").value(other.getLogin()))
+            .andExpect(jsonPath("$.[*].login").value(not(hasItem(notActivated.getLogin()))));
+    }
+
     @Test
     @Transactional
     void getAllAuthorities() throws Exception {
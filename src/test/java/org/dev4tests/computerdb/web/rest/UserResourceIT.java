@@ -1,10 +1,13 @@
 package org.dev4tests.computerdb.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.EntityManager;
 import java.time.Instant;
 import java.util.*;
@@ -16,16 +19,21 @@ import org.dev4tests.computerdb.domain.User;
 import org.dev4tests.computerdb.repository.UserRepository;
 import org.dev4tests.computerdb.security.AuthoritiesConstants;
 import org.dev4tests.computerdb.service.dto.AdminUserDTO;
+import org.dev4tests.computerdb.service.dto.UserImportResultDTO;
 import org.dev4tests.computerdb.service.mapper.UserMapper;
+import org.dev4tests.computerdb.web.rest.util.KeysetPaginationUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.util.UriComponentsBuilder;
 
 /**
  * Integration tests for the {@link UserResource} REST controller.
@@ -226,6 +234,154 @@ class UserResourceIT {
         assertPersistedUsers(users -> assertThat(users).hasSize(databaseSizeBeforeCreate));
     }
 
+    @Test
+    @Transactional
+    void importUsers() throws Exception {
+        // Initialize the database
+        userRepository.saveAndFlush(user);
+
+        String users = String.join(
+            "\n",
+            "{\"login\":\"imported1\",\"email\":\"imported1@localhost\",\"authorities\":[\"" + AuthoritiesConstants.USER + "\"]}",
+            "{\"login\":\"" + DEFAULT_LOGIN + "\",\"email\":\"imported2@localhost\"}",
+            "{\"login\":\"imported3\",\"email\":\"imported1@localhost\"}",
+            "",
+            "{\"login\":\"imported4\",\"email\":\"invalid\"}",
+            "not json"
+        );
+
+        MvcResult result = restUserMockMvc
+            .perform(post("/api/admin/users/import").contentType(MediaType.APPLICATION_NDJSON).content(users))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+            .andReturn();
+
+        List<UserImportResultDTO> results = readImportResults(result);
+        assertThat(results).extracting(UserImportResultDTO::getLine).containsExactly(1L, 2L, 3L, 5L, 6L);
+        assertThat(results)
+            .extracting(UserImportResultDTO::getStatus)
+            .containsExactly(
+                UserImportResultDTO.Status.CREATED,
+                UserImportResultDTO.Status.REJECTED,
+                UserImportResultDTO.Status.REJECTED,
+                UserImportResultDTO.Status.REJECTED,
+                UserImportResultDTO.Status.REJECTED
+            );
+        assertThat(results.get(0).getId()).isNotNull();
+        assertThat(results.get(1).getErrors()).containsExactly("Login name already used!");
+        assertThat(results.get(2).getErrors()).containsExactly("Email is already used in the import!");
+
+        Optional<User> imported = userRepository.findOneWithAuthoritiesByLogin("imported1");
+        assertThat(imported).isPresent();
+        assertThat(imported.get().isActivated()).isTrue();
+        assertThat(imported.get().getResetKey()).isNotNull();
+        assertThat(imported.get().getAuthorities()).extracting(Authority::getName).containsExactly(AuthoritiesConstants.USER);
+        assertThat(userRepository.findOneByLogin("imported3")).isEmpty();
+    }
+
+    @Test
+    @Transactional
+    void importUsersFromCsv() throws Exception {
+        String users = String.join(
+            "\n",
+            "login,firstName,lastName,email,authorities",
+            "imported1,\"Doe, Jane\",Doe,imported1@localhost," + AuthoritiesConstants.USER + "|" + AuthoritiesConstants.ADMIN,
+            "imported2,Jane"
+        );
+
+        MvcResult result = restUserMockMvc
+            .perform(post("/api/admin/users/import").contentType("text/csv").content(users))
+            .andExpect(status().isOk())
+            .andReturn();
+
+        List<UserImportResultDTO> results = readImportResults(result);
+        assertThat(results)
+            .extracting(UserImportResultDTO::getStatus)
+            .containsExactly(UserImportResultDTO.Status.CREATED, UserImportResultDTO.Status.REJECTED);
+
+        Optional<User> imported = userRepository.findOneWithAuthoritiesByLogin("imported1");
+        assertThat(imported).isPresent();
+        assertThat(imported.get().getFirstName()).isEqualTo("Doe, Jane");
+        assertThat(imported.get().getAuthorities())
+            .extracting(Authority::getName)
+            .containsExactlyInAnyOrder(AuthoritiesConstants.USER, AuthoritiesConstants.ADMIN);
+    }
+
+    @Test
+    void exportUsers() throws Exception {
+        User exportedUser = saveExportedUser();
+
+        MvcResult result = restUserMockMvc
+            .perform(get("/api/admin/export/users").accept(MediaType.APPLICATION_NDJSON))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        restUserMockMvc
+            .perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+            .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, containsString("users.ndjson")));
+
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        Map<String, AdminUserDTO> users = new HashMap<>();
+        for (String line : result.getResponse().getContentAsString().split("\n")) {
+            AdminUserDTO exported = objectMapper.readValue(line, AdminUserDTO.class);
+            users.put(exported.getLogin(), exported);
+        }
+        userRepository.delete(exportedUser);
+        assertThat(users).containsKey(exportedUser.getLogin());
+        assertThat(users.get(exportedUser.getLogin()).getAuthorities())
+            .containsExactlyInAnyOrder(AuthoritiesConstants.ADMIN, AuthoritiesConstants.USER);
+    }
+
+    @Test
+    void exportUsersAsCsv() throws Exception {
+        User exportedUser = saveExportedUser();
+
+        MvcResult result = restUserMockMvc
+            .perform(get("/api/admin/export/users?format=csv"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        restUserMockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+        userRepository.delete(exportedUser);
+        assertThat(lines[0]).startsWith("id,login,firstName,lastName,email");
+        String prefix = exportedUser.getId() + "," + exportedUser.getLogin() + ",";
+        assertThat(lines).anyMatch(line -> line.startsWith(prefix) && line.endsWith(",ROLE_ADMIN|ROLE_USER"));
+    }
+
+    @Test
+    void exportUsersWithUnknownFormat() throws Exception {
+        restUserMockMvc.perform(get("/api/admin/export/users?format=xml")).andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Save an administrator, committed since the users are exported by another thread. Its login is random, so that
+     * it does not conflict with the user of the other tests if it is left behind.
+     */
+    private User saveExportedUser() {
+        User exportedUser = createEntity(em);
+        Set<Authority> authorities = new HashSet<>();
+        for (String authorityName : new String[] { AuthoritiesConstants.ADMIN, AuthoritiesConstants.USER }) {
+            Authority authority = new Authority();
+            authority.setName(authorityName);
+            authorities.add(authority);
+        }
+        exportedUser.setAuthorities(authorities);
+        return userRepository.saveAndFlush(exportedUser);
+    }
+
+    private static List<UserImportResultDTO> readImportResults(MvcResult result) throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<UserImportResultDTO> results = new ArrayList<>();
+        for (String line : result.getResponse().getContentAsString().split("\n")) {
+            results.add(objectMapper.readValue(line, UserImportResultDTO.class));
+        }
+        return results;
+    }
+
     @Test
     @Transactional
     void getAllUsers() throws Exception {
@@ -245,6 +401,87 @@ class UserResourceIT {
             .andExpect(jsonPath("$.[*].langKey").value(hasItem(DEFAULT_LANGKEY)));
     }
 
+    @Test
+    @Transactional
+    void getAllUsersWithoutCount() throws Exception {
+        // Initialize the database
+        userRepository.saveAndFlush(user);
+        userRepository.saveAndFlush(createEntity(em));
+
+        restUserMockMvc
+            .perform(get("/api/admin/users?skipCount=true&size=1&sort=login,asc").accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(header().doesNotExist("X-Total-Count-Approximate"))
+            .andExpect(header().string("X-Has-Next", "true"))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("rel=\"next\"")))
+            .andExpect(jsonPath("$.[0].login").value(DEFAULT_LOGIN));
+
+        restUserMockMvc
+            .perform(
+                get("/api/admin/users?skipCount=true&approximateCount=true&page=1&size=1&sort=login,asc").accept(MediaType.APPLICATION_JSON)
+            )
+            .andExpect(status().isOk())
+            .andExpect(header().exists("X-Total-Count-Approximate"))
+            .andExpect(header().string("X-Has-Next", "false"))
+            .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    @Transactional
+    void getAllUsersWithKeysetPagination() throws Exception {
+        // Initialize the database
+        userRepository.saveAndFlush(user);
+        userRepository.saveAndFlush(createEntity(em));
+        userRepository.saveAndFlush(createEntity(em));
+
+        // Get the first page
+        MvcResult firstPage = restUserMockMvc
+            .perform(get("/api/admin/users?after=&size=2&sort=login,asc&count=true").accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().string("X-Total-Count", "3"))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("rel=\"next\"")))
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$.[0].login").value(DEFAULT_LOGIN))
+            .andReturn();
+
+        // Follow the next link to the last page
+        restUserMockMvc
+            .perform(get("/api/admin/users?size=2&sort=login,asc&after=" + nextCursor(firstPage)).accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(header().string(HttpHeaders.LINK, not(containsString("rel=\"next\""))))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[*].login").value(not(hasItem(DEFAULT_LOGIN))));
+    }
+
+    @Test
+    @Transactional
+    void getAllUsersWithInvalidCursor() throws Exception {
+        restUserMockMvc
+            .perform(get("/api/admin/users?after=invalid").accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isBadRequest());
+        restUserMockMvc
+            .perform(get("/api/admin/users?after=" + KeysetPaginationUtil.encodeCursor(Long.MAX_VALUE)).accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isBadRequest());
+        restUserMockMvc
+            .perform(get("/api/admin/users?after=&sort=login,asc&sort=id,desc").accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isBadRequest());
+    }
+
+    static String nextCursor(MvcResult result) {
+        String link = Arrays
+            // The links are separated by commas, which their sort parameters may contain too
+            .stream(result.getResponse().getHeader(HttpHeaders.LINK).split(",(?=<)"))
+            .filter(part -> part.endsWith("rel=\"next\""))
+            .findFirst()
+            .orElseThrow();
+        String uri = link.substring(link.indexOf('<') + 1, link.indexOf('>'));
+        return UriComponentsBuilder.fromUriString(uri).build().getQueryParams().getFirst(KeysetPaginationUtil.AFTER_PARAMETER);
+    }
+
     @Test
     @Transactional
     void getUser() throws Exception {
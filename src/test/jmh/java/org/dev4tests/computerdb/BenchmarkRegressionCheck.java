@@ -0,0 +1,117 @@
+package org.dev4tests.computerdb;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares the results of a JMH run with a baseline, run by the jmh profile after the benchmarks.
+ * <p>
+ * A benchmark regresses when its score is worse than its baseline score by more than the threshold, in percent, and by
+ * more than the sum of the errors of both scores: lower is better for the time modes, higher for the throughput. The
+ * check fails when a benchmark regresses. The benchmarks missing from the baseline are only reported, so that new
+ * benchmarks and subsets of them can be run. With the update flag, the results replace the baseline instead.
+ * <p>
+ * Arguments: the results file, the baseline file, the threshold and the update flag.
+ */
+public final class BenchmarkRegressionCheck {
+
+    private static final String THROUGHPUT_MODE = "thrpt";
+
+    private BenchmarkRegressionCheck() {}
+
+    public static void main(String[] args) throws IOException {
+        Path results = Path.of(args[0]);
+        Path baseline = Path.of(args[1]);
+        double threshold = Double.parseDouble(args[2]);
+        boolean update = Boolean.parseBoolean(args[3]);
+
+        if (update) {
+            Files.createDirectories(baseline.toAbsolutePath().getParent());
+            Files.copy(results, baseline, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("Baseline " + baseline + " updated with " + results);
+            return;
+        }
+        if (!Files.exists(results)) {
+            System.out.println("No benchmark results in " + results + ", nothing to compare");
+            return;
+        }
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        Map<String, JsonNode> baselineScores = Files.exists(baseline) ? read(objectMapper, baseline) : Map.of();
+        int regressions = 0;
+        for (Map.Entry<String, JsonNode> result : read(objectMapper, results).entrySet()) {
+            JsonNode current = result.getValue();
+            JsonNode reference = baselineScores.get(result.getKey());
+            if (reference == null) {
+                System.out.printf("NEW        %s: %.3f %s%n", result.getKey(), score(current), unit(current));
+                continue;
+            }
+            if (!unit(current).equals(unit(reference))) {
+                System.out.printf("SKIPPED    %s: %s instead of %s in the baseline%n", result.getKey(), unit(current), unit(reference));
+                continue;
+            }
+            // Positive when the score is worse than the baseline one
+            double worse = THROUGHPUT_MODE.equals(current.get("mode").asText())
+                ? score(reference) - score(current)
+                : score(current) - score(reference);
+            double change = 100 * worse / score(reference);
+            boolean regressed = change > threshold && worse > error(current) + error(reference);
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf(
+                "%-10s %s: %.3f %s, baseline %.3f, %+.1f%% worse%n",
+                regressed ? "REGRESSED" : "OK",
+                result.getKey(),
+                score(current),
+                unit(current),
+                score(reference),
+                change
+            );
+        }
+        if (regressions > 0) {
+            System.err.printf("%d benchmark(s) regressed by more than %.1f%% compared with %s%n", regressions, threshold, baseline);
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, JsonNode> read(ObjectMapper objectMapper, Path path) throws IOException {
+        Map<String, JsonNode> benchmarks = new HashMap<>();
+        for (JsonNode benchmark : objectMapper.readTree(path.toFile())) {
+            benchmarks.put(key(benchmark), benchmark);
+        }
+        return benchmarks;
+    }
+
+    private static String key(JsonNode benchmark) {
+        StringBuilder key = new StringBuilder(benchmark.get("benchmark").asText()).append(' ').append(benchmark.get("mode").asText());
+        Map<String, String> params = new TreeMap<>();
+        if (benchmark.has("params")) {
+            Iterator<Map.Entry<String, JsonNode>> fields = benchmark.get("params").fields();
+            fields.forEachRemaining(field -> params.put(field.getKey(), field.getValue().asText()));
+        }
+        params.forEach((name, value) -> key.append(' ').append(name).append('=').append(value));
+        return key.toString();
+    }
+
+    private static double score(JsonNode benchmark) {
+        return benchmark.get("primaryMetric").get("score").asDouble();
+    }
+
+    private static double error(JsonNode benchmark) {
+        double error = benchmark.get("primaryMetric").get("scoreError").asDouble();
+        return Double.isNaN(error) ? 0 : error;
+    }
+
+    private static String unit(JsonNode benchmark) {
+        return benchmark.get("primaryMetric").get("scoreUnit").asText();
+    }
+}
@@ -0,0 +1,61 @@
+package org.dev4tests.computerdb.config;
+
+import ch.qos.logback.classic.spi.LoggingEvent;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the {@link CRLFLogConverter}, which runs on the message of every console log event, for a message with and
+ * without line breaks, logged by an application logger or by a logger whose messages are trusted.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 5)
+public class CRLFLogConverterBenchmark {
+
+    @Param({ "clean", "crlf" })
+    private String message;
+
+    @Param({ "org.dev4tests.computerdb.web.rest.UserResource", "org.hibernate.SQL" })
+    private String loggerName;
+
+    private CRLFLogConverter converter;
+
+    private LoggingEvent event;
+
+    private String formattedMessage;
+
+    @Setup
+    public void setup() {
+        converter = new CRLFLogConverter();
+        converter.setOptionList(List.of("red"));
+        formattedMessage =
+            switch (message) {
+                case "clean" -> "REST request to get User : AdminUserDTO{login='user-42', firstName='First', lastName='Last'}";
+                case "crlf" -> "REST request to get User : AdminUserDTO{login='user-42\r\n2026-10-18 INFO forged entry', lastName='Last'}";
+                default -> throw new IllegalArgumentException("Unknown message: " + message);
+            };
+        event = new LoggingEvent();
+        event.setLoggerName(loggerName);
+        event.setMessage(formattedMessage);
+    }
+
+    @Benchmark
+    public String transform() {
+        return converter.transform(event, formattedMessage);
+    }
+}
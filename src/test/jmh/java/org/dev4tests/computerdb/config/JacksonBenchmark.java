@@ -0,0 +1,103 @@
+package org.dev4tests.computerdb.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.dev4tests.computerdb.security.AuthoritiesConstants;
+import org.dev4tests.computerdb.service.dto.AdminUserDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Measures the JSON serialization of the users with an object mapper built like the one of the application, with the
+ * modules of {@link JacksonConfiguration}: a page of the user management, an account, and the body of an update.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 5)
+public class JacksonBenchmark {
+
+    @Param({ "20", "100" })
+    private int pageSize;
+
+    private ObjectWriter pageWriter;
+
+    private ObjectWriter userWriter;
+
+    private ObjectReader userReader;
+
+    private List<AdminUserDTO> page;
+
+    private byte[] userJson;
+
+    @Setup
+    public void setup() throws IOException {
+        JacksonConfiguration jacksonConfiguration = new JacksonConfiguration();
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder
+            .json()
+            .modules(jacksonConfiguration.javaTimeModule(), jacksonConfiguration.jdk8TimeModule(), jacksonConfiguration.hibernate6Module())
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+            .build();
+        pageWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, AdminUserDTO.class));
+        userWriter = objectMapper.writerFor(AdminUserDTO.class);
+        userReader = objectMapper.readerFor(AdminUserDTO.class);
+        page = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            page.add(userDTO(i));
+        }
+        userJson = userWriter.writeValueAsBytes(page.get(0));
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws IOException {
+        return pageWriter.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] serializeUser() throws IOException {
+        return userWriter.writeValueAsBytes(page.get(0));
+    }
+
+    @Benchmark
+    public AdminUserDTO deserializeUser() throws IOException {
+        return userReader.readValue(userJson);
+    }
+
+    private static AdminUserDTO userDTO(long id) {
+        AdminUserDTO userDTO = new AdminUserDTO();
+        userDTO.setId(id);
+        userDTO.setLogin("user-" + id);
+        userDTO.setFirstName("First " + id);
+        userDTO.setLastName("Last " + id);
+        userDTO.setEmail("user-" + id + "@example.com");
+        userDTO.setImageUrl("http://placehold.it/50x50");
+        userDTO.setActivated(true);
+        userDTO.setLangKey("en");
+        userDTO.setCreatedBy("system");
+        userDTO.setCreatedDate(Instant.now());
+        userDTO.setLastModifiedBy("system");
+        userDTO.setLastModifiedDate(Instant.now());
+        userDTO.setAuthorities(Set.of(AuthoritiesConstants.USER));
+        return userDTO;
+    }
+}
@@ -0,0 +1,118 @@
+package org.dev4tests.computerdb.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Compares the platform thread pool of {@link AsyncConfiguration} with virtual threads, under a burst of tasks
+ * blocking like JDBC or SMTP calls.
+ * <p>
+ * Each invocation submits a burst of tasks and waits for all of them: the throughput mode reports the bursts completed
+ * per second, and the sample time mode reports the percentiles of the burst latency, including p0.99. With
+ * {@code pinned}, the tasks block while holding a monitor, which pins the carrier of virtual threads on Java 21.
+ * The virtual parameters fail on older runtimes.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+public class VirtualThreadsBenchmark {
+
+    @Param({ "platform", "virtual" })
+    private String threads;
+
+    @Param({ "false", "true" })
+    private boolean pinned;
+
+    @Param({ "200" })
+    private int tasks;
+
+    @Param({ "5" })
+    private int blockingMillis;
+
+    private AsyncTaskExecutor executor;
+
+    // One monitor per task, shared with the benchmark thread so that the locks are not elided
+    private Object[] monitors;
+
+    @Setup
+    public void setup() {
+        monitors = new Object[tasks];
+        for (int i = 0; i < tasks; i++) {
+            monitors[i] = new Object();
+        }
+        if ("virtual".equals(threads)) {
+            SimpleAsyncTaskExecutor virtualExecutor = new SimpleAsyncTaskExecutor(
+                VirtualThreadFactories
+                    .threadFactory("benchmark-virtual-")
+                    .orElseThrow(() -> new IllegalStateException("Virtual threads need Java 21"))
+            );
+            // application.virtual-threads.async-concurrency-limit
+            virtualExecutor.setConcurrencyLimit(50);
+            executor = virtualExecutor;
+        } else {
+            // spring.task.execution.pool
+            ThreadPoolTaskExecutor platformExecutor = new ThreadPoolTaskExecutor();
+            platformExecutor.setCorePoolSize(2);
+            platformExecutor.setMaxPoolSize(50);
+            platformExecutor.setQueueCapacity(10_000);
+            platformExecutor.setThreadNamePrefix("benchmark-platform-");
+            platformExecutor.initialize();
+            executor = platformExecutor;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (executor instanceof ThreadPoolTaskExecutor platformExecutor) {
+            platformExecutor.shutdown();
+        }
+    }
+
+    @Benchmark
+    public void blockingBurst() throws InterruptedException, ExecutionException {
+        List<Future<?>> futures = new ArrayList<>(tasks);
+        for (int i = 0; i < tasks; i++) {
+            Object monitor = monitors[i];
+            Runnable task = pinned ? () -> blockPinned(monitor) : this::block;
+            futures.add(executor.submit(task));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+    }
+
+    private void blockPinned(Object monitor) {
+        synchronized (monitor) {
+            block();
+        }
+    }
+
+    private void block() {
+        try {
+            Thread.sleep(blockingMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
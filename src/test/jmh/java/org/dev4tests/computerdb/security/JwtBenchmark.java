@@ -0,0 +1,103 @@
+package org.dev4tests.computerdb.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.dev4tests.computerdb.config.ApplicationProperties;
+import org.dev4tests.computerdb.config.SecurityJwtConfiguration;
+import org.dev4tests.computerdb.management.SecurityMetersService;
+import org.dev4tests.computerdb.web.rest.AuthenticateController;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Measures the decoding of the JWTs by the decoder of {@link SecurityJwtConfiguration}, which runs on every
+ * authenticated request, and their creation by {@link AuthenticateController#createToken}, for each signing algorithm.
+ * <p>
+ * With {@code cached}, the token is found in the token cache, as on the requests following the first one. Without it,
+ * the signature is verified and the claims are parsed every time. The creation of the tokens does not depend on it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 5)
+public class JwtBenchmark {
+
+    private static final String BASE64_SECRET =
+        "MWEzNDMxMjc0ZTA0OGU3ODhlMDAxMzYxYzE5NTM1OWY3YzkwMmVlZmU2MTM3ZDIyNTU2NGE5MGMxZDc4NTRiODU3Yjg2N2JmOTM1NGY0MDRmYzJkNzhj" +
+        "MDhkMDQ0NjQ1ZjE2MTdiODYxYmQ0MDNkMWQ2NjIwNTkxZjdjZDllMjQ=";
+
+    @Param({ "HS512", "RS256", "ES256" })
+    private String algorithm;
+
+    @Param({ "false", "true" })
+    private boolean cached;
+
+    private JwtDecoder jwtDecoder;
+
+    private AuthenticateController authenticateController;
+
+    private Authentication authentication;
+
+    private String token;
+
+    @Setup
+    public void setup() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getSecurity().getSigning().setAlgorithm(algorithm);
+        applicationProperties.getSecurity().getTokenCache().setEnabled(cached);
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().setTokenValidityInSeconds(86400);
+
+        SecurityJwtConfiguration securityJwtConfiguration = new SecurityJwtConfiguration();
+        ReflectionTestUtils.setField(securityJwtConfiguration, "jwtKey", BASE64_SECRET);
+        var jwkSource = securityJwtConfiguration.jwkSource(applicationProperties, jHipsterProperties);
+        jwtDecoder =
+            securityJwtConfiguration.jwtDecoder(
+                jwkSource,
+                applicationProperties,
+                new SecurityMetersService(new SimpleMeterRegistry()),
+                new StaticListableBeanFactory().getBeanProvider(ObservationRegistry.class)
+            );
+        JwtEncoder jwtEncoder = securityJwtConfiguration.jwtEncoder(jwkSource);
+
+        authenticateController =
+            new AuthenticateController(jwtEncoder, null, null, new StaticListableBeanFactory().getBeanProvider(ObservationRegistry.class));
+        ReflectionTestUtils.setField(authenticateController, "tokenValidityInSeconds", 86400L);
+        List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority(AuthoritiesConstants.USER));
+        DomainUserDetails user = new DomainUserDetails(1L, "user", "", authorities);
+        authentication = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+        token = authenticateController.createToken(authentication, false);
+    }
+
+    @Benchmark
+    public Jwt decode() {
+        return jwtDecoder.decode(token);
+    }
+
+    @Benchmark
+    public String createToken() {
+        return authenticateController.createToken(authentication, false);
+    }
+}
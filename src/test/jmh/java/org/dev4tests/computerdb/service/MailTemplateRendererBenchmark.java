@@ -0,0 +1,119 @@
+package org.dev4tests.computerdb.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import org.dev4tests.computerdb.domain.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.autoconfigure.thymeleaf.ThymeleafProperties;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+import tech.jhipster.config.JHipsterProperties;
+import tech.jhipster.security.RandomUtil;
+
+/**
+ * Compares the rendering of the mail templates by Thymeleaf for each email, as {@link MailService} used to do, with
+ * the {@link MailTemplateRenderer}.
+ * <p>
+ * Each invocation renders the content and the subject of an email for the next user of a pool, with a user-specific
+ * login and keys.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 5)
+public class MailTemplateRendererBenchmark {
+
+    private static final int USERS = 1024;
+
+    @Param({ "mail/activationEmail", "mail/creationEmail", "mail/passwordResetEmail" })
+    private String templateName;
+
+    @Param({ "en", "fr" })
+    private String langKey;
+
+    private SpringTemplateEngine templateEngine;
+
+    private ResourceBundleMessageSource messageSource;
+
+    private MailTemplateRenderer mailTemplateRenderer;
+
+    private String baseUrl;
+
+    private String titleKey;
+
+    private Locale locale;
+
+    private User[] users;
+
+    private int next;
+
+    @Setup
+    public void setup() {
+        ClassLoaderTemplateResolver templateResolver = new ClassLoaderTemplateResolver();
+        templateResolver.setPrefix("templates/");
+        templateResolver.setSuffix(".html");
+        templateResolver.setTemplateMode(TemplateMode.HTML);
+        templateResolver.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        messageSource = new ResourceBundleMessageSource();
+        messageSource.setBasename("i18n/messages");
+        messageSource.setDefaultEncoding(StandardCharsets.UTF_8.name());
+        templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(templateResolver);
+        templateEngine.setTemplateEngineMessageSource(messageSource);
+
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getMail().setBaseUrl("http://127.0.0.1:8080");
+        baseUrl = jHipsterProperties.getMail().getBaseUrl();
+        mailTemplateRenderer = new MailTemplateRenderer(templateEngine, messageSource, jHipsterProperties, new ThymeleafProperties());
+
+        titleKey = "mail/passwordResetEmail".equals(templateName) ? "email.reset.title" : "email.activation.title";
+        locale = Locale.forLanguageTag(langKey);
+        users = new User[USERS];
+        for (int i = 0; i < USERS; i++) {
+            User user = new User();
+            user.setLogin("user-" + i);
+            user.setEmail("user-" + i + "@example.com");
+            user.setLangKey(langKey);
+            user.setActivationKey(RandomUtil.generateActivationKey());
+            user.setResetKey(RandomUtil.generateResetKey());
+            users[i] = user;
+        }
+    }
+
+    @Benchmark
+    public void thymeleaf(Blackhole blackhole) {
+        Context context = new Context(locale);
+        context.setVariable("user", nextUser());
+        context.setVariable("baseUrl", baseUrl);
+        blackhole.consume(templateEngine.process(templateName, context));
+        blackhole.consume(messageSource.getMessage(titleKey, null, locale));
+    }
+
+    @Benchmark
+    public void cached(Blackhole blackhole) {
+        blackhole.consume(mailTemplateRenderer.renderContent(templateName, nextUser(), locale));
+        blackhole.consume(mailTemplateRenderer.renderSubject(titleKey, locale));
+    }
+
+    private User nextUser() {
+        next = (next + 1) & (USERS - 1);
+        return users[next];
+    }
+}
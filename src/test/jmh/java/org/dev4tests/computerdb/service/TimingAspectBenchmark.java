@@ -0,0 +1,91 @@
+package org.dev4tests.computerdb.service;
+
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.dev4tests.computerdb.aop.logging.LoggingAspect;
+import org.dev4tests.computerdb.aop.timing.TimingAspect;
+import org.dev4tests.computerdb.config.ApplicationProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.stereotype.Service;
+
+/**
+ * Measures the overhead of the {@link TimingAspect} on a trivial service method, compared with the same proxy without
+ * advice and with the {@link LoggingAspect} of the dev profile, its debug logs being off.
+ * <p>
+ * The benchmark lives in the service package so that its target matches the pointcuts of the aspects. The timers are
+ * registered in a Prometheus registry, as in production. Several threads call the method, to include the contention
+ * on the timers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Threads(4)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 5)
+public class TimingAspectBenchmark {
+
+    @Param({ "unadvised", "logging", "timing-disabled", "timing-sampled", "timing", "timing-histogram" })
+    private String advice;
+
+    private BenchmarkService service;
+
+    @Setup
+    public void setup() {
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new BenchmarkService());
+        proxyFactory.setProxyTargetClass(true);
+        ApplicationProperties.Timing timing = new ApplicationProperties.Timing();
+        switch (advice) {
+            case "unadvised" -> {
+                // Same proxy, without advice
+            }
+            case "logging" -> proxyFactory.addAspect(new LoggingAspect(new StandardEnvironment()));
+            case "timing-disabled" -> {
+                timing.setEnabled(false);
+                proxyFactory.addAspect(timingAspect(timing));
+            }
+            case "timing-sampled" -> {
+                timing.setSampleRate(0.1);
+                proxyFactory.addAspect(timingAspect(timing));
+            }
+            case "timing" -> proxyFactory.addAspect(timingAspect(timing));
+            case "timing-histogram" -> {
+                timing.setPercentileHistogram(true);
+                proxyFactory.addAspect(timingAspect(timing));
+            }
+            default -> throw new IllegalArgumentException("Unknown advice: " + advice);
+        }
+        service = proxyFactory.getProxy();
+    }
+
+    @Benchmark
+    public int call() {
+        return service.compute(42);
+    }
+
+    private static TimingAspect timingAspect(ApplicationProperties.Timing timing) {
+        return new TimingAspect(new PrometheusMeterRegistry(PrometheusConfig.DEFAULT), timing);
+    }
+
+    @Service
+    public static class BenchmarkService {
+
+        public int compute(int value) {
+            return value * 31 + 7;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package org.dev4tests.computerdb.web.filter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Measures {@link SpaWebFilter#doFilterInternal}, which runs on every request, for an API call, a static resource and
+ * a client route.
+ * <p>
+ * With {@code inMemory}, the client route is answered with an {@code index.html} held in memory, as in production.
+ * Without it, it is forwarded to {@code index.html}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 5)
+public class SpaWebFilterBenchmark {
+
+    private static final FilterChain FILTER_CHAIN = (request, response) -> {};
+
+    @Param({ "/api/admin/users", "/management/health", "/app/main.js", "/admin/user-management" })
+    private String path;
+
+    @Param({ "false", "true" })
+    private boolean inMemory;
+
+    private SpaWebFilter filter;
+
+    private MockHttpServletRequest request;
+
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setup() {
+        byte[] index = "<!doctype html><html><body><jhi-main></jhi-main></body></html>".getBytes(StandardCharsets.UTF_8);
+        filter = inMemory ? new SpaWebFilter(new ByteArrayResource(index)) : new SpaWebFilter();
+        request = new MockHttpServletRequest("GET", path);
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse doFilterInternal() throws ServletException, IOException {
+        response.reset();
+        filter.doFilterInternal(request, response, FILTER_CHAIN);
+        return response;
+    }
+}
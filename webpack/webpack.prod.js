@@ -1,15 +1,19 @@
+const zlib = require('zlib');
 const webpack = require('webpack');
 const webpackMerge = require('webpack-merge').merge;
 const MiniCssExtractPlugin = require('mini-css-extract-plugin');
 const WorkboxPlugin = require('workbox-webpack-plugin');
 const TerserPlugin = require('terser-webpack-plugin');
 const CssMinimizerPlugin = require('css-minimizer-webpack-plugin');
+const CompressionPlugin = require('compression-webpack-plugin');
 const sass = require('sass');
 
 const utils = require('./utils.js');
 const commonConfig = require('./webpack.common.js');
 
 const ENV = 'production';
+// Served by StaticResourcesWebConfiguration instead of the original files to the clients which accept them
+const COMPRESSIBLE_ASSETS = /\.(js|css|json|svg|txt|map)$/;
 
 module.exports = async () =>
   webpackMerge(await commonConfig({ env: ENV }), {
@@ -106,7 +110,23 @@ module.exports = async () =>
       new WorkboxPlugin.GenerateSW({
         clientsClaim: true,
         skipWaiting: true,
-        exclude: [/swagger-ui/],
+        exclude: [/swagger-ui/, /\.(br|gz)$/],
+      }),
+      new CompressionPlugin({
+        filename: '[path][base].gz',
+        algorithm: 'gzip',
+        compressionOptions: { level: zlib.constants.Z_BEST_COMPRESSION },
+        test: COMPRESSIBLE_ASSETS,
+        threshold: 1024,
+        minRatio: 0.8,
+      }),
+      new CompressionPlugin({
+        filename: '[path][base].br',
+        algorithm: 'brotliCompress',
+        compressionOptions: { params: { [zlib.constants.BROTLI_PARAM_QUALITY]: zlib.constants.BROTLI_MAX_QUALITY } },
+        test: COMPRESSIBLE_ASSETS,
+        threshold: 1024,
+        minRatio: 0.8,
       }),
     ],
   });